@@ -1,13 +1,19 @@
 package calendar;
 
-import java.io.FileReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.nio.file.Path;
 
 
 import calendar.controller.GuiController;
 import calendar.controller.HeadlessController;
 import calendar.controller.InteractiveController;
+import calendar.controller.LineReader;
+import calendar.controller.ParallelHeadlessController;
+import calendar.controller.ServerController;
+import calendar.controller.SessionServer;
+import calendar.controller.SlowCommandLog;
+import calendar.controller.commands.CommandMetrics;
 import calendar.model.CalendarManager;
 import calendar.model.CalendarModel;
 import calendar.controller.CommandParser;
@@ -23,16 +29,28 @@ import calendar.view.CalendarView;
  */
 public class CalendarApp {
 
+  private static final int DEFAULT_PORT = 8080;
+  private static final int DEFAULT_SESSION_PORT = 7070;
+  private static final int MAX_SESSIONS = 10000;
+  private static final long DEFAULT_SLOW_LOG_MILLIS = 100;
+
   /**
    * Main entry point for the calendar.
    *
+   * The commands of the GUI, interactive and headless modes, parallel or not, that take longer
+   * than the calendar.slowLogMillis system property, 100 by default, are logged to the file
+   * named by the calendar.slowLog system property, if it is set.
+   *
    * @param args command line arguments specifying mode and optional filename
    * @throws IOException if file reading fails in headless mode
    */
   public static void main(String[] args) throws IOException {
     try {
 
-      CalendarManager manager = new CalendarManager();
+      CalendarManager manager = args.length == 0 ? new GuiCalendarManager()
+              : new CalendarManager();
+      manager.registerMBean();
+      CommandMetrics.global().register();
       CalendarModel model;
       CalendarView view;
       Readable in;
@@ -40,22 +58,62 @@ public class CalendarApp {
       if (args.length == 0) {
         CalendarGuiView guiView;
         guiView = new CalendarSwingView();
-        GuiController controller = new GuiController(new GuiCalendarManager(), guiView);
+        GuiController controller = new GuiController(manager, guiView);
+        SlowCommandLog slowLog = openSlowLog();
+        controller.setSlowCommandLog(slowLog);
+        closeSlowLogOnExit(slowLog);
         guiView.setController(controller);
         controller.run();
       } else if (args.length < 2 || !args[0].equalsIgnoreCase("--mode")) {
-        System.out.println("Usage: --mode interactive/headless");
+        System.out.println("Usage: --mode interactive/headless/server/sessions");
         return;
       } else if (args[1].equalsIgnoreCase("interactive")) {
         in = new InputStreamReader(System.in);
         view = new CalendarTextView(System.out);
         CommandParser parser = new CommandParserImpl(manager, view);
-        new InteractiveController(view, in, parser).run();
+        InteractiveController controller = new InteractiveController(view, in, parser);
+        SlowCommandLog slowLog = openSlowLog();
+        controller.setSlowCommandLog(slowLog);
+        try {
+          controller.run();
+        } finally {
+          closeSlowLog(slowLog);
+        }
       } else if (args[1].equalsIgnoreCase("headless") && args.length == 3) {
-        in = new FileReader(args[2]);
+        LineReader script = LineReader.open(Path.of(args[2]));
         view = new CalendarTextView(System.out);
         CommandParser parser = new CommandParserImpl(manager, view);
-        new HeadlessController(view, in, parser).run();
+        HeadlessController controller = new HeadlessController(view, script, parser);
+        SlowCommandLog slowLog = openSlowLog();
+        controller.setSlowCommandLog(slowLog);
+        try {
+          controller.run();
+        } finally {
+          closeSlowLog(slowLog);
+        }
+      } else if (args[1].equalsIgnoreCase("headless") && args.length == 4
+              && args[3].equalsIgnoreCase("--parallel")) {
+        LineReader script = LineReader.open(Path.of(args[2]));
+        view = new CalendarTextView(System.out);
+        ParallelHeadlessController controller = new ParallelHeadlessController(manager, view,
+                script, Runtime.getRuntime().availableProcessors());
+        SlowCommandLog slowLog = openSlowLog();
+        controller.setSlowCommandLog(slowLog);
+        try {
+          controller.run();
+        } finally {
+          closeSlowLog(slowLog);
+        }
+      } else if (args[1].equalsIgnoreCase("server") && args.length <= 3) {
+        int port = args.length == 3 ? Integer.parseInt(args[2]) : DEFAULT_PORT;
+        ServerController server = new ServerController(manager, port);
+        System.out.println("Serving calendars on http://localhost:" + port + "/calendars");
+        server.run();
+      } else if (args[1].equalsIgnoreCase("sessions") && args.length <= 3) {
+        int port = args.length == 3 ? Integer.parseInt(args[2]) : DEFAULT_SESSION_PORT;
+        SessionServer server = new SessionServer(manager, port, MAX_SESSIONS);
+        System.out.println("Accepting sessions on localhost:" + port);
+        server.run();
       } else {
         System.out.println("Invalid mode or missing file for headless mode.");
         return;
@@ -64,4 +122,36 @@ public class CalendarApp {
       throw new RuntimeException(e);
     }
   }
+
+  private static SlowCommandLog openSlowLog() throws IOException {
+    String file = System.getProperty("calendar.slowLog");
+    if (file == null) {
+      return null;
+    }
+    return new SlowCommandLog(Path.of(file), Long.getLong("calendar.slowLogMillis",
+            DEFAULT_SLOW_LOG_MILLIS));
+  }
+
+  private static void closeSlowLog(SlowCommandLog slowLog) throws IOException {
+    if (slowLog != null) {
+      slowLog.close();
+    }
+  }
+
+  /**
+   * Closes the slow command log when the JVM exits, for the GUI, which keeps running after
+   * main returns and ends when its window is closed.
+   */
+  private static void closeSlowLogOnExit(SlowCommandLog slowLog) {
+    if (slowLog == null) {
+      return;
+    }
+    Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+      try {
+        slowLog.close();
+      } catch (IOException e) {
+        // the JVM is exiting, so the lines still queued are lost
+      }
+    }, "calendar-slow-log-close"));
+  }
 }
@@ -0,0 +1,122 @@
+package calendar.controller;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import calendar.controller.commands.CommandExecutionException;
+import calendar.model.CalendarModel;
+
+/**
+ * Locks on the calendars that several sessions share. Each calendar has a lock of its own, so
+ * sessions working on different calendars run their commands at the same time, and one more
+ * read-write lock guards the set of calendars and their names. A command on the calendar in use
+ * takes the read lock and then that calendar's lock. A command that reaches past it takes the
+ * write lock and then the lock of every calendar, always in the order the locks were made.
+ *
+ * <p>Locks are taken with a timeout. A session that cannot get a lock in time gives up with an
+ * error instead of waiting forever, which also breaks a deadlock between two sessions that each
+ * hold a calendar the other one wants.</p>
+ */
+class CalendarLocks {
+
+  private final long timeoutMillis;
+  private final ReadWriteLock catalog;
+  private final Map<CalendarModel, CalendarLock> locks;
+  private long made;
+
+  /**
+   * Constructs a CalendarLocks.
+   *
+   * @param timeoutMillis how long to wait for a lock before giving up, in milliseconds.
+   */
+  CalendarLocks(long timeoutMillis) {
+    this.timeoutMillis = timeoutMillis;
+    this.catalog = new ReentrantReadWriteLock(true);
+    this.locks = new WeakHashMap<>();
+    this.made = 0;
+  }
+
+  /**
+   * Gets the lock that guards the set of calendars and their names.
+   *
+   * @return ReadWriteLock.
+   */
+  ReadWriteLock catalog() {
+    return this.catalog;
+  }
+
+  /**
+   * Gets the lock of one calendar, making it if the calendar has none yet.
+   *
+   * @param calendar the calendar.
+   * @return Lock.
+   */
+  Lock of(CalendarModel calendar) {
+    return this.lockOf(calendar).lock;
+  }
+
+  /**
+   * Gets the locks of the given calendars in the order they must be taken.
+   *
+   * @param calendars the calendars.
+   * @return List of Lock.
+   */
+  List<Lock> of(List<CalendarModel> calendars) {
+    List<CalendarLock> ordered = new ArrayList<>();
+    for (CalendarModel calendar : calendars) {
+      ordered.add(this.lockOf(calendar));
+    }
+    ordered.sort(Comparator.comparingLong(lock -> lock.order));
+    List<Lock> locks = new ArrayList<>();
+    for (CalendarLock lock : ordered) {
+      locks.add(lock.lock);
+    }
+    return Collections.unmodifiableList(locks);
+  }
+
+  /**
+   * Takes a lock, waiting no longer than the timeout.
+   *
+   * @param lock the lock.
+   * @throws CommandExecutionException if the lock could not be taken in time.
+   */
+  void acquire(Lock lock) throws CommandExecutionException {
+    boolean locked;
+    try {
+      locked = lock.tryLock(this.timeoutMillis, TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      locked = false;
+    }
+    if (!locked) {
+      throw new CommandExecutionException("Calendar is in use by another session, "
+              + "try again later");
+    }
+  }
+
+  private synchronized CalendarLock lockOf(CalendarModel calendar) {
+    return this.locks.computeIfAbsent(calendar, key -> new CalendarLock(this.made++));
+  }
+
+  /**
+   * The lock of one calendar, with the order in which it was made.
+   */
+  private static class CalendarLock {
+    private final long order;
+    private final Lock lock;
+
+    CalendarLock(long order) {
+      this.order = order;
+      this.lock = new ReentrantLock(true);
+    }
+  }
+}
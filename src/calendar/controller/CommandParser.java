@@ -16,4 +16,12 @@ public interface CommandParser {
    * @throws CommandExecutionException if the command is invalid or malformed
    */
   Command parse(String cmd) throws CommandExecutionException;
+
+  /**
+   * Ends the session this parser parses commands for, once its input has ended, it has quit
+   * or it has been disconnected. Work the session left unfinished, such as an open batch, is
+   * undone.
+   */
+  default void endSession() {
+  }
 }
@@ -1,30 +1,51 @@
 package calendar.controller;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.time.ZoneId;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
+import calendar.controller.commands.BeginBatchCommand;
 import calendar.controller.commands.Command;
 import calendar.controller.commands.CommandExecutionException;
+import calendar.controller.commands.CommandMetrics;
+import calendar.controller.commands.CommitBatchCommand;
 import calendar.controller.commands.CopyEventCommand;
 import calendar.controller.commands.CreateCalendarCommand;
 import calendar.controller.commands.CreateEventCommand;
 import calendar.controller.commands.CreateEventSeriesCommand;
 import calendar.controller.commands.EditCalendarCommand;
 import calendar.controller.commands.EditEventCommand;
+import calendar.controller.commands.FindEventsCommand;
+import calendar.controller.commands.FindSlotsCommand;
+import calendar.controller.commands.PrintAgendaCommand;
 import calendar.controller.commands.PrintEventOnDateCommand;
 import calendar.controller.commands.PrintEventsDTIntervalCommand;
 import calendar.controller.commands.QuitCommand;
+import calendar.controller.commands.RedoCommand;
+import calendar.controller.commands.RollbackBatchCommand;
+import calendar.controller.commands.ShowOverlapsCommand;
+import calendar.controller.commands.ShowStatusAllCommand;
 import calendar.controller.commands.ShowStatusOnDTCommand;
+import calendar.controller.commands.StatsCommand;
+import calendar.controller.commands.UndoCommand;
 import calendar.controller.commands.UseCalendarCommand;
 import calendar.model.CalendarManager;
+import calendar.model.CommandTrace;
+import calendar.model.SlotFinder;
 import calendar.view.CalendarView;
 
 /**
  * Represents the implementation of CommandParser that handles calendar command syntax.
  */
 public class CommandParserImpl implements CommandParser {
+  private static final String IDS_FLAG = "--ids";
+
   CalendarManager manager;
   CalendarView view;
 
@@ -41,7 +62,14 @@ public class CommandParserImpl implements CommandParser {
 
   /**
    * Parses the given input command and returns the corresponding
-   * Command object.
+   * Command object. The changes made by each command are recorded as one step that "undo"
+   * and "redo" step back and forth through. "stats" shows the command metrics and the query
+   * statistics of the calendars. Between "begin" and "commit" or "rollback", the whole batch
+   * is one step, and a command that fails to parse or execute rolls back the batch, after
+   * which later commands are refused until the batch is ended. A batch still open at "exit"
+   * is rolled back, even if it has failed. Each parse is recorded as a calendar.Parse flight
+   * recorder event, and marks the command the model and view events of this thread are tagged
+   * with.
    *
    * @param input the text command to parse
    * @return a Command.
@@ -50,6 +78,84 @@ public class CommandParserImpl implements CommandParser {
    */
   @Override
   public Command parse(String input) throws CommandExecutionException {
+    String type = CommandMetrics.typeOf(input);
+    CommandTrace.start(type, manager.getActiveCalendar());
+    ParseEvent event = new ParseEvent();
+    event.begin();
+    boolean parsed = false;
+    try {
+      Command command = this.parseInput(input);
+      parsed = true;
+      return command;
+    } finally {
+      event.end();
+      if (event.shouldCommit()) {
+        event.commandType = type;
+        event.calendar = CommandTrace.getCalendar();
+        event.succeeded = parsed;
+        event.commit();
+      }
+    }
+  }
+
+  /**
+   * Rolls back the batch still open, if any, and keeps the changes of the last command as an
+   * undo step.
+   */
+  @Override
+  public void endSession() {
+    if (manager.isInTransaction()) {
+      try {
+        manager.rollbackTransaction();
+      } catch (CommandExecutionException e) {
+        // the batch is already ended
+      }
+    }
+    manager.closeUndoStep();
+  }
+
+  private Command parseInput(String input) throws CommandExecutionException {
+    String word = input.trim().toLowerCase();
+    if (word.equals("begin")) {
+      return new BeginBatchCommand(manager);
+    } else if (word.equals("commit")) {
+      return new CommitBatchCommand(manager);
+    } else if (word.equals("rollback")) {
+      return new RollbackBatchCommand(manager);
+    } else if (word.equals("undo")) {
+      return new UndoCommand(manager);
+    } else if (word.equals("redo")) {
+      return new RedoCommand(manager);
+    } else if (word.equals("stats")) {
+      return new StatsCommand(CommandMetrics.global(), manager, view);
+    } else if (!manager.isInTransaction()) {
+      manager.nextUndoStep();
+      return this.parseCommand(input);
+    } else if (word.equals("exit") || word.equals("quit")) {
+      manager.rollbackTransaction();
+      return this.makeQuitCommand();
+    } else if (manager.isTransactionFailed()) {
+      throw new CommandExecutionException("Batch failed, end it with commit or rollback");
+    }
+
+    Command command;
+    try {
+      command = this.parseCommand(input);
+    } catch (CommandExecutionException e) {
+      manager.failTransaction();
+      throw e;
+    }
+    return () -> {
+      try {
+        command.execute();
+      } catch (CommandExecutionException | RuntimeException e) {
+        manager.failTransaction();
+        throw e;
+      }
+    };
+  }
+
+  private Command parseCommand(String input) throws CommandExecutionException {
 
     try {
       if (input.startsWith("create calendar") || input.startsWith("use calendar")
@@ -85,7 +191,9 @@ public class CommandParserImpl implements CommandParser {
         }
       } else if (input.toLowerCase().startsWith("edit event")
               || input.toLowerCase().startsWith("edit series")) {
-        if (this.isSingleEventEditCommand(input)) {
+        if (this.isEditByIdCommand(input)) {
+          return this.makeEditByIdCommand(input);
+        } else if (this.isSingleEventEditCommand(input)) {
           return this.makeSingleEventEditCommand(input);
         } else if (this.isEditAllAfterInSeriesCommand(input)) {
           return this.makeEditAllAfterInSeriesCommand(input);
@@ -98,6 +206,14 @@ public class CommandParserImpl implements CommandParser {
         } else if (input.toLowerCase().contains("from")) {
           return this.makePrintEventsDTInterval(input);
         }
+      } else if (input.toLowerCase().startsWith("print agenda")) {
+        return this.makePrintAgendaCommand(input);
+      } else if (input.toLowerCase().startsWith("find events with subject")) {
+        return this.makeFindEventsCommand(input);
+      } else if (input.toLowerCase().startsWith("find slots")) {
+        return this.makeFindSlotsCommand(input);
+      } else if (input.toLowerCase().startsWith("show overlaps")) {
+        return this.makeShowOverlapsCommand(input);
       } else if (input.toLowerCase().startsWith("show status")) {
         return this.makeShowStatusOnDT(input);
       } else if (input.toLowerCase().startsWith("copy event")) {
@@ -125,7 +241,9 @@ public class CommandParserImpl implements CommandParser {
       String newValue = this.parseMultiWordSubject(input.substring(input.indexOf("--property")),
               2);
       String property;
-      if (input.contains("timezone")) {
+      if (input.contains("--property overlaps")) {
+        property = "overlaps";
+      } else if (input.contains("timezone")) {
         property = "timezone";
       } else if (input.contains("name")) {
         property = "name";
@@ -254,6 +372,43 @@ public class CommandParserImpl implements CommandParser {
     return new QuitCommand(view);
   }
 
+  /**
+   * Makes an EditEventCommand that finds the event to edit by its id, e.g.
+   * "edit series location #42 with Library".
+   *
+   * @param input given command.
+   * @return EditEventCommand.
+   * @throws CommandExecutionException if the given command is invalid.
+   */
+  private Command makeEditByIdCommand(String input) throws CommandExecutionException {
+    String[] split = input.split(" ");
+    String property = split[2];
+    long id = Long.parseLong(split[3].substring(1));
+    String newValue = this.parseMultiWordSubject(input.substring(input.indexOf(" with ") + 1),
+            1);
+    String editType;
+    if (split[1].equalsIgnoreCase("series")) {
+      editType = "all";
+    } else if (split[1].equalsIgnoreCase("events")) {
+      editType = "allAfter";
+    } else {
+      editType = "single";
+    }
+    return new EditEventCommand(manager.getActiveCalendar(), id, property, newValue, editType);
+  }
+
+  /**
+   * Determines if the given edit command addresses its event by id, e.g.
+   * "edit event subject #42 with Standup".
+   *
+   * @param input given command.
+   * @return boolean.
+   */
+  private boolean isEditByIdCommand(String input) {
+    String[] split = input.split(" ");
+    return split.length > 5 && split[3].startsWith("#") && split[4].equals("with");
+  }
+
   /**
    * Makes a EditCommand that edits every Event in a Series.
    *
@@ -498,11 +653,102 @@ public class CommandParserImpl implements CommandParser {
   }
 
   /**
-   * Constructs a command to show the calendar status at a specific datetime.
+   * Constructs a command to find every event with a subject, e.g.
+   * "find events with subject "Team Sync" --ignore-case".
+   */
+  private Command makeFindEventsCommand(String input) {
+    boolean ignoreCase = input.endsWith(" --ignore-case");
+    String rest = ignoreCase ? input.substring(0, input.length() - 14) : input;
+    String subject = this.parseMultiWordSubject(rest, 4);
+    return new FindEventsCommand(manager.getActiveCalendar(), view, subject, ignoreCase);
+  }
+
+  /**
+   * Constructs a command that finds free slots shared by calendars, e.g.
+   * "find slots 30 from 2025-06-16T00:00 to 2025-06-20T23:59 between 09:00 and 17:00
+   * --weekdays --limit 5 --calendars Work,Home". The working hours, flags and calendars are
+   * optional; without --calendars only the active calendar is searched.
+   */
+  private Command makeFindSlotsCommand(String input) throws CommandExecutionException {
+    String[] split = input.split(" ");
+    Duration length = Duration.ofMinutes(Long.parseLong(split[2]));
+    if (!split[3].equals("from") || !split[5].equals("to")) {
+      throw new CommandExecutionException("Invalid command");
+    }
+    LocalDateTime from = LocalDateTime.parse(split[4]);
+    LocalDateTime to = LocalDateTime.parse(split[6]);
+    LocalTime dayStart = LocalTime.MIDNIGHT;
+    LocalTime dayEnd = LocalTime.MIDNIGHT;
+    boolean weekdaysOnly = false;
+    int limit = 10;
+    List<String> calendarNames = new ArrayList<>();
+    calendarNames.add(manager.getActiveCalendar().getName());
+    for (int i = 7; i < split.length; i += 1) {
+      if (split[i].equals("between") && split[i + 2].equals("and")) {
+        dayStart = LocalTime.parse(split[i + 1]);
+        dayEnd = LocalTime.parse(split[i + 3]);
+        i += 3;
+      } else if (split[i].equals("--weekdays")) {
+        weekdaysOnly = true;
+      } else if (split[i].equals("--limit")) {
+        limit = Integer.parseInt(split[i + 1]);
+        i += 1;
+      } else if (split[i].equals("--calendars")) {
+        calendarNames = Arrays.asList(split[i + 1].split(","));
+        i += 1;
+      } else {
+        throw new CommandExecutionException("Invalid command");
+      }
+    }
+    return new FindSlotsCommand(manager, view, calendarNames,
+            new SlotFinder(length, dayStart, dayEnd, weekdaysOnly), from, to, limit);
+  }
+
+  /**
+   * Constructs a command to print the merged agenda of all calendars, either
+   * "print agenda on 2025-06-16" or "print agenda from 2025-06-16T09:00 to 2025-06-16T17:00".
+   */
+  private Command makePrintAgendaCommand(String input) throws CommandExecutionException {
+    String[] split = input.split(" ");
+    if (split.length == 4 && split[2].equals("on")) {
+      LocalDate date = LocalDate.parse(split[3]);
+      return new PrintAgendaCommand(manager, view, date.atStartOfDay(),
+              date.atTime(LocalTime.MAX));
+    }
+    if (split.length != 6 || !split[2].equals("from") || !split[4].equals("to")) {
+      throw new CommandExecutionException("Invalid command");
+    }
+    return new PrintAgendaCommand(manager, view,
+            LocalDateTime.parse(split[3]), LocalDateTime.parse(split[5]));
+  }
+
+  /**
+   * Constructs a command to show overlapping events, either "show overlaps" for the whole
+   * calendar or "show overlaps from 2025-06-16T00:00 to 2025-06-20T23:59" for an interval.
+   */
+  private Command makeShowOverlapsCommand(String input) throws CommandExecutionException {
+    String[] split = input.split(" ");
+    if (split.length == 2) {
+      return new ShowOverlapsCommand(manager.getActiveCalendar(), view);
+    }
+    if (split.length != 6 || !split[2].equals("from") || !split[4].equals("to")) {
+      throw new CommandExecutionException("Invalid command");
+    }
+    return new ShowOverlapsCommand(manager.getActiveCalendar(), view,
+            LocalDateTime.parse(split[3]), LocalDateTime.parse(split[5]));
+  }
+
+  /**
+   * Constructs a command to show the calendar status at a specific datetime, or the status
+   * of every calendar when the command ends with "--all".
    */
   private Command makeShowStatusOnDT(String input) throws CommandExecutionException {
     String[] split = input.split(" ");
     try {
+      if (split[split.length - 1].equals("--all")) {
+        LocalDateTime date = LocalDateTime.parse(split[split.length - 2]);
+        return new ShowStatusAllCommand(manager, view, date);
+      }
       LocalDateTime date = LocalDateTime.parse(split[split.length - 1]);
       return new ShowStatusOnDTCommand(manager.getActiveCalendar(), view, date);
     } catch (DateTimeParseException e) {
@@ -511,28 +757,34 @@ public class CommandParserImpl implements CommandParser {
   }
 
   /**
-   * Constructs a command to print events between two datetime values.
+   * Constructs a command to print events between two datetime values, with their ids if the
+   * input ends with "--ids".
    */
   private Command makePrintEventsDTInterval(String input) throws CommandExecutionException {
+    boolean showIds = input.endsWith(" " + IDS_FLAG);
     String[] split = input.split(" ");
+    int last = showIds ? split.length - 2 : split.length - 1;
     try {
-      LocalDateTime endDate = LocalDateTime.parse(split[split.length - 1]);
-      LocalDateTime startDate = LocalDateTime.parse(split[split.length - 3]);
+      LocalDateTime endDate = LocalDateTime.parse(split[last]);
+      LocalDateTime startDate = LocalDateTime.parse(split[last - 2]);
       return new PrintEventsDTIntervalCommand(manager.getActiveCalendar(),
-              view, startDate, endDate);
+              view, startDate, endDate, showIds);
     } catch (DateTimeParseException e) {
       throw new CommandExecutionException();
     }
   }
 
   /**
-   * Constructs a command to print all events occurring on a specific date.
+   * Constructs a command to print all events occurring on a specific date, with their ids if the
+   * input ends with "--ids".
    */
   private Command makePrintEventOnDateCommand(String input) throws CommandExecutionException {
+    boolean showIds = input.endsWith(" " + IDS_FLAG);
     String[] strArr = input.split(" ");
+    int last = showIds ? strArr.length - 2 : strArr.length - 1;
     try {
-      LocalDate date = LocalDate.parse(strArr[strArr.length - 1]);
-      return new PrintEventOnDateCommand(manager.getActiveCalendar(), view, date);
+      LocalDate date = LocalDate.parse(strArr[last]);
+      return new PrintEventOnDateCommand(manager.getActiveCalendar(), view, date, showIds);
     } catch (DateTimeParseException e) {
       throw new CommandExecutionException();
     }
@@ -7,9 +7,12 @@ import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.List;
 
+import calendar.controller.commands.Command;
 import calendar.controller.commands.CommandExecutionException;
+import calendar.model.CalendarChange;
 import calendar.model.CalendarManager;
 import calendar.model.CalendarModel;
+import calendar.model.CommandTrace;
 import calendar.model.Event;
 import calendar.model.GuiCalendarModel;
 import calendar.view.CalendarGuiView;
@@ -21,6 +24,7 @@ public class GuiController implements CalendarController, Features {
 
   private final CalendarManager manager;
   private final CalendarGuiView view;
+  private SlowCommandLog slowLog;
 
   /**
    * Constructs a GuiController with the given manager, view, and model.
@@ -31,6 +35,56 @@ public class GuiController implements CalendarController, Features {
   public GuiController(CalendarManager manager, CalendarGuiView view) {
     this.manager = manager;
     this.view = view;
+    this.manager.addChangeListener(this::calendarChanged);
+  }
+
+  /**
+   * Refreshes the view when a batch of changes touches the calendar currently on screen.
+   *
+   * @param changes the changes made to a calendar.
+   */
+  private void calendarChanged(List<CalendarChange> changes) {
+    CalendarModel active = this.manager.getActiveCalendar();
+    if (active == null) {
+      return;
+    }
+    for (CalendarChange change : changes) {
+      if (active.getName().equals(change.getCalendarName())) {
+        this.view.refreshEvents();
+        return;
+      }
+    }
+  }
+
+  /**
+   * Logs the actions that take longer than the log's threshold.
+   *
+   * @param slowLog the log, or null to log nothing.
+   */
+  public void setSlowCommandLog(SlowCommandLog slowLog) {
+    this.slowLog = slowLog;
+  }
+
+  /**
+   * Runs an action on the calendars, tagging what it does with its name and logging it if it
+   * is slow.
+   *
+   * @param action the name of the action, such as "add event".
+   * @param input  a description of the action, logged as its input.
+   * @param body   the action.
+   * @throws CommandExecutionException if the action fails.
+   */
+  private void perform(String action, String input, Command body)
+          throws CommandExecutionException {
+    CommandTrace.start(action, this.manager.getActiveCalendar());
+    long start = System.nanoTime();
+    try {
+      body.execute();
+    } finally {
+      if (this.slowLog != null) {
+        this.slowLog.record(input, action, start);
+      }
+    }
   }
 
   /**
@@ -61,7 +115,8 @@ public class GuiController implements CalendarController, Features {
     if (start.isAfter(end) || start.isEqual(end)) {
       throw new CommandExecutionException("Event start time has to be before end time");
     }
-    this.manager.getActiveCalendar().addEvent(new Event(subject, start, end));
+    this.perform("add event", "add event " + subject + " from " + start + " to " + end,
+            () -> this.manager.getActiveCalendar().addEvent(new Event(subject, start, end)));
   }
 
   /**
@@ -92,12 +147,18 @@ public class GuiController implements CalendarController, Features {
    */
   public List<Event> getEventSchedule() {
     CalendarModel curCal = this.manager.getActiveCalendar();
+    CommandTrace.start("get schedule", curCal);
+    long start = System.nanoTime();
     try {
       GuiCalendarModel attemptCal = (GuiCalendarModel) curCal;
       return attemptCal.getScheduledEvents();
     } catch (Exception e) {
       System.out.println(e.getMessage());
       this.view.renderError("Unable to get event schedule");
+    } finally {
+      if (this.slowLog != null) {
+        this.slowLog.record("get schedule", "get schedule", start);
+      }
     }
     return List.of();
   }
@@ -112,7 +173,8 @@ public class GuiController implements CalendarController, Features {
     if (name == null || name.trim().isEmpty()) {
       throw new CommandExecutionException("Calendar name can't be empty");
     }
-    this.manager.addCalendar(name, ZoneId.systemDefault());
+    this.perform("create calendar", "create calendar " + name,
+            () -> this.manager.addCalendar(name, ZoneId.systemDefault()));
   }
 
   /**
@@ -166,19 +228,30 @@ public class GuiController implements CalendarController, Features {
             editedEvent.getStartDateTime().isEqual(editedEvent.getEndDateTime())) {
       throw new CommandExecutionException("Event start time have to be before end time");
     }
-    boolean removed = activeCalendar.removeEvent(originalEvent);
-    if (!removed) {
-      throw new CommandExecutionException("Original event not found in calendar");
-    }
+    this.perform("edit event", "edit event " + originalEvent + " to " + editedEvent,
+            () -> this.replaceEvent(activeCalendar, originalEvent, editedEvent));
+  }
 
+  private void replaceEvent(CalendarModel activeCalendar, Event originalEvent,
+                            Event editedEvent) throws CommandExecutionException {
+    activeCalendar.beginBatch();
     try {
-      activeCalendar.addEvent(editedEvent);
-    } catch (CommandExecutionException e) {
+      boolean removed = activeCalendar.removeEvent(originalEvent);
+      if (!removed) {
+        throw new CommandExecutionException("Original event not found in calendar");
+      }
+
       try {
-        activeCalendar.addEvent(originalEvent);
-      } catch (CommandExecutionException ignored) {
+        activeCalendar.addEvent(editedEvent);
+      } catch (CommandExecutionException e) {
+        try {
+          activeCalendar.addEvent(originalEvent);
+        } catch (CommandExecutionException ignored) {
+        }
+        throw new CommandExecutionException("Failed to update event: " + e.getMessage());
       }
-      throw new CommandExecutionException("Failed to update event: " + e.getMessage());
+    } finally {
+      activeCalendar.endBatch();
     }
   }
 }
\ No newline at end of file
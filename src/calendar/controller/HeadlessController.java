@@ -1,11 +1,11 @@
 
 package calendar.controller;
 
-
-import java.util.Scanner;
+import java.io.IOException;
 
 import calendar.controller.commands.Command;
 import calendar.controller.commands.CommandExecutionException;
+import calendar.controller.commands.CommandMetrics;
 import calendar.controller.commands.QuitCommand;
 import calendar.view.CalendarView;
 
@@ -14,8 +14,10 @@ import calendar.view.CalendarView;
  */
 public class HeadlessController implements CalendarController {
   private final CalendarView view;
-  private final Readable in;
+  private final LineReader in;
   private final CommandParser parser;
+  private final CommandMetrics metrics;
+  private SlowCommandLog slowLog;
 
   /**
    * Constructs a Headless command-line calendar controller object.
@@ -26,39 +28,86 @@ public class HeadlessController implements CalendarController {
    */
   public HeadlessController(CalendarView view, Readable in,
                             CommandParser parser) {
+    this(view, new LineReader(in), parser);
+  }
+
+  /**
+   * Constructs a Headless command-line calendar controller object that reads its commands
+   * with the given LineReader.
+   *
+   * @param view   the calendar view
+   * @param in     the input source
+   * @param parser the command parser
+   */
+  public HeadlessController(CalendarView view, LineReader in,
+                            CommandParser parser) {
     this.view = view;
     this.in = in;
     this.parser = parser;
+    this.metrics = CommandMetrics.global();
+  }
+
+  /**
+   * Logs the commands that take longer than the log's threshold to parse and execute.
+   *
+   * @param slowLog the log, or null to log nothing.
+   */
+  public void setSlowCommandLog(SlowCommandLog slowLog) {
+    this.slowLog = slowLog;
   }
 
   /**
-   * Reads commands from file input and executes them sequentially until completion.
+   * Reads commands from file input and executes them sequentially until completion, then ends
+   * the parser's session.
    */
   public void run() {
-    Scanner scanner = new Scanner(this.in);
-    boolean hasExit = false;
+    boolean hasExit;
+    try {
+      hasExit = this.runCommands();
+    } finally {
+      this.parser.endSession();
+    }
 
-    while (scanner.hasNextLine()) {
-      String input = scanner.nextLine();
+    if (!hasExit) {
+      this.view.renderError("File must end with 'exit' command");
+    }
+  }
+
+  /**
+   * Runs commands until exit or the end of the input, and returns whether exit was reached.
+   */
+  private boolean runCommands() {
+    while (true) {
+      String input;
+      try {
+        input = this.in.readLine();
+      } catch (IOException e) {
+        this.view.renderError("Could not read commands: " + e.getMessage());
+        return false;
+      }
+      if (input == null) {
+        return false;
+      }
 
       if (input.trim().isEmpty()) {
         continue;
       }
 
+      long start = System.nanoTime();
+      Command command = null;
       try {
-        Command command = this.parser.parse(input);
+        command = this.parser.parse(input);
         if (command instanceof QuitCommand) {
-          hasExit = true;
-          break;
+          return true;
         }
-        command.execute();
+        this.metrics.execute(input, command);
       } catch (CommandExecutionException | IllegalArgumentException e) {
         this.view.renderError(e.getMessage());
+      } finally {
+        if (this.slowLog != null) {
+          this.slowLog.record(input, command, start);
+        }
       }
     }
-
-    if (!hasExit) {
-      this.view.renderError("File must end with 'exit' command");
-    }
   }
-}
\ No newline at end of file
+}
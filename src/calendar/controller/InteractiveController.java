@@ -1,9 +1,10 @@
 package calendar.controller;
 
-import java.util.Scanner;
+import java.io.IOException;
 
 import calendar.controller.commands.Command;
 import calendar.controller.commands.CommandExecutionException;
+import calendar.controller.commands.CommandMetrics;
 import calendar.view.CalendarView;
 
 /**
@@ -12,8 +13,10 @@ import calendar.view.CalendarView;
 public class InteractiveController implements CalendarController {
 
   private final CalendarView view;
-  private final Readable in;
+  private final LineReader in;
   private final CommandParser parser;
+  private final CommandMetrics metrics;
+  private SlowCommandLog slowLog;
 
   /**
    * Constructs an Interactive command-line calendar controller object.
@@ -24,29 +27,73 @@ public class InteractiveController implements CalendarController {
    */
   public InteractiveController(CalendarView view, Readable in,
                                CommandParser parser) {
+    this(view, new LineReader(in), parser);
+  }
+
+  /**
+   * Constructs an Interactive command-line calendar controller object that reads its commands
+   * with the given LineReader.
+   *
+   * @param view the calendar view
+   * @param in the input source
+   * @param parser the command parser
+   */
+  public InteractiveController(CalendarView view, LineReader in,
+                               CommandParser parser) {
     this.view = view;
     this.in = in;
     this.parser = parser;
+    this.metrics = CommandMetrics.global();
   }
 
   /**
-   * Reads user input and executes commands until exit.
+   * Logs the commands that take longer than the log's threshold to parse and execute.
+   *
+   * @param slowLog the log, or null to log nothing.
+   */
+  public void setSlowCommandLog(SlowCommandLog slowLog) {
+    this.slowLog = slowLog;
+  }
+
+  /**
+   * Reads user input and executes commands until exit or the end of the input, then ends the
+   * parser's session.
    */
   public void run() {
+    try {
+      String input = this.nextLine();
+      while (input != null) {
+        if (input.trim().equalsIgnoreCase("exit")) {
+          break;
+        }
+        long start = System.nanoTime();
+        Command command = null;
+        try {
+          command = parser.parse(input);
+          this.metrics.execute(input, command);
 
-    Scanner scanner = new Scanner(in);
-    while (scanner.hasNextLine()) {
-      String input = scanner.nextLine();
-      if (input.trim().equalsIgnoreCase("exit")) {
-        break;
+        } catch (IllegalArgumentException | CommandExecutionException e) {
+          view.renderError(e.getMessage());
+        } finally {
+          if (this.slowLog != null) {
+            this.slowLog.record(input, command, start);
+          }
+        }
+        input = this.nextLine();
       }
-      try {
-        Command command = parser.parse(input);
-        command.execute();
+    } finally {
+      parser.endSession();
+    }
+  }
 
-      } catch (IllegalArgumentException | CommandExecutionException e) {
-        view.renderError(e.getMessage());
-      }
+  /**
+   * Reads the next line of input, treating input that can no longer be read as ended.
+   */
+  private String nextLine() {
+    try {
+      return this.in.readLine();
+    } catch (IOException e) {
+      return null;
     }
   }
 }
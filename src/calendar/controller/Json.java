@@ -0,0 +1,176 @@
+package calendar.controller;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Reads and writes the small JSON documents exchanged by the server mode. Requests are flat
+ * objects whose values are strings, numbers, booleans or null; every value is read as its
+ * text, with null read as a Java null.
+ */
+final class Json {
+
+  private final String text;
+  private int pos;
+
+  private Json(String text) {
+    this.text = text;
+    this.pos = 0;
+  }
+
+  /**
+   * Parses a flat JSON object.
+   *
+   * @param text the JSON text.
+   * @return the members of the object, in order.
+   * @throws IllegalArgumentException if the text is not a flat JSON object.
+   */
+  static Map<String, String> parseObject(String text) {
+    Json reader = new Json(text);
+    Map<String, String> result = new LinkedHashMap<>();
+    reader.expect('{');
+    if (reader.peek() == '}') {
+      reader.pos += 1;
+    } else {
+      do {
+        String key = reader.readString();
+        reader.expect(':');
+        result.put(key, reader.readValue());
+      } while (reader.accept(','));
+      reader.expect('}');
+    }
+    if (reader.peek() != 0) {
+      throw new IllegalArgumentException("Unexpected content after JSON object");
+    }
+    return result;
+  }
+
+  /**
+   * Writes a string as a JSON value, or null if the string is null.
+   *
+   * @param value the string.
+   * @param out   where to write it.
+   */
+  static void quote(String value, StringBuilder out) {
+    if (value == null) {
+      out.append("null");
+      return;
+    }
+    out.append('"');
+    for (int i = 0; i < value.length(); i += 1) {
+      char c = value.charAt(i);
+      switch (c) {
+        case '"':
+          out.append("\\\"");
+          break;
+        case '\\':
+          out.append("\\\\");
+          break;
+        case '\n':
+          out.append("\\n");
+          break;
+        case '\r':
+          out.append("\\r");
+          break;
+        case '\t':
+          out.append("\\t");
+          break;
+        default:
+          if (c < 0x20) {
+            out.append(String.format("\\u%04x", (int) c));
+          } else {
+            out.append(c);
+          }
+      }
+    }
+    out.append('"');
+  }
+
+  private String readValue() {
+    char c = this.peek();
+    if (c == '"') {
+      return this.readString();
+    }
+    int start = this.pos;
+    while (this.pos < this.text.length() && ",}] \t\r\n".indexOf(this.text.charAt(this.pos)) < 0) {
+      this.pos += 1;
+    }
+    String word = this.text.substring(start, this.pos);
+    if (word.equals("null")) {
+      return null;
+    }
+    if (word.equals("true") || word.equals("false") || word.matches("-?\\d+(\\.\\d+)?")) {
+      return word;
+    }
+    throw new IllegalArgumentException("Invalid JSON value: " + word);
+  }
+
+  private String readString() {
+    this.expect('"');
+    StringBuilder result = new StringBuilder();
+    while (this.pos < this.text.length()) {
+      char c = this.text.charAt(this.pos);
+      this.pos += 1;
+      if (c == '"') {
+        return result.toString();
+      }
+      if (c != '\\') {
+        result.append(c);
+        continue;
+      }
+      if (this.pos >= this.text.length()) {
+        break;
+      }
+      char escaped = this.text.charAt(this.pos);
+      this.pos += 1;
+      switch (escaped) {
+        case 'n':
+          result.append('\n');
+          break;
+        case 'r':
+          result.append('\r');
+          break;
+        case 't':
+          result.append('\t');
+          break;
+        case 'b':
+          result.append('\b');
+          break;
+        case 'f':
+          result.append('\f');
+          break;
+        case 'u':
+          if (this.pos + 4 > this.text.length()) {
+            throw new IllegalArgumentException("Invalid JSON escape");
+          }
+          result.append((char) Integer.parseInt(this.text.substring(this.pos, this.pos + 4), 16));
+          this.pos += 4;
+          break;
+        default:
+          result.append(escaped);
+      }
+    }
+    throw new IllegalArgumentException("Unterminated JSON string");
+  }
+
+  private char peek() {
+    while (this.pos < this.text.length() && Character.isWhitespace(this.text.charAt(this.pos))) {
+      this.pos += 1;
+    }
+    return this.pos < this.text.length() ? this.text.charAt(this.pos) : 0;
+  }
+
+  private boolean accept(char c) {
+    if (this.peek() == c) {
+      this.pos += 1;
+      return true;
+    }
+    return false;
+  }
+
+  private void expect(char c) {
+    if (!this.accept(c)) {
+      throw new IllegalArgumentException("Expected '" + c + "' in JSON");
+    }
+  }
+}
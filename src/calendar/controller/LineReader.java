@@ -0,0 +1,177 @@
+package calendar.controller;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Reads input one line at a time without the regular expressions Scanner matches every line
+ * with. Characters are read in large blocks into a buffer that is scanned for line ends, and
+ * each line is cut straight out of the buffer. Files are read from a FileChannel and decoded
+ * with a CharsetDecoder, so long command scripts are read about as fast as the disk allows.
+ *
+ * <p>Lines end with "\n" or "\r\n", and the last line need not end with either. A limit on
+ * the length of a line can be given, in which case a longer line fails the read before any of
+ * it is handed out, and the buffer never grows past the limit.</p>
+ */
+public class LineReader implements Closeable {
+
+  private static final int BUFFER_SIZE = 8192;
+  private static final int CHANNEL_BUFFER_SIZE = 64 * 1024;
+
+  private final Readable in;
+  private final ReadableByteChannel channel;
+  private final ByteBuffer bytes;
+  private final CharsetDecoder decoder;
+  private final int maxLineLength;
+  private char[] buffer;
+  private int start;
+  private int end;
+  private boolean ended;
+
+  /**
+   * Constructs a LineReader over the given input, with no limit on the length of a line.
+   *
+   * @param in the input source.
+   */
+  public LineReader(Readable in) {
+    this(in, Integer.MAX_VALUE - 2);
+  }
+
+  /**
+   * Constructs a LineReader over the given input that fails on lines longer than a limit.
+   *
+   * @param in            the input source.
+   * @param maxLineLength the most characters a line may have, not counting its line end.
+   */
+  public LineReader(Readable in, int maxLineLength) {
+    this.in = in;
+    this.channel = null;
+    this.bytes = null;
+    this.decoder = null;
+    this.maxLineLength = maxLineLength;
+    this.buffer = new char[Math.min(BUFFER_SIZE, maxLineLength + 2)];
+  }
+
+  /**
+   * Constructs a LineReader that decodes the bytes of the given channel.
+   *
+   * @param channel the input source.
+   * @param charset the charset the input is encoded in.
+   */
+  public LineReader(ReadableByteChannel channel, Charset charset) {
+    this.in = null;
+    this.channel = channel;
+    this.bytes = ByteBuffer.allocateDirect(CHANNEL_BUFFER_SIZE);
+    this.decoder = charset.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    this.maxLineLength = Integer.MAX_VALUE - 2;
+    this.buffer = new char[CHANNEL_BUFFER_SIZE];
+  }
+
+  /**
+   * Opens a LineReader on the given file, decoded with the default charset.
+   *
+   * @param file the file to read.
+   * @return LineReader.
+   * @throws IOException if the file cannot be opened.
+   */
+  public static LineReader open(Path file) throws IOException {
+    return new LineReader(FileChannel.open(file), Charset.defaultCharset());
+  }
+
+  /**
+   * Reads the next line, without its line end.
+   *
+   * @return the line, or null if the input has ended.
+   * @throws IOException if the input cannot be read or the line is longer than the limit.
+   */
+  public String readLine() throws IOException {
+    int scan = this.start;
+    while (true) {
+      while (scan < this.end && this.buffer[scan] != '\n') {
+        scan += 1;
+      }
+      if (scan - this.start > this.maxLineLength) {
+        throw new IOException("Line longer than " + this.maxLineLength + " characters");
+      }
+      if (scan < this.end) {
+        return this.take(scan, scan + 1);
+      }
+      int scanned = scan - this.start;
+      if (this.fill() < 0) {
+        return this.start == this.end ? null : this.take(this.end, this.end);
+      }
+      scan = this.start + scanned;
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (this.channel != null) {
+      this.channel.close();
+    } else if (this.in instanceof Closeable) {
+      ((Closeable) this.in).close();
+    }
+  }
+
+  private String take(int lineEnd, int next) {
+    int length = lineEnd - this.start;
+    if (length > 0 && this.buffer[lineEnd - 1] == '\r') {
+      length -= 1;
+    }
+    String line = new String(this.buffer, this.start, length);
+    this.start = next;
+    return line;
+  }
+
+  /**
+   * Moves the unread characters to the front of the buffer, growing it if they fill it, and
+   * reads more after them. Room is left for at least two characters so that a surrogate pair
+   * can always be decoded.
+   */
+  private int fill() throws IOException {
+    if (this.start > 0) {
+      System.arraycopy(this.buffer, this.start, this.buffer, 0, this.end - this.start);
+      this.end -= this.start;
+      this.start = 0;
+    }
+    if (this.buffer.length - this.end < 2) {
+      this.buffer = Arrays.copyOf(this.buffer, this.buffer.length * 2);
+    }
+    CharBuffer target = CharBuffer.wrap(this.buffer, this.end, this.buffer.length - this.end);
+    int read = this.channel == null ? this.in.read(target) : this.decode(target);
+    if (read > 0) {
+      this.end += read;
+    }
+    return read;
+  }
+
+  private int decode(CharBuffer target) throws IOException {
+    int before = target.position();
+    while (target.position() == before) {
+      if (this.ended) {
+        return -1;
+      }
+      int read = this.channel.read(this.bytes);
+      this.bytes.flip();
+      CoderResult result = this.decoder.decode(this.bytes, target, read < 0);
+      this.bytes.compact();
+      if (read < 0 && result.isUnderflow()) {
+        this.decoder.flush(target);
+        this.ended = true;
+      }
+    }
+    return target.position() - before;
+  }
+}
@@ -0,0 +1,164 @@
+package calendar.controller;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+
+import calendar.controller.commands.Command;
+import calendar.controller.commands.CommandExecutionException;
+import calendar.controller.commands.CommandMetrics;
+import calendar.model.CalendarManager;
+import calendar.model.CalendarModel;
+
+/**
+ * CommandParser that parses and executes the commands of one session while holding the locks
+ * of the calendars they use, so that sessions sharing calendars never change the same calendar
+ * at once. Parsing is locked too, since some commands look up and change events while they are
+ * being parsed.
+ *
+ * <p>Commands that only use the session's calendar in use lock that calendar alone, so sessions
+ * on different calendars do not wait for each other. Commands that can reach other calendars,
+ * such as "show status" with "--all", or create, rename or remove calendars, lock every
+ * calendar. Switching calendars and starting
+ * or ending a batch lock nothing. The locks are released once the command has run, except that
+ * inside a batch the calendar locks are kept until the batch ends, along with the locks of any
+ * calendars the batch created. The undo step of a command is ended before its locks are
+ * released, so it notes what the command left behind before other sessions can change it.</p>
+ */
+class LockedCommandParser implements CommandParser {
+
+  private static final Set<String> ACTIVE_CALENDAR = Set.of("create event", "edit event",
+          "edit events", "edit series", "print events", "find events", "show overlaps",
+          "show status");
+  private static final Set<String> UNLOCKED = Set.of("use calendar", "begin", "commit",
+          "rollback");
+
+  private final CommandParser parser;
+  private final CalendarManager session;
+  private final CalendarLocks locks;
+  private final List<Lock> held;
+  private Lock catalog;
+
+  /**
+   * Constructs a LockedCommandParser.
+   *
+   * @param parser  the parser to delegate to.
+   * @param session the session the parser builds its commands with.
+   * @param locks   the locks shared by every session.
+   */
+  LockedCommandParser(CommandParser parser, CalendarManager session, CalendarLocks locks) {
+    this.parser = parser;
+    this.session = session;
+    this.locks = locks;
+    this.held = new ArrayList<>();
+    this.catalog = null;
+  }
+
+  @Override
+  public Command parse(String cmd) throws CommandExecutionException {
+    Command command;
+    try {
+      this.lock(cmd);
+      command = this.parser.parse(cmd);
+    } catch (CommandExecutionException | RuntimeException e) {
+      this.session.closeUndoStep();
+      this.unlock();
+      throw e;
+    }
+    return () -> {
+      try {
+        command.execute();
+      } finally {
+        this.session.closeUndoStep();
+        this.holdCreated();
+        this.unlock();
+      }
+    };
+  }
+
+  /**
+   * Ends the session of the parser delegated to, then releases every lock still held.
+   */
+  @Override
+  public void endSession() {
+    try {
+      this.parser.endSession();
+    } finally {
+      this.unlockAll();
+    }
+  }
+
+  private void lock(String cmd) throws CommandExecutionException {
+    String type = CommandMetrics.typeOf(cmd);
+    if (UNLOCKED.contains(type)) {
+      return;
+    }
+    CalendarModel active = this.session.getActiveCalendar();
+    if (active != null && ACTIVE_CALENDAR.contains(type) && !cmd.trim().endsWith(" --all")) {
+      this.lockCatalog(this.locks.catalog().readLock());
+      this.hold(this.locks.of(active));
+      return;
+    }
+    this.lockCatalog(this.locks.catalog().writeLock());
+    for (Lock lock : this.locks.of(this.session.getCalendars())) {
+      this.hold(lock);
+    }
+  }
+
+  private void lockCatalog(Lock lock) throws CommandExecutionException {
+    this.locks.acquire(lock);
+    this.catalog = lock;
+  }
+
+  private void hold(Lock lock) throws CommandExecutionException {
+    if (!this.held.contains(lock)) {
+      this.locks.acquire(lock);
+      this.held.add(lock);
+    }
+  }
+
+  /**
+   * Inside a batch, locks the calendars created by the command just run while it held every
+   * calendar, before other sessions can reach them.
+   */
+  private void holdCreated() {
+    if (!this.session.isInTransaction() || this.catalog != this.locks.catalog().writeLock()) {
+      return;
+    }
+    try {
+      for (Lock lock : this.locks.of(this.session.getCalendars())) {
+        this.hold(lock);
+      }
+    } catch (CommandExecutionException e) {
+      // no other session can hold a calendar while this one holds the write lock
+    }
+  }
+
+  /**
+   * Releases the locks taken for the command just run, keeping the calendar locks inside a
+   * batch.
+   */
+  private void unlock() {
+    if (this.session.isInTransaction()) {
+      this.unlockCatalog();
+    } else {
+      this.unlockAll();
+    }
+  }
+
+  private void unlockAll() {
+    this.unlockCatalog();
+    for (int i = this.held.size() - 1; i >= 0; i -= 1) {
+      this.held.get(i).unlock();
+    }
+    this.held.clear();
+  }
+
+  private void unlockCatalog() {
+    if (this.catalog != null) {
+      this.catalog.unlock();
+      this.catalog = null;
+    }
+  }
+}
@@ -0,0 +1,280 @@
+package calendar.controller;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+import calendar.controller.commands.Command;
+import calendar.controller.commands.CommandExecutionException;
+import calendar.controller.commands.CommandMetrics;
+import calendar.controller.commands.QuitCommand;
+import calendar.model.CalendarManager;
+import calendar.model.CalendarModel;
+import calendar.model.CalendarSession;
+import calendar.model.Event;
+import calendar.view.CalendarView;
+
+/**
+ * Headless controller that runs the commands of a script for different calendars at the same
+ * time. It behaves like HeadlessController, and prints the same output in the same order.
+ *
+ * <p>Commands that only work on the calendar in use, such as creating, editing, printing and
+ * finding events, are sent to a partition for that calendar. Each partition parses and runs its
+ * commands in script order on its own session, so one calendar's commands see each other's
+ * changes as they would in order, while different calendars' commands run in parallel.
+ * Creating and using calendars is done straight away. Every other command, such as copying
+ * events or editing a calendar, may touch more than one calendar, so it waits for all
+ * partitions to finish first. The output of each command is recorded and printed in script
+ * order as soon as all commands before it have finished. Inside a batch, commands run one at
+ * a time, so that a failing command can roll back the batch before the next one runs. Commands
+ * run in parallel are undone in the order they finished rather than in script order, and are
+ * written to the slow command log in that order too.</p>
+ */
+public class ParallelHeadlessController implements CalendarController {
+
+  private static final int MAX_PENDING = 4096;
+  private static final String[] PARTITIONED = {"create event", "edit event", "edit series",
+    "print events", "find events", "show overlaps"};
+
+  private final CalendarManager manager;
+  private final CalendarView view;
+  private final LineReader in;
+  private final int threads;
+  private SlowCommandLog slowLog;
+
+  /**
+   * Constructs a ParallelHeadlessController.
+   *
+   * @param manager the calendars the commands work on
+   * @param view    the calendar view
+   * @param in      the input source
+   * @param threads the number of commands that may run at once
+   */
+  public ParallelHeadlessController(CalendarManager manager, CalendarView view, LineReader in,
+                                    int threads) {
+    this.manager = manager;
+    this.view = view;
+    this.in = in;
+    this.threads = threads;
+  }
+
+  /**
+   * Logs the commands that take longer than the log's threshold to parse and execute.
+   *
+   * @param slowLog the log, or null to log nothing.
+   */
+  public void setSlowCommandLog(SlowCommandLog slowLog) {
+    this.slowLog = slowLog;
+  }
+
+  /**
+   * Reads commands from file input and executes them until completion.
+   */
+  public void run() {
+    ExecutorService pool = Executors.newFixedThreadPool(this.threads, runnable -> {
+      Thread thread = new Thread(runnable, "calendar-partition");
+      thread.setDaemon(true);
+      return thread;
+    });
+    Map<CalendarModel, Partition> partitions = new IdentityHashMap<>();
+    Deque<Step> pending = new ArrayDeque<>();
+    Partition direct = new Partition(this.manager, this.slowLog);
+    boolean hasExit = false;
+
+    try {
+      while (true) {
+        Step step = new Step();
+        String input;
+        try {
+          input = this.in.readLine();
+        } catch (IOException e) {
+          step.output.add(v -> v.renderError("Could not read commands: " + e.getMessage()));
+          pending.add(step);
+          break;
+        }
+        if (input == null) {
+          break;
+        }
+        if (input.trim().isEmpty()) {
+          continue;
+        }
+        pending.add(step);
+
+        CalendarModel target = this.manager.getActiveCalendar();
+        if (target != null && !this.manager.isInTransaction() && isPartitioned(input)) {
+          Partition partition = partitions.computeIfAbsent(target, this::newPartition);
+          partition.tail = partition.tail.thenRunAsync(() -> partition.run(step, input), pool);
+          step.done = partition.tail;
+        } else {
+          if (!input.startsWith("create calendar") && !input.startsWith("use calendar")) {
+            awaitAll(partitions);
+          }
+          hasExit = direct.run(step, input);
+          if (hasExit) {
+            break;
+          }
+        }
+        this.flush(pending, false);
+      }
+      awaitAll(partitions);
+      this.flush(pending, true);
+    } finally {
+      direct.parser.endSession();
+      pool.shutdownNow();
+    }
+
+    if (!hasExit) {
+      this.view.renderError("File must end with 'exit' command");
+    }
+  }
+
+  private Partition newPartition(CalendarModel calendar) {
+    CalendarSession session = this.manager.newSessionSharingHistory();
+    session.switchToCalendar(calendar.getName());
+    return new Partition(session, this.slowLog);
+  }
+
+  private static boolean isPartitioned(String input) {
+    String lower = input.toLowerCase();
+    for (String prefix : PARTITIONED) {
+      if (lower.startsWith(prefix)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Waits for every partition to finish its commands, and forgets them, so that the next
+   * command may use any calendar.
+   */
+  private static void awaitAll(Map<CalendarModel, Partition> partitions) {
+    for (Partition partition : partitions.values()) {
+      partition.tail.join();
+    }
+    partitions.clear();
+  }
+
+  /**
+   * Prints the output of the finished commands at the head of the pending ones. If the end is
+   * reached, or too many commands are pending, waits for the head to finish instead of stopping
+   * at it.
+   */
+  private void flush(Deque<Step> pending, boolean end) {
+    while (!pending.isEmpty()) {
+      Step step = pending.peek();
+      if (!step.done.isDone()) {
+        if (!end && pending.size() <= MAX_PENDING) {
+          return;
+        }
+        step.done.join();
+      }
+      pending.poll();
+      for (Consumer<CalendarView> output : step.output) {
+        output.accept(this.view);
+      }
+      if (step.failure != null) {
+        throw step.failure;
+      }
+    }
+  }
+
+  /**
+   * One command of the script, with the output it produced.
+   */
+  private static class Step {
+    private final List<Consumer<CalendarView>> output = new ArrayList<>();
+    private CompletableFuture<Void> done = CompletableFuture.completedFuture(null);
+    private RuntimeException failure;
+  }
+
+  /**
+   * The commands of one calendar, parsed and run in order on their own session.
+   */
+  private static class Partition {
+    private final CalendarManager session;
+    private final StepView view;
+    private final CommandParser parser;
+    private final SlowCommandLog slowLog;
+    private CompletableFuture<Void> tail;
+
+    Partition(CalendarManager session, SlowCommandLog slowLog) {
+      this.session = session;
+      this.view = new StepView();
+      this.parser = new CommandParserImpl(session, this.view);
+      this.slowLog = slowLog;
+      this.tail = CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * Parses and runs one command, recording its output in the given step.
+     *
+     * @return whether the command was to quit, in which case it is not run.
+     */
+    boolean run(Step step, String input) {
+      this.view.step = step;
+      long start = System.nanoTime();
+      Command command = null;
+      try {
+        command = this.parser.parse(input);
+        if (command instanceof QuitCommand) {
+          return true;
+        }
+        CommandMetrics.global().execute(input, command);
+      } catch (CommandExecutionException | IllegalArgumentException e) {
+        this.view.renderError(e.getMessage());
+      } catch (RuntimeException e) {
+        step.failure = e;
+      } finally {
+        this.session.closeUndoStep();
+        if (this.slowLog != null) {
+          this.slowLog.record(input, command, start);
+        }
+      }
+      return false;
+    }
+  }
+
+  /**
+   * View that records what it is asked to show into the step being run.
+   */
+  private static class StepView implements CalendarView {
+    private Step step;
+
+    @Override
+    public void renderMessage(String message) {
+      this.step.output.add(v -> v.renderMessage(message));
+    }
+
+    @Override
+    public void renderError(String error) {
+      this.step.output.add(v -> v.renderError(error));
+    }
+
+    @Override
+    public void renderEvents(List<Event> events) {
+      List<Event> shown = new ArrayList<>(events);
+      this.step.output.add(v -> v.renderEvents(shown));
+    }
+
+    @Override
+    public void renderEventsWithIds(List<Event> events) {
+      List<Event> shown = new ArrayList<>(events);
+      this.step.output.add(v -> v.renderEventsWithIds(shown));
+    }
+
+    @Override
+    public void renderBusyStatus(boolean busy, LocalDateTime dateTime) {
+      this.step.output.add(v -> v.renderBusyStatus(busy, dateTime));
+    }
+  }
+}
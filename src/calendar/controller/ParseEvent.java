@@ -0,0 +1,27 @@
+package calendar.controller;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event for parsing one line of input into a command.
+ */
+@Name("calendar.Parse")
+@Label("Command Parse")
+@Category({"Calendar", "Commands"})
+@Description("Parsing one line of input into a command")
+@StackTrace(false)
+class ParseEvent extends jdk.jfr.Event {
+
+  @Label("Command Type")
+  String commandType;
+
+  @Label("Calendar")
+  String calendar;
+
+  @Label("Succeeded")
+  boolean succeeded;
+}
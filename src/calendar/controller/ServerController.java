@@ -0,0 +1,365 @@
+package calendar.controller;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import calendar.controller.commands.CommandExecutionException;
+import calendar.controller.commands.CreateCalendarCommand;
+import calendar.controller.commands.EditCalendarCommand;
+import calendar.controller.commands.EditEventCommand;
+import calendar.model.CalendarManager;
+import calendar.model.CalendarModel;
+import calendar.model.Event;
+
+/**
+ * Controller that serves a CalendarManager over HTTP, exchanging JSON. Requests are handled
+ * on a pool of worker threads. Requests on the events of a calendar take the read lock on the
+ * set of calendars and then that calendar's lock, so requests on different calendars run
+ * together. Listing calendars takes the read lock alone, and creating or editing a calendar
+ * takes the write lock.
+ *
+ * <p>Routes:</p>
+ * <ul>
+ *   <li>GET /calendars lists the calendars.</li>
+ *   <li>POST /calendars with name and timezone creates a calendar.</li>
+ *   <li>PUT /calendars/{name} with property and value edits a calendar.</li>
+ *   <li>POST /calendars/{name}/events with subject, start and end creates an event.</li>
+ *   <li>PATCH /calendars/{name}/events/{id} with property, value and an optional scope of
+ *       single, allAfter or all edits an event.</li>
+ *   <li>GET /calendars/{name}/events?from=..&amp;to=.. lists the events in progress between two
+ *       date-times, in start order.</li>
+ * </ul>
+ */
+public class ServerController implements CalendarController {
+
+  private static final int BACKLOG = 1024;
+  private static final long LOCK_TIMEOUT_MILLIS = 10 * 1000;
+
+  private final CalendarManager manager;
+  private final int requestedPort;
+  private final int threads;
+  private final CalendarLocks locks;
+  private final CountDownLatch stopped;
+  private HttpServer server;
+  private ExecutorService workers;
+
+  /**
+   * Constructs a server controller with one worker thread per available processor, and at
+   * least eight.
+   *
+   * @param manager the calendars to serve.
+   * @param port    the port to listen on, or 0 for any free port.
+   */
+  public ServerController(CalendarManager manager, int port) {
+    this(manager, port, Math.max(8, Runtime.getRuntime().availableProcessors()));
+  }
+
+  /**
+   * Constructs a server controller.
+   *
+   * @param manager the calendars to serve.
+   * @param port    the port to listen on, or 0 for any free port.
+   * @param threads the number of worker threads.
+   */
+  public ServerController(CalendarManager manager, int port, int threads) {
+    this.manager = manager;
+    this.requestedPort = port;
+    this.threads = threads;
+    this.locks = new CalendarLocks(LOCK_TIMEOUT_MILLIS);
+    this.stopped = new CountDownLatch(1);
+  }
+
+  /**
+   * Starts the server and serves requests until it is stopped.
+   */
+  public void run() {
+    try {
+      this.start();
+      this.stopped.await();
+    } catch (IOException e) {
+      throw new IllegalStateException("Could not start server: " + e.getMessage(), e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      this.stop();
+    }
+  }
+
+  /**
+   * Starts the server in the background.
+   *
+   * @throws IOException if the port cannot be bound.
+   */
+  public void start() throws IOException {
+    this.server = HttpServer.create(new InetSocketAddress("localhost", this.requestedPort),
+            BACKLOG);
+    this.workers = Executors.newFixedThreadPool(this.threads);
+    this.server.setExecutor(this.workers);
+    this.server.createContext("/calendars", this::handle);
+    this.server.start();
+  }
+
+  /**
+   * Gets the port the server is listening on.
+   *
+   * @return int.
+   */
+  public int getPort() {
+    return this.server.getAddress().getPort();
+  }
+
+  /**
+   * Stops the server, letting requests in progress finish.
+   */
+  public void stop() {
+    if (this.server != null) {
+      this.server.stop(0);
+      this.workers.shutdown();
+      try {
+        this.workers.awaitTermination(5, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    this.stopped.countDown();
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    int status;
+    String body;
+    try {
+      String[] path = exchange.getRequestURI().getPath().split("/");
+      String method = exchange.getRequestMethod();
+      List<Lock> held = new ArrayList<>();
+      try {
+        this.lock(method, path, held);
+        Response response = this.route(method, path, exchange);
+        status = response.status;
+        body = response.body;
+      } finally {
+        for (int i = held.size() - 1; i >= 0; i -= 1) {
+          held.get(i).unlock();
+        }
+      }
+    } catch (CommandExecutionException | IllegalArgumentException | DateTimeParseException e) {
+      status = 400;
+      body = error(e.getMessage());
+    } catch (RuntimeException e) {
+      status = 500;
+      body = error(e.toString());
+    }
+    byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+    exchange.sendResponseHeaders(status, bytes.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(bytes);
+    }
+  }
+
+  /**
+   * Takes the locks a request needs, adding each one to held as soon as it is taken.
+   */
+  private void lock(String method, String[] path, List<Lock> held)
+          throws CommandExecutionException {
+    boolean events = path.length > 3 && path[3].equals("events");
+    Lock catalog = events || method.equals("GET") ? this.locks.catalog().readLock()
+            : this.locks.catalog().writeLock();
+    this.locks.acquire(catalog);
+    held.add(catalog);
+    if (events) {
+      Lock calendar = this.locks.of(this.manager.getCalendar(path[2]));
+      this.locks.acquire(calendar);
+      held.add(calendar);
+    }
+  }
+
+  /**
+   * Dispatches a request. The path is split on slashes, so path[1] is "calendars".
+   */
+  private Response route(String method, String[] path, HttpExchange exchange)
+          throws IOException, CommandExecutionException {
+    if (path.length == 2) {
+      if (method.equals("GET")) {
+        return new Response(200, this.listCalendars());
+      }
+      if (method.equals("POST")) {
+        Map<String, String> request = readBody(exchange);
+        String name = required(request, "name");
+        new CreateCalendarCommand(this.manager, name,
+                ZoneId.of(required(request, "timezone"))).execute();
+        return new Response(201, this.calendarJson(this.manager.getCalendar(name)));
+      }
+      return methodNotAllowed();
+    }
+    String calendarName = path[2];
+    if (path.length == 3) {
+      if (!method.equals("PUT")) {
+        return methodNotAllowed();
+      }
+      Map<String, String> request = readBody(exchange);
+      String property = required(request, "property");
+      String value = required(request, "value");
+      this.manager.getCalendar(calendarName);
+      new EditCalendarCommand(this.manager, calendarName, property, value).execute();
+      String name = property.equals("name") ? value : calendarName;
+      return new Response(200, this.calendarJson(this.manager.getCalendar(name)));
+    }
+    if (path.length == 4 && path[3].equals("events")) {
+      CalendarModel calendar = this.manager.getCalendar(calendarName);
+      if (method.equals("GET")) {
+        Map<String, String> params = readQuery(exchange);
+        LocalDateTime from = LocalDateTime.parse(required(params, "from"));
+        LocalDateTime to = LocalDateTime.parse(required(params, "to"));
+        return new Response(200, eventsJson(calendar.getEventsOverlapping(from, to)));
+      }
+      if (method.equals("POST")) {
+        Map<String, String> request = readBody(exchange);
+        Event event = new Event(required(request, "subject"),
+                LocalDateTime.parse(required(request, "start")),
+                LocalDateTime.parse(required(request, "end")));
+        if (request.get("location") != null) {
+          event = event.with("location", request.get("location"));
+        }
+        calendar.addEvent(event);
+        return new Response(201, eventJson(event, new StringBuilder()).toString());
+      }
+      return methodNotAllowed();
+    }
+    if (path.length == 5 && path[3].equals("events")) {
+      if (!method.equals("PATCH")) {
+        return methodNotAllowed();
+      }
+      CalendarModel calendar = this.manager.getCalendar(calendarName);
+      long id = Long.parseLong(path[4]);
+      Map<String, String> request = readBody(exchange);
+      String scope = request.getOrDefault("scope", "single");
+      new EditEventCommand(calendar, id, required(request, "property"),
+              required(request, "value"), scope).execute();
+      Event edited = calendar.getEventById(id);
+      return new Response(200, edited == null ? "{}"
+              : eventJson(edited, new StringBuilder()).toString());
+    }
+    return new Response(404, error("No such resource"));
+  }
+
+  private String listCalendars() {
+    List<CalendarModel> calendars = this.manager.getCalendars();
+    calendars.sort(Comparator.comparing(CalendarModel::getName));
+    StringBuilder out = new StringBuilder("[");
+    for (int i = 0; i < calendars.size(); i += 1) {
+      if (i > 0) {
+        out.append(',');
+      }
+      out.append(this.calendarJson(calendars.get(i)));
+    }
+    return out.append(']').toString();
+  }
+
+  private String calendarJson(CalendarModel calendar) {
+    StringBuilder out = new StringBuilder("{\"name\":");
+    Json.quote(calendar.getName(), out);
+    out.append(",\"timezone\":");
+    Json.quote(calendar.getZoneId().getId(), out);
+    return out.append('}').toString();
+  }
+
+  private static String eventsJson(List<Event> events) {
+    StringBuilder out = new StringBuilder("[");
+    for (int i = 0; i < events.size(); i += 1) {
+      if (i > 0) {
+        out.append(',');
+      }
+      eventJson(events.get(i), out);
+    }
+    return out.append(']').toString();
+  }
+
+  private static StringBuilder eventJson(Event event, StringBuilder out) {
+    out.append("{\"id\":").append(event.getId()).append(",\"subject\":");
+    Json.quote(event.getSubject(), out);
+    out.append(",\"start\":");
+    Json.quote(event.getStartDateTime().toString(), out);
+    out.append(",\"end\":");
+    Json.quote(event.getEndDateTime().toString(), out);
+    out.append(",\"location\":");
+    Json.quote(event.getLocation(), out);
+    return out.append('}');
+  }
+
+  private static String error(String message) {
+    StringBuilder out = new StringBuilder("{\"error\":");
+    Json.quote(message == null ? "Invalid request" : message, out);
+    return out.append('}').toString();
+  }
+
+  private static Response methodNotAllowed() {
+    return new Response(405, error("Method not allowed"));
+  }
+
+  private static String required(Map<String, String> values, String key)
+          throws CommandExecutionException {
+    String value = values.get(key);
+    if (value == null) {
+      throw new CommandExecutionException("Missing " + key);
+    }
+    return value;
+  }
+
+  private static Map<String, String> readBody(HttpExchange exchange) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (InputStream in = exchange.getRequestBody()) {
+      in.transferTo(bytes);
+    }
+    String text = bytes.toString(StandardCharsets.UTF_8);
+    return text.isBlank() ? new HashMap<>() : Json.parseObject(text);
+  }
+
+  private static Map<String, String> readQuery(HttpExchange exchange) {
+    Map<String, String> params = new HashMap<>();
+    String query = exchange.getRequestURI().getRawQuery();
+    if (query == null) {
+      return params;
+    }
+    for (String pair : query.split("&")) {
+      int split = pair.indexOf('=');
+      if (split > 0) {
+        params.put(URLDecoder.decode(pair.substring(0, split), StandardCharsets.UTF_8),
+                URLDecoder.decode(pair.substring(split + 1), StandardCharsets.UTF_8));
+      }
+    }
+    return params;
+  }
+
+  /**
+   * The status and JSON body of a response.
+   */
+  private static class Response {
+    private final int status;
+    private final String body;
+
+    private Response(int status, String body) {
+      this.status = status;
+      this.body = body;
+    }
+  }
+}
@@ -0,0 +1,218 @@
+package calendar.controller;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import calendar.model.CalendarManager;
+import calendar.model.CalendarSession;
+import calendar.view.CalendarTextView;
+import calendar.view.CalendarView;
+
+/**
+ * Controller that lets many users work on the same calendars at once over TCP. Each
+ * connection is a session that speaks the interactive command language one line at a time,
+ * with its own active calendar, until it sends "exit" or disconnects.
+ *
+ * <p>Every session runs an InteractiveController with its own CommandParserImpl on its own
+ * thread. Session threads are started with a small stack, lines longer than a limit end the
+ * session, and the number of sessions is capped, so the memory used per session is bounded.</p>
+ *
+ * <p>Each calendar has a lock of its own. A command that only uses the session's calendar in
+ * use holds that calendar's lock while it is parsed and run, so sessions on different calendars
+ * run at the same time and sessions on the same calendar take turns. Commands that can reach
+ * other calendars, such as copying events, finding free slots, undo or managing calendars, hold
+ * every calendar's lock. A session that waits too long for a lock gets an error instead of its
+ * command running.</p>
+ *
+ * <p>Inside a batch, a session keeps the locks of the calendars it has used until the batch is
+ * committed or rolled back, so other sessions never see or change a calendar the batch has
+ * changed but not committed. A batch still open when its session exits or disconnects is
+ * rolled back.</p>
+ */
+public class SessionServer implements CalendarController {
+
+  private static final long SESSION_STACK_SIZE = 256 * 1024;
+  private static final int MAX_LINE_LENGTH = 4096;
+  private static final int OUTPUT_BUFFER_SIZE = 1024;
+  private static final int IDLE_TIMEOUT_MILLIS = 30 * 60 * 1000;
+  private static final long LOCK_TIMEOUT_MILLIS = 10 * 1000;
+
+  private final CalendarManager manager;
+  private final int requestedPort;
+  private final int maxSessions;
+  private final CalendarLocks locks;
+  private final Set<Socket> sessions;
+  private final AtomicInteger sessionCount;
+  private ServerSocket serverSocket;
+  private Thread acceptor;
+
+  /**
+   * Constructs a SessionServer.
+   *
+   * @param manager     the calendars shared by every session.
+   * @param port        the port to listen on, or 0 for any free port.
+   * @param maxSessions the most sessions that may be connected at once.
+   */
+  public SessionServer(CalendarManager manager, int port, int maxSessions) {
+    this(manager, port, maxSessions, LOCK_TIMEOUT_MILLIS);
+  }
+
+  /**
+   * Constructs a SessionServer whose sessions wait the given time for a calendar.
+   *
+   * @param manager           the calendars shared by every session.
+   * @param port              the port to listen on, or 0 for any free port.
+   * @param maxSessions       the most sessions that may be connected at once.
+   * @param lockTimeoutMillis how long a command waits for a calendar, in milliseconds.
+   */
+  SessionServer(CalendarManager manager, int port, int maxSessions, long lockTimeoutMillis) {
+    this.manager = manager;
+    this.requestedPort = port;
+    this.maxSessions = maxSessions;
+    this.locks = new CalendarLocks(lockTimeoutMillis);
+    this.sessions = Collections.synchronizedSet(new HashSet<>());
+    this.sessionCount = new AtomicInteger();
+  }
+
+  /**
+   * Starts the server and accepts sessions until it is stopped.
+   */
+  public void run() {
+    try {
+      this.start();
+      this.acceptor.join();
+    } catch (IOException e) {
+      throw new IllegalStateException("Could not start server: " + e.getMessage(), e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      this.stop();
+    }
+  }
+
+  /**
+   * Starts accepting sessions in the background.
+   *
+   * @throws IOException if the port cannot be bound.
+   */
+  public void start() throws IOException {
+    this.serverSocket = new ServerSocket(this.requestedPort, this.maxSessions,
+            InetAddress.getLoopbackAddress());
+    this.acceptor = new Thread(this::acceptSessions, "calendar-session-acceptor");
+    this.acceptor.start();
+  }
+
+  /**
+   * Gets the port the server is listening on.
+   *
+   * @return int.
+   */
+  public int getPort() {
+    return this.serverSocket.getLocalPort();
+  }
+
+  /**
+   * Gets the number of sessions currently connected.
+   *
+   * @return int.
+   */
+  public int getSessionCount() {
+    return this.sessionCount.get();
+  }
+
+  /**
+   * Stops accepting sessions and disconnects every connected session.
+   */
+  public void stop() {
+    try {
+      if (this.serverSocket != null) {
+        this.serverSocket.close();
+      }
+    } catch (IOException e) {
+      // already closed
+    }
+    synchronized (this.sessions) {
+      for (Socket socket : this.sessions) {
+        closeQuietly(socket);
+      }
+    }
+  }
+
+  private void acceptSessions() {
+    int next = 0;
+    while (!this.serverSocket.isClosed()) {
+      Socket socket;
+      try {
+        socket = this.serverSocket.accept();
+      } catch (IOException e) {
+        return;
+      }
+      if (this.sessionCount.incrementAndGet() > this.maxSessions) {
+        this.sessionCount.decrementAndGet();
+        this.reject(socket);
+        continue;
+      }
+      this.sessions.add(socket);
+      next += 1;
+      Thread session = new Thread(null, () -> this.serve(socket),
+              "calendar-session-" + next, SESSION_STACK_SIZE);
+      session.setDaemon(true);
+      session.start();
+    }
+  }
+
+  private void serve(Socket socket) {
+    try {
+      socket.setSoTimeout(IDLE_TIMEOUT_MILLIS);
+      PrintStream out = new PrintStream(new BufferedOutputStream(socket.getOutputStream(),
+              OUTPUT_BUFFER_SIZE), true, StandardCharsets.UTF_8);
+      LineReader in = new LineReader(new InputStreamReader(socket.getInputStream(),
+              StandardCharsets.UTF_8), MAX_LINE_LENGTH);
+      CalendarView view = new CalendarTextView(out);
+      CalendarSession session = this.manager.newSession();
+      CommandParser parser = new LockedCommandParser(new CommandParserImpl(session, view),
+              session, this.locks);
+      try {
+        new InteractiveController(view, in, parser).run();
+      } finally {
+        parser.endSession();
+      }
+      out.flush();
+    } catch (IOException e) {
+      // the client went away
+    } finally {
+      this.sessions.remove(socket);
+      this.sessionCount.decrementAndGet();
+      closeQuietly(socket);
+    }
+  }
+
+  private void reject(Socket socket) {
+    try {
+      PrintStream out = new PrintStream(socket.getOutputStream(), true,
+              StandardCharsets.UTF_8);
+      new CalendarTextView(out).renderError("Server is full, try again later");
+    } catch (IOException e) {
+      // the client went away
+    } finally {
+      closeQuietly(socket);
+    }
+  }
+
+  private static void closeQuietly(Socket socket) {
+    try {
+      socket.close();
+    } catch (IOException e) {
+      // already closed
+    }
+  }
+}
@@ -0,0 +1,206 @@
+package calendar.controller;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import calendar.controller.commands.Command;
+import calendar.model.CommandTrace;
+
+/**
+ * Logs the commands that take longer than a threshold, with the input they were parsed from,
+ * the class of the command, the calendar they ran against and how many events it had, how
+ * long they took, and how many events they looked at or changed.
+ *
+ * <p>Commands never wait for the log. A slow command's line is handed to a bounded queue that
+ * a background thread drains into the file; if the queue is full the line is dropped and
+ * counted instead. When the file grows past a size limit it is rotated: "slow.log" becomes
+ * "slow.log.1", "slow.log.1" becomes "slow.log.2", and so on, and the oldest file is
+ * deleted.</p>
+ */
+public class SlowCommandLog implements Closeable {
+
+  private static final long DEFAULT_MAX_BYTES = 10L * 1024 * 1024;
+  private static final int DEFAULT_MAX_FILES = 5;
+  private static final int QUEUE_CAPACITY = 1024;
+  private static final String STOP = new String("stop");
+
+  private final Path file;
+  private final long thresholdNanos;
+  private final long maxBytes;
+  private final int maxFiles;
+  private final BlockingQueue<String> queue;
+  private final AtomicLong dropped;
+  private final Thread writer;
+  private Writer out;
+  private long written;
+
+  /**
+   * Constructs a SlowCommandLog that rotates the file at 10 MB and keeps 5 old files.
+   *
+   * @param file            the file to log to.
+   * @param thresholdMillis the time a command must take to be logged, in milliseconds.
+   * @throws IOException if the file cannot be opened.
+   */
+  public SlowCommandLog(Path file, long thresholdMillis) throws IOException {
+    this(file, thresholdMillis, DEFAULT_MAX_BYTES, DEFAULT_MAX_FILES);
+  }
+
+  /**
+   * Constructs a SlowCommandLog.
+   *
+   * @param file            the file to log to.
+   * @param thresholdMillis the time a command must take to be logged, in milliseconds.
+   * @param maxBytes        the size past which the file is rotated.
+   * @param maxFiles        the number of rotated files to keep.
+   * @throws IOException if the file cannot be opened.
+   */
+  public SlowCommandLog(Path file, long thresholdMillis, long maxBytes, int maxFiles)
+          throws IOException {
+    this.file = file;
+    this.thresholdNanos = thresholdMillis * 1_000_000;
+    this.maxBytes = maxBytes;
+    this.maxFiles = maxFiles;
+    this.queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    this.dropped = new AtomicLong();
+    this.open();
+    this.writer = new Thread(this::writeLines, "calendar-slow-log");
+    this.writer.setDaemon(true);
+    this.writer.start();
+  }
+
+  /**
+   * Logs the command this thread has just finished if it took longer than the threshold. The
+   * calendar and the events touched are those of the command this thread last started parsing.
+   *
+   * @param input   the input the command was parsed from.
+   * @param command the command, or null if the input could not be parsed.
+   * @param start   the System.nanoTime at which parsing started.
+   */
+  public void record(String input, Command command, long start) {
+    long elapsed = System.nanoTime() - start;
+    if (elapsed >= this.thresholdNanos) {
+      this.log(input, command == null ? "none" : command.getClass().getSimpleName(), elapsed);
+    }
+  }
+
+  /**
+   * Logs an action this thread has just finished if it took longer than the threshold. The
+   * calendar and the events touched are those of the action this thread last started.
+   *
+   * @param input   a description of the action.
+   * @param command the name of the action.
+   * @param start   the System.nanoTime at which the action started.
+   */
+  public void record(String input, String command, long start) {
+    long elapsed = System.nanoTime() - start;
+    if (elapsed >= this.thresholdNanos) {
+      this.log(input, command, elapsed);
+    }
+  }
+
+  private void log(String input, String command, long elapsed) {
+    String line = String.format("%s elapsed=%.3fms command=%s calendar=%s size=%d "
+                    + "touched=%d input=%s", LocalDateTime.now(), elapsed / 1_000_000.0,
+            command, CommandTrace.getCalendar(), CommandTrace.getCalendarSize(),
+            CommandTrace.getTouched(), input);
+    if (!this.queue.offer(line)) {
+      this.dropped.incrementAndGet();
+    }
+  }
+
+  /**
+   * Gets the number of lines dropped because the queue was full.
+   *
+   * @return long.
+   */
+  public long getDropped() {
+    return this.dropped.get();
+  }
+
+  /**
+   * Writes the lines still queued and closes the file.
+   *
+   * @throws IOException if the file cannot be closed.
+   */
+  @Override
+  public void close() throws IOException {
+    try {
+      while (this.writer.isAlive() && !this.queue.offer(STOP, 100, TimeUnit.MILLISECONDS)) {
+        // wait for the writer to make room
+      }
+      this.writer.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void writeLines() {
+    try {
+      while (true) {
+        String line = this.queue.take();
+        while (line != null) {
+          if (line == STOP) {
+            this.out.close();
+            return;
+          }
+          this.write(line);
+          line = this.queue.poll();
+        }
+        this.out.flush();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (IOException e) {
+      // the file can no longer be written; the lines still queued are lost
+    }
+  }
+
+  private void write(String line) throws IOException {
+    if (this.written >= this.maxBytes) {
+      this.rotate();
+    }
+    this.out.write(line);
+    this.out.write(System.lineSeparator());
+    this.written += line.getBytes(StandardCharsets.UTF_8).length
+            + System.lineSeparator().length();
+  }
+
+  private void rotate() throws IOException {
+    this.out.close();
+    Files.deleteIfExists(this.rotated(this.maxFiles));
+    for (int i = this.maxFiles - 1; i >= 1; i -= 1) {
+      if (Files.exists(this.rotated(i))) {
+        Files.move(this.rotated(i), this.rotated(i + 1), StandardCopyOption.REPLACE_EXISTING);
+      }
+    }
+    if (this.maxFiles > 0) {
+      Files.move(this.file, this.rotated(1), StandardCopyOption.REPLACE_EXISTING);
+    } else {
+      Files.delete(this.file);
+    }
+    this.open();
+  }
+
+  private Path rotated(int index) {
+    return this.file.resolveSibling(this.file.getFileName() + "." + index);
+  }
+
+  private void open() throws IOException {
+    BufferedWriter writer = Files.newBufferedWriter(this.file, StandardCharsets.UTF_8,
+            StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    this.written = Files.size(this.file);
+    this.out = writer;
+  }
+}
@@ -0,0 +1,29 @@
+package calendar.controller.commands;
+
+import calendar.model.CalendarManager;
+
+/**
+ * Represents a Command that starts a batch of commands that are kept or undone together.
+ */
+public class BeginBatchCommand implements Command {
+
+  private CalendarManager manager;
+
+  /**
+   * Constructs a BeginBatchCommand.
+   *
+   * @param manager CalendarManager.
+   */
+  public BeginBatchCommand(CalendarManager manager) {
+    this.manager = manager;
+  }
+
+  /**
+   * Executes this command.
+   *
+   * @throws CommandExecutionException if command execution fails.
+   */
+  public void execute() throws CommandExecutionException {
+    this.manager.beginTransaction();
+  }
+}
@@ -0,0 +1,195 @@
+package calendar.controller.commands;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import calendar.model.CommandTrace;
+
+/**
+ * Counts the commands the controllers run, by type, with how many failed and a histogram of how
+ * long they took. The type of a command is the keyword it starts with, such as "create event"
+ * or "undo", so the set of types is fixed and the counters are made up front; recording a
+ * command is a prefix match, two clock reads and a few uncontended atomic adds.
+ *
+ * <p>One instance is shared by every controller in the process, and can be published over JMX
+ * with register. Each command is also recorded as a calendar.Execute flight recorder event,
+ * which costs next to nothing while no recording is running.</p>
+ */
+public class CommandMetrics implements CommandMetricsMXBean {
+
+  /**
+   * The name the metrics are published under over JMX.
+   */
+  public static final String OBJECT_NAME = "calendar:type=CommandMetrics";
+
+  private static final String OTHER = "other";
+  private static final String[] TYPES = {"create calendar", "edit calendar", "use calendar",
+    "create event", "edit event", "edit events", "edit series", "print events", "print agenda",
+    "find events", "find slots", "show overlaps", "show status", "copy event", "copy events",
+    "begin", "commit", "rollback", "undo", "redo", "stats"};
+  private static final CommandMetrics GLOBAL = new CommandMetrics();
+
+  private final Map<String, Counters> counters;
+
+  /**
+   * Constructs a CommandMetrics with no commands counted.
+   */
+  public CommandMetrics() {
+    Map<String, Counters> counters = new LinkedHashMap<>();
+    for (String type : TYPES) {
+      counters.put(type, new Counters());
+    }
+    counters.put(OTHER, new Counters());
+    this.counters = Collections.unmodifiableMap(counters);
+  }
+
+  /**
+   * Gets the metrics shared by every controller in this process.
+   *
+   * @return CommandMetrics.
+   */
+  public static CommandMetrics global() {
+    return GLOBAL;
+  }
+
+  /**
+   * Executes a command, counting it under the type of the input it was parsed from.
+   *
+   * @param input   the input the command was parsed from.
+   * @param command the command.
+   * @throws CommandExecutionException if the command fails.
+   */
+  public void execute(String input, Command command) throws CommandExecutionException {
+    String type = typeOf(input);
+    Counters counters = this.counters.get(type);
+    ExecuteEvent event = new ExecuteEvent();
+    event.begin();
+    long start = System.nanoTime();
+    boolean failed = true;
+    try {
+      command.execute();
+      failed = false;
+    } finally {
+      counters.record(System.nanoTime() - start, failed);
+      event.end();
+      if (event.shouldCommit()) {
+        event.commandType = type;
+        event.calendar = CommandTrace.getCalendar();
+        event.succeeded = !failed;
+        event.commit();
+      }
+    }
+  }
+
+  /**
+   * Gets the statistics of one type of command.
+   *
+   * @param type the type, such as "create event".
+   * @return CommandStats, or null if there is no such type.
+   */
+  public CommandStats getStats(String type) {
+    Counters counters = this.counters.get(type);
+    return counters == null ? null : counters.snapshot(type);
+  }
+
+  @Override
+  public Map<String, CommandStats> getCommandStats() {
+    Map<String, CommandStats> stats = new LinkedHashMap<>();
+    for (Map.Entry<String, Counters> entry : this.counters.entrySet()) {
+      if (entry.getValue().latency.getCount() > 0) {
+        stats.put(entry.getKey(), entry.getValue().snapshot(entry.getKey()));
+      }
+    }
+    return stats;
+  }
+
+  @Override
+  public long getTotalCount() {
+    long total = 0;
+    for (Counters counters : this.counters.values()) {
+      total += counters.latency.getCount();
+    }
+    return total;
+  }
+
+  @Override
+  public long getTotalErrors() {
+    long total = 0;
+    for (Counters counters : this.counters.values()) {
+      total += counters.errors.sum();
+    }
+    return total;
+  }
+
+  /**
+   * Publishes these metrics on the platform MBean server under OBJECT_NAME. Publishing them a
+   * second time does nothing.
+   *
+   * @throws IllegalStateException if they cannot be published.
+   */
+  public void register() {
+    try {
+      ManagementFactory.getPlatformMBeanServer().registerMBean(this,
+              new ObjectName(OBJECT_NAME));
+    } catch (InstanceAlreadyExistsException e) {
+      // already published
+    } catch (JMException e) {
+      throw new IllegalStateException("Could not publish command metrics: " + e.getMessage(),
+              e);
+    }
+  }
+
+  /**
+   * Gets the type of the command the given input is for: the longest known keyword it starts
+   * with, or "other".
+   *
+   * @param input the input.
+   * @return String.
+   */
+  public static String typeOf(String input) {
+    String trimmed = input.trim();
+    String type = OTHER;
+    int matched = 0;
+    for (String known : TYPES) {
+      if (known.length() > matched
+              && trimmed.regionMatches(true, 0, known, 0, known.length())) {
+        type = known;
+        matched = known.length();
+      }
+    }
+    return type;
+  }
+
+  /**
+   * The counters of one type of command.
+   */
+  private static class Counters {
+    private final LongAdder errors = new LongAdder();
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    void record(long nanos, boolean failed) {
+      if (failed) {
+        this.errors.increment();
+      }
+      this.latency.record(nanos);
+    }
+
+    CommandStats snapshot(String type) {
+      return new CommandStats(type, this.latency.getCount(), this.errors.sum(),
+              millis(this.latency.getMean()), millis(this.latency.getValueAt(0.5)),
+              millis(this.latency.getValueAt(0.9)), millis(this.latency.getValueAt(0.99)),
+              millis(this.latency.getMax()));
+    }
+
+    private static double millis(double nanos) {
+      return nanos / 1_000_000;
+    }
+  }
+}
@@ -0,0 +1,30 @@
+package calendar.controller.commands;
+
+import java.util.Map;
+
+/**
+ * Management interface through which the command metrics are published over JMX.
+ */
+public interface CommandMetricsMXBean {
+
+  /**
+   * Gets the statistics of every type of command that has been run, by type.
+   *
+   * @return Map of type to CommandStats.
+   */
+  Map<String, CommandStats> getCommandStats();
+
+  /**
+   * Gets the number of commands run, of every type.
+   *
+   * @return long.
+   */
+  long getTotalCount();
+
+  /**
+   * Gets the number of commands that failed, of every type.
+   *
+   * @return long.
+   */
+  long getTotalErrors();
+}
@@ -0,0 +1,120 @@
+package calendar.controller.commands;
+
+/**
+ * Represents a snapshot of how often one type of command was run, how often it failed, and how
+ * long it took.
+ */
+public final class CommandStats {
+
+  private final String type;
+  private final long count;
+  private final long errors;
+  private final double meanMillis;
+  private final double p50Millis;
+  private final double p90Millis;
+  private final double p99Millis;
+  private final double maxMillis;
+
+  /**
+   * Constructs a CommandStats.
+   *
+   * @param type       the type of command, such as "create event".
+   * @param count      the number of commands run.
+   * @param errors     the number of commands that failed.
+   * @param meanMillis the mean time a command took, in milliseconds.
+   * @param p50Millis  the median time a command took, in milliseconds.
+   * @param p90Millis  the time 90% of commands took at most, in milliseconds.
+   * @param p99Millis  the time 99% of commands took at most, in milliseconds.
+   * @param maxMillis  the longest time a command took, in milliseconds.
+   */
+  public CommandStats(String type, long count, long errors, double meanMillis,
+                      double p50Millis, double p90Millis, double p99Millis, double maxMillis) {
+    this.type = type;
+    this.count = count;
+    this.errors = errors;
+    this.meanMillis = meanMillis;
+    this.p50Millis = p50Millis;
+    this.p90Millis = p90Millis;
+    this.p99Millis = p99Millis;
+    this.maxMillis = maxMillis;
+  }
+
+  /**
+   * Gets the type of command, such as "create event".
+   *
+   * @return String.
+   */
+  public String getType() {
+    return this.type;
+  }
+
+  /**
+   * Gets the number of commands run.
+   *
+   * @return long.
+   */
+  public long getCount() {
+    return this.count;
+  }
+
+  /**
+   * Gets the number of commands that failed.
+   *
+   * @return long.
+   */
+  public long getErrors() {
+    return this.errors;
+  }
+
+  /**
+   * Gets the mean time a command took.
+   *
+   * @return double in milliseconds.
+   */
+  public double getMeanMillis() {
+    return this.meanMillis;
+  }
+
+  /**
+   * Gets the median time a command took.
+   *
+   * @return double in milliseconds.
+   */
+  public double getP50Millis() {
+    return this.p50Millis;
+  }
+
+  /**
+   * Gets the time 90% of commands took at most.
+   *
+   * @return double in milliseconds.
+   */
+  public double getP90Millis() {
+    return this.p90Millis;
+  }
+
+  /**
+   * Gets the time 99% of commands took at most.
+   *
+   * @return double in milliseconds.
+   */
+  public double getP99Millis() {
+    return this.p99Millis;
+  }
+
+  /**
+   * Gets the longest time a command took.
+   *
+   * @return double in milliseconds.
+   */
+  public double getMaxMillis() {
+    return this.maxMillis;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%s: count=%d errors=%d mean=%.3fms p50=%.3fms p90=%.3fms "
+                    + "p99=%.3fms max=%.3fms", this.type, this.count, this.errors,
+            this.meanMillis, this.p50Millis, this.p90Millis, this.p99Millis, this.maxMillis);
+  }
+}
@@ -0,0 +1,29 @@
+package calendar.controller.commands;
+
+import calendar.model.CalendarManager;
+
+/**
+ * Represents a Command that ends a batch of commands, keeping their changes.
+ */
+public class CommitBatchCommand implements Command {
+
+  private CalendarManager manager;
+
+  /**
+   * Constructs a CommitBatchCommand.
+   *
+   * @param manager CalendarManager.
+   */
+  public CommitBatchCommand(CalendarManager manager) {
+    this.manager = manager;
+  }
+
+  /**
+   * Executes this command.
+   *
+   * @throws CommandExecutionException if command execution fails.
+   */
+  public void execute() throws CommandExecutionException {
+    this.manager.commitTransaction();
+  }
+}
@@ -13,6 +13,7 @@ import java.util.List;
 import calendar.model.CalendarManager;
 import calendar.model.CalendarModel;
 import calendar.model.Event;
+import calendar.model.TimeWindow;
 
 /**
  * Represents a Command that copies one or more events from
@@ -101,74 +102,57 @@ public class CopyEventCommand implements Command {
     List<Event> foundEvents = new ArrayList<>();
     CalendarModel newCal = manager.getCalendar(calName);
     if (this.eventName != null) {
-      List<Event> eventList = manager.getActiveCalendar().getEvents();
-      for (Event event : eventList) {
-        if (event.getSubject().equals(this.eventName)
-                && event.getStartDateTime().isEqual(this.eventStart)) {
-          foundEvents.add(event);
-        }
-      }
+      foundEvents = manager.getActiveCalendar().findEvents(this.eventName, this.eventStart);
       if (foundEvents.size() == 1) {
-        Event newEvent = foundEvents.get(0).cloneMe();
-        this.shiftEventStart(newEvent, newDateTime);
+        Event newEvent = this.shiftEventStart(foundEvents.get(0).cloneMe(), newDateTime);
         newCal.addEvent(newEvent);
         return;
       } else {
         throw new CommandExecutionException("There is more than one event with same name/time");
       }
     } else if (this.onDate != null) {
-      List<Event> eventList = manager.getActiveCalendar().getEvents();
-      for (Event event : eventList) {
-        if (event.overlapsDate(onDate)) {
-          foundEvents.add(event);
-        }
-      }
+      foundEvents = manager.getActiveCalendar().getEventsOnDate(onDate);
       for (Event event : foundEvents) {
-        Event newEvent = event.cloneMe();
-        this.updateEventDTRange(newEvent, this.onDate, toDate,
+        Event newEvent = this.updateEventDTRange(event.cloneMe(), this.onDate, toDate,
                 manager.getActiveCalendar().getZoneId(), newCal.getZoneId());
         newCal.addEvent(newEvent);
       }
     } else if (this.startingDate != null) {
 
       List<Event> eventList = manager.getActiveCalendar().getEvents();
+      TimeWindow window = TimeWindow.ofDates(startingDate, endingDate);
       for (Event event : eventList) {
-        if (event.fallsBetweenDates(startingDate, endingDate)) {
+        if (window.contains(event)) {
           foundEvents.add(event);
         }
       }
       for (Event event : foundEvents) {
-        Event newEvent = event.cloneMe();
-        this.updateEventDTRange(newEvent, this.startingDate, toDate,
+        Event newEvent = this.updateEventDTRange(event.cloneMe(), this.startingDate, toDate,
                 manager.getActiveCalendar().getZoneId(), newCal.getZoneId());
         newCal.addEvent(newEvent);
       }
     }
   }
 
-  private void shiftEventStart(Event newEvent, LocalDateTime newDateTime)
-          throws CommandExecutionException {
+  private Event shiftEventStart(Event newEvent, LocalDateTime newDateTime) {
     long eventDuration = ChronoUnit.MINUTES.between(newEvent.getStartDateTime(),
             newEvent.getEndDateTime());
     LocalDateTime newEnd = newDateTime.plusMinutes(eventDuration);
-    newEvent.modifyProperty("start", newDateTime.toString());
-    newEvent.modifyProperty("end", newEnd.toString());
+    return newEvent.withTimes(newDateTime, newEnd);
   }
 
-  private void updateEventDT(Event newEvent, LocalDate toDate, ZoneId ogZone, ZoneId newZone)
-          throws CommandExecutionException {
+  private Event updateEventDT(Event newEvent, LocalDate toDate, ZoneId ogZone, ZoneId newZone) {
     LocalDateTime newDTSameTZ = LocalDateTime.of(toDate, newEvent.getStartDateTime().toLocalTime());
     ZonedDateTime newZDT = newDTSameTZ.atZone(ogZone);
     Instant instant = newZDT.toInstant();
     LocalDateTime newDT = LocalDateTime.ofInstant(instant, newZone);
-    this.shiftEventStart(newEvent, newDT);
+    return this.shiftEventStart(newEvent, newDT);
   }
 
-  private void updateEventDTRange(Event newEvent, LocalDate startDt,
-                                  LocalDate toDate, ZoneId ogZone, ZoneId newZone)
-          throws CommandExecutionException {
+  private Event updateEventDTRange(Event newEvent, LocalDate startDt,
+                                  LocalDate toDate, ZoneId ogZone, ZoneId newZone) {
     long daysBetweenCopyDates = ChronoUnit.DAYS.between(startDt, toDate);
     LocalDate newToDate = newEvent.getStartDateTime().toLocalDate().plusDays(daysBetweenCopyDates);
-    this.updateEventDT(newEvent, newToDate, ogZone, newZone);
+    return this.updateEventDT(newEvent, newToDate, ogZone, newZone);
   }
 }
\ No newline at end of file
@@ -35,6 +35,8 @@ public class EditCalendarCommand implements Command {
     try {
       if (this.property.equals("name")) {
         this.manager.updateName(calName, newValue);
+      } else if (this.property.equals("overlaps")) {
+        this.manager.updateOverlapPolicy(calName, newValue);
       } else {
         this.manager.updateTimezone(calName, newValue);
       }
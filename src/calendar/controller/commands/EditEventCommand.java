@@ -39,23 +39,48 @@ public class EditEventCommand implements Command {
     this.newValue = newValue;
     this.editType = "single";
     Event tempEvent = new Event(subject, startDT, endDT);
-    if (property.equals("start")) {
-      for (EventSeries series : model.getEventSeries()) {
-        series.changeStartTime(model, subject, startDT, endDT, newValue);
-      }
-      for (Event event : model.getSingleEvents()) {
-        if (event.conflictsWith(tempEvent)) {
-          this.event = event;
-        }
-      }
-    } else {
-      List<Event> events = new ArrayList<>();
-      for (Event event : model.getEvents()) {
-        if (event.conflictsWith(tempEvent)) {
-          this.event = event;
+    List<EventSeries> seriesFound = new ArrayList<>();
+    for (Event event : model.findEvents(subject, startDT)) {
+      if (event.conflictsWith(tempEvent)) {
+        EventSeries series = model.getSeriesOf(event);
+        if (series != null && property.equals("start") && !seriesFound.contains(series)) {
+          seriesFound.add(series);
         }
+        this.event = event;
       }
     }
+    for (EventSeries series : seriesFound) {
+      series.changeStartTime(model, subject, startDT, endDT, newValue);
+    }
+  }
+
+  /**
+   * Constructs an {@code calendar.controller.commands.EditEventCommand} object that finds the
+   * event to edit by its id instead of by searching for its subject and times.
+   *
+   * @param model the CalendarModel that has the event
+   * @param eventId the id of the event to edit
+   * @param property the property of the event to edit
+   * @param newValue the new value to set for the given property
+   * @param editType "single", "allAfter" or "all" depending on how much of the event's series
+   *                 should be edited
+   * @throws CommandExecutionException if there is no event with the given id
+   */
+  public EditEventCommand(CalendarModel model, long eventId, String property, String newValue,
+                          String editType) throws CommandExecutionException {
+    this.model = model;
+    this.property = property;
+    this.newValue = newValue;
+    this.editType = editType;
+    this.event = model.getEventById(eventId);
+    if (this.event == null) {
+      throw new CommandExecutionException("Found no event with id #" + eventId);
+    }
+    EventSeries series = model.getSeriesOf(this.event);
+    if (editType.equals("single") && property.equals("start") && series != null) {
+      series.changeStartTime(model, this.event.getSubject(), this.event.getStartDateTime(),
+              this.event.getEndDateTime(), newValue);
+    }
   }
 
   /**
@@ -94,13 +119,7 @@ public class EditEventCommand implements Command {
     this.property = property;
     this.newValue = newValue;
     this.editType = "allAfter";
-    List<Event> eventsFound = new ArrayList<>();
-    for (Event event : model.getEvents()) {
-      if (event.getSubject().equals(subject)
-              && event.getStartDateTime().isEqual(dateTime)) {
-        eventsFound.add(event);
-      }
-    }
+    List<Event> eventsFound = model.findEvents(subject, dateTime);
     if (eventsFound.size() > 1) {
       throw new CommandExecutionException("More than one event meets search criteria");
     } else if (eventsFound.isEmpty()) {
@@ -132,13 +151,7 @@ public class EditEventCommand implements Command {
     this.property = property;
     this.newValue = newValue;
     this.editType = "all";
-    List<Event> eventsFound = new ArrayList<>();
-    for (Event event : model.getEvents()) {
-      if (event.getSubject().equals(subject)
-              && event.getStartDateTime().isEqual(dateTime)) {
-        eventsFound.add(event);
-      }
-    }
+    List<Event> eventsFound = model.findEvents(subject, dateTime);
     if (eventsFound.size() > 1) {
       throw new CommandExecutionException("More than one event meets search criteria");
     } else if (eventsFound.isEmpty()) {
@@ -158,28 +171,25 @@ public class EditEventCommand implements Command {
     switch (editType) {
 
       case "single":
-        this.event.modifyProperty(property, newValue);
+        this.model.modifyEvent(this.event, property, newValue);
         break;
 
       case "allAfter":
-        for (EventSeries series : model.getEventSeries()) {
-          if (series.containsEvent(event.getSubject(), event.getStartDateTime())) {
-            series.changeAllAfter(model, event.getSubject(), event.getStartDateTime(),
-                    property, newValue);
-            return;
-          }
+        EventSeries series = model.getSeriesOf(event);
+        if (series != null) {
+          series.changeAllAfter(model, event.getSubject(), event.getStartDateTime(),
+                  property, newValue);
+          return;
         }
         new EditEventCommand(model, event, property, newValue).execute();
         break;
 
       case "all":
-        List<EventSeries>  eventSeriesFound = new ArrayList<>();
-        for (EventSeries series : model.getEventSeries()) {
-          if (series.containsEvent(event.getSubject(), event.getStartDateTime())) {
-            eventSeriesFound.add(series);
-          }
+        EventSeries eventSeriesFound = model.getSeriesOf(event);
+        if (eventSeriesFound == null) {
+          throw new CommandExecutionException("Event is not part of a series");
         }
-        eventSeriesFound.get(0).changeAll(model, event.getSubject(),
+        eventSeriesFound.changeAll(model, event.getSubject(),
                 event.getStartDateTime(), property,
                 newValue);
         new EditEventCommand(model, event, property, newValue).execute();
@@ -0,0 +1,27 @@
+package calendar.controller.commands;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event for executing one command.
+ */
+@Name("calendar.Execute")
+@Label("Command Execute")
+@Category({"Calendar", "Commands"})
+@Description("Executing one parsed command, including the queries, changes and output it makes")
+@StackTrace(false)
+class ExecuteEvent extends jdk.jfr.Event {
+
+  @Label("Command Type")
+  String commandType;
+
+  @Label("Calendar")
+  String calendar;
+
+  @Label("Succeeded")
+  boolean succeeded;
+}
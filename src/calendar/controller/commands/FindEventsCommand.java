@@ -0,0 +1,43 @@
+package calendar.controller.commands;
+
+import java.util.List;
+
+import calendar.model.CalendarModel;
+import calendar.model.Event;
+import calendar.view.CalendarView;
+
+/**
+ * Command that finds and displays every event with a given subject, in order of start time.
+ */
+public class FindEventsCommand implements Command {
+
+  private CalendarModel model;
+  private CalendarView view;
+  private String subject;
+  private boolean ignoreCase;
+
+  /**
+   * Constructs an {@code calendar.controller.commands.FindEventsCommand} object.
+   *
+   * @param model      the CalendarModel to search
+   * @param view       the CalendarView to use for rendering the found events
+   * @param subject    the subject to search for
+   * @param ignoreCase whether the subject should be matched ignoring case
+   */
+  public FindEventsCommand(CalendarModel model, CalendarView view, String subject,
+                           boolean ignoreCase) {
+    this.model = model;
+    this.view = view;
+    this.subject = subject;
+    this.ignoreCase = ignoreCase;
+  }
+
+  /**
+   * Executes the command by looking the subject up in the model's subject index and
+   * displaying the matching events through the view.
+   */
+  public void execute() {
+    List<Event> foundEvents = this.model.findEventsBySubject(this.subject, this.ignoreCase);
+    this.view.renderEvents(foundEvents);
+  }
+}
@@ -0,0 +1,68 @@
+package calendar.controller.commands;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import calendar.model.CalendarManager;
+import calendar.model.SlotFinder;
+import calendar.model.TimeSlot;
+import calendar.view.CalendarView;
+
+/**
+ * Command that finds and displays the earliest free slots shared by one or more calendars.
+ */
+public class FindSlotsCommand implements Command {
+
+  private CalendarManager manager;
+  private CalendarView view;
+  private List<String> calendarNames;
+  private SlotFinder finder;
+  private LocalDateTime from;
+  private LocalDateTime to;
+  private int limit;
+
+  /**
+   * Constructs an {@code calendar.controller.commands.FindSlotsCommand} object. The window is
+   * read in the timezone of the active calendar, and the slots are displayed in it.
+   *
+   * @param manager       the CalendarManager holding the calendars
+   * @param view          the CalendarView to use for rendering the slots
+   * @param calendarNames the names of the calendars that must all be free
+   * @param finder        the length and working hours of the slots to find
+   * @param from          the start of the window to search
+   * @param to            the end of the window to search
+   * @param limit         the most slots to display
+   */
+  public FindSlotsCommand(CalendarManager manager, CalendarView view, List<String> calendarNames,
+                          SlotFinder finder, LocalDateTime from, LocalDateTime to, int limit) {
+    this.manager = manager;
+    this.view = view;
+    this.calendarNames = calendarNames;
+    this.finder = finder;
+    this.from = from;
+    this.to = to;
+    this.limit = limit;
+  }
+
+  /**
+   * Executes the command by asking the manager for the free slots and displaying each one.
+   *
+   * @throws CommandExecutionException if one of the calendars does not exist.
+   */
+  public void execute() throws CommandExecutionException {
+    List<TimeSlot> slots;
+    try {
+      slots = this.manager.findFreeSlots(this.calendarNames, this.finder,
+              this.manager.getActiveCalendar().getZoneId(), this.from, this.to, this.limit);
+    } catch (IllegalArgumentException e) {
+      throw new CommandExecutionException(e.getMessage());
+    }
+    if (slots.isEmpty()) {
+      this.view.renderMessage("No free slots found.");
+      return;
+    }
+    for (TimeSlot slot : slots) {
+      this.view.renderMessage(slot.toString());
+    }
+  }
+}
@@ -0,0 +1,60 @@
+package calendar.controller.commands;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+
+import calendar.model.AgendaEntry;
+import calendar.model.CalendarManager;
+import calendar.view.CalendarView;
+
+/**
+ * Command that displays the events of every calendar within a date and time interval as one
+ * agenda, in start order and in the timezone of the active calendar.
+ */
+public class PrintAgendaCommand implements Command {
+
+  private CalendarManager manager;
+  private CalendarView view;
+  private LocalDateTime startDT;
+  private LocalDateTime endDT;
+
+  /**
+   * Constructs an {@code calendar.controller.commands.PrintAgendaCommand} object.
+   *
+   * @param manager the CalendarManager holding the calendars
+   * @param view    the CalendarView to use for rendering the agenda
+   * @param startDT the start of the date and time interval
+   * @param endDT   the end of the date and time interval
+   */
+  public PrintAgendaCommand(CalendarManager manager, CalendarView view,
+                            LocalDateTime startDT, LocalDateTime endDT) {
+    this.manager = manager;
+    this.view = view;
+    this.startDT = startDT;
+    this.endDT = endDT;
+  }
+
+  /**
+   * Executes the command by rendering each entry of the merged agenda as it is produced.
+   *
+   * @throws CommandExecutionException if an entry cannot be rendered.
+   */
+  public void execute() throws CommandExecutionException {
+    Iterator<AgendaEntry> agenda = this.manager.getMergedAgenda(
+            this.manager.getActiveCalendar().getZoneId(), this.startDT, this.endDT);
+    if (!agenda.hasNext()) {
+      this.view.renderMessage("No events found.");
+      return;
+    }
+    try {
+      while (agenda.hasNext()) {
+        StringBuilder sb = new StringBuilder();
+        agenda.next().toString(sb);
+        this.view.renderMessage(sb.toString());
+      }
+    } catch (IOException e) {
+      throw new CommandExecutionException(e.getMessage());
+    }
+  }
+}
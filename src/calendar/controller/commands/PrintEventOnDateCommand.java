@@ -15,6 +15,7 @@ public class PrintEventOnDateCommand implements Command {
   private CalendarModel model;
   private CalendarView view;
   private LocalDate date;
+  private boolean showIds;
 
   /**
    * Constructs an {@code calendar.controller.commands.printEventOnDateCommand} object with the
@@ -25,9 +26,24 @@ public class PrintEventOnDateCommand implements Command {
    * @param date  the specific date to filter events by
    */
   public PrintEventOnDateCommand(CalendarModel model, CalendarView view, LocalDate date) {
+    this(model, view, date, false);
+  }
+
+  /**
+   * Constructs an {@code calendar.controller.commands.printEventOnDateCommand} object that may
+   * show the id of each event.
+   *
+   * @param model   the CalendarModel to retrieve events from
+   * @param view    the CalendarView to use for rendering the filtered events
+   * @param date    the specific date to filter events by
+   * @param showIds whether to show the id of each event
+   */
+  public PrintEventOnDateCommand(CalendarModel model, CalendarView view, LocalDate date,
+                                 boolean showIds) {
     this.model = model;
     this.view = view;
     this.date = date;
+    this.showIds = showIds;
   }
 
   /**
@@ -36,6 +52,10 @@ public class PrintEventOnDateCommand implements Command {
    */
   public void execute() {
     List<Event> filteredEvents = this.model.getEventsOnDate(this.date);
-    this.view.renderEvents(filteredEvents);
+    if (this.showIds) {
+      this.view.renderEventsWithIds(filteredEvents);
+    } else {
+      this.view.renderEvents(filteredEvents);
+    }
   }
 }
@@ -18,6 +18,7 @@ public class PrintEventsDTIntervalCommand implements Command {
   CalendarView view;
   LocalDateTime startDT;
   LocalDateTime endDT;
+  boolean showIds;
 
   /**
    * Constructs an {@code calendar.controller.commands.printEventsDTIntervalCommand} object  with
@@ -30,10 +31,27 @@ public class PrintEventsDTIntervalCommand implements Command {
    */
   public PrintEventsDTIntervalCommand(CalendarModel model, CalendarView view,
                                       LocalDateTime startDT, LocalDateTime endDT) {
+    this(model, view, startDT, endDT, false);
+  }
+
+  /**
+   * Constructs an {@code calendar.controller.commands.printEventsDTIntervalCommand} object that
+   * may show the id of each event.
+   *
+   * @param model   the CalendarModel to get events from
+   * @param view    the CalendarView to use for rendering the filtered events
+   * @param startDT the start of the date and time interval
+   * @param endDT   the end of the date and time interval
+   * @param showIds whether to show the id of each event
+   */
+  public PrintEventsDTIntervalCommand(CalendarModel model, CalendarView view,
+                                      LocalDateTime startDT, LocalDateTime endDT,
+                                      boolean showIds) {
     this.model = model;
     this.view = view;
     this.startDT = startDT;
     this.endDT = endDT;
+    this.showIds = showIds;
   }
 
   /**
@@ -59,6 +77,10 @@ public class PrintEventsDTIntervalCommand implements Command {
         filteredEvents.add(event);
       }
     }
-    view.renderEvents(filteredEvents);
+    if (this.showIds) {
+      view.renderEventsWithIds(filteredEvents);
+    } else {
+      view.renderEvents(filteredEvents);
+    }
   }
 }
@@ -0,0 +1,29 @@
+package calendar.controller.commands;
+
+import calendar.model.CalendarManager;
+
+/**
+ * Represents a Command that redoes the latest change that was undone.
+ */
+public class RedoCommand implements Command {
+
+  private CalendarManager manager;
+
+  /**
+   * Constructs a RedoCommand.
+   *
+   * @param manager CalendarManager.
+   */
+  public RedoCommand(CalendarManager manager) {
+    this.manager = manager;
+  }
+
+  /**
+   * Executes this command.
+   *
+   * @throws CommandExecutionException if command execution fails.
+   */
+  public void execute() throws CommandExecutionException {
+    this.manager.redo();
+  }
+}
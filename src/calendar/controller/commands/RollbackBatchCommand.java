@@ -0,0 +1,29 @@
+package calendar.controller.commands;
+
+import calendar.model.CalendarManager;
+
+/**
+ * Represents a Command that ends a batch of commands, undoing their changes.
+ */
+public class RollbackBatchCommand implements Command {
+
+  private CalendarManager manager;
+
+  /**
+   * Constructs a RollbackBatchCommand.
+   *
+   * @param manager CalendarManager.
+   */
+  public RollbackBatchCommand(CalendarManager manager) {
+    this.manager = manager;
+  }
+
+  /**
+   * Executes this command.
+   *
+   * @throws CommandExecutionException if command execution fails.
+   */
+  public void execute() throws CommandExecutionException {
+    this.manager.rollbackTransaction();
+  }
+}
@@ -0,0 +1,66 @@
+package calendar.controller.commands;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import calendar.model.CalendarModel;
+import calendar.model.Overlap;
+import calendar.view.CalendarView;
+
+/**
+ * Command that displays every pair of overlapping events in a calendar, either across the whole
+ * calendar or within a date and time interval.
+ */
+public class ShowOverlapsCommand implements Command {
+
+  private CalendarModel model;
+  private CalendarView view;
+  private LocalDateTime startDT;
+  private LocalDateTime endDT;
+
+  /**
+   * Constructs an {@code calendar.controller.commands.ShowOverlapsCommand} object that reports
+   * on the whole calendar.
+   *
+   * @param model the CalendarModel to check for overlaps
+   * @param view  the CalendarView to use for rendering the overlapping events
+   */
+  public ShowOverlapsCommand(CalendarModel model, CalendarView view) {
+    this(model, view, null, null);
+  }
+
+  /**
+   * Constructs an {@code calendar.controller.commands.ShowOverlapsCommand} object that reports
+   * on the events in progress within an interval.
+   *
+   * @param model   the CalendarModel to check for overlaps
+   * @param view    the CalendarView to use for rendering the overlapping events
+   * @param startDT the start of the date and time interval
+   * @param endDT   the end of the date and time interval
+   */
+  public ShowOverlapsCommand(CalendarModel model, CalendarView view,
+                             LocalDateTime startDT, LocalDateTime endDT) {
+    this.model = model;
+    this.view = view;
+    this.startDT = startDT;
+    this.endDT = endDT;
+  }
+
+  /**
+   * Executes the command by asking the model for the overlapping pairs and rendering each pair
+   * through the view.
+   */
+  public void execute() {
+    List<Overlap> overlaps = this.startDT == null ? this.model.getOverlaps()
+            : this.model.getOverlaps(this.startDT, this.endDT);
+    if (overlaps.isEmpty()) {
+      this.view.renderMessage("No overlapping events.");
+      return;
+    }
+    for (Overlap overlap : overlaps) {
+      this.view.renderMessage("Overlap:");
+      this.view.renderEvents(Arrays.asList(overlap.getFirst(), overlap.getSecond()));
+    }
+  }
+}
@@ -0,0 +1,46 @@
+package calendar.controller.commands;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import calendar.model.CalendarManager;
+import calendar.view.CalendarView;
+
+/**
+ * Command that displays which calendars are busy at a specific date and time, checking every
+ * calendar at once.
+ */
+public class ShowStatusAllCommand implements Command {
+
+  private CalendarManager manager;
+  private CalendarView view;
+  private LocalDateTime date;
+
+  /**
+   * Constructs an {@code calendar.controller.commands.ShowStatusAllCommand} object. The date
+   * and time is read in the timezone of the active calendar.
+   *
+   * @param manager the CalendarManager holding the calendars
+   * @param view    the CalendarView to use for displaying the status
+   * @param date    the specific date and time to check availability for
+   */
+  public ShowStatusAllCommand(CalendarManager manager, CalendarView view, LocalDateTime date) {
+    this.manager = manager;
+    this.view = view;
+    this.date = date;
+  }
+
+  /**
+   * Executes the command by asking the manager which calendars are busy and displaying them.
+   */
+  public void execute() {
+    List<String> busy = this.manager.getBusyCalendars(
+            this.manager.getActiveCalendar().getZoneId(), this.date);
+    this.view.renderMessage("Status: ");
+    if (busy.isEmpty()) {
+      this.view.renderMessage("Available");
+    } else {
+      this.view.renderMessage("Busy in " + String.join(", ", busy));
+    }
+  }
+}
@@ -32,16 +32,16 @@ public class ShowStatusOnDTCommand implements Command {
   }
 
   /**
-   * Executes the command by checking all events to see which ones are occurring
-   * at the specific date and time.
+   * Executes the command by checking whether the calendar is busy at the specific date and
+   * time, and if it is, finding the events that are occurring then.
    */
   public void execute() {
-    List<Event> events = model.getEvents();
     List<Event> filteredEvents = new ArrayList<>();
-
-    for (Event event : events) {
-      if (event.occursDuring(date)) {
-        filteredEvents.add(event);
+    if (model.isBusyAt(date)) {
+      for (Event event : model.getEvents()) {
+        if (event.occursDuring(date)) {
+          filteredEvents.add(event);
+        }
       }
     }
     view.renderMessage("Status: ");
@@ -0,0 +1,43 @@
+package calendar.controller.commands;
+
+import java.util.Map;
+
+import calendar.model.CalendarManager;
+import calendar.model.QueryStats;
+import calendar.view.CalendarView;
+
+/**
+ * Represents a Command that shows how often each type of command has run and how long it took,
+ * followed by the query statistics of every calendar.
+ */
+public class StatsCommand implements Command {
+
+  private CommandMetrics metrics;
+  private CalendarManager manager;
+  private CalendarView view;
+
+  /**
+   * Constructs a StatsCommand.
+   *
+   * @param metrics the command metrics to show.
+   * @param manager the calendars to show the query statistics of.
+   * @param view    the view to show them in.
+   */
+  public StatsCommand(CommandMetrics metrics, CalendarManager manager, CalendarView view) {
+    this.metrics = metrics;
+    this.manager = manager;
+    this.view = view;
+  }
+
+  /**
+   * Executes this command.
+   */
+  public void execute() {
+    for (CommandStats stats : this.metrics.getCommandStats().values()) {
+      this.view.renderMessage(stats.toString());
+    }
+    for (Map.Entry<String, QueryStats> entry : this.manager.getQueryStats().entrySet()) {
+      this.view.renderMessage("calendar " + entry.getKey() + ": " + entry.getValue());
+    }
+  }
+}
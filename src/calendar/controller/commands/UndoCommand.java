@@ -0,0 +1,29 @@
+package calendar.controller.commands;
+
+import calendar.model.CalendarManager;
+
+/**
+ * Represents a Command that undoes the latest change made by a command, or batch of commands.
+ */
+public class UndoCommand implements Command {
+
+  private CalendarManager manager;
+
+  /**
+   * Constructs a UndoCommand.
+   *
+   * @param manager CalendarManager.
+   */
+  public UndoCommand(CalendarManager manager) {
+    this.manager = manager;
+  }
+
+  /**
+   * Executes this command.
+   *
+   * @throws CommandExecutionException if command execution fails.
+   */
+  public void execute() throws CommandExecutionException {
+    this.manager.undo();
+  }
+}
@@ -0,0 +1,85 @@
+package calendar.model;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * Represents an event in a view that combines several calendars, with its times converted
+ * into the timezone of that view.
+ */
+public final class AgendaEntry {
+
+  private final String calendarName;
+  private final Event event;
+  private final LocalDateTime start;
+  private final LocalDateTime end;
+
+  /**
+   * Constructs an AgendaEntry.
+   *
+   * @param calendarName the name of the calendar the event belongs to.
+   * @param event        the event.
+   * @param start        the start of the event in the view's timezone.
+   * @param end          the end of the event in the view's timezone.
+   */
+  public AgendaEntry(String calendarName, Event event, LocalDateTime start, LocalDateTime end) {
+    this.calendarName = calendarName;
+    this.event = event;
+    this.start = start;
+    this.end = end;
+  }
+
+  /**
+   * Gets the name of the calendar the event belongs to.
+   *
+   * @return String.
+   */
+  public String getCalendarName() {
+    return this.calendarName;
+  }
+
+  /**
+   * Gets the event, with its times in its own calendar's timezone.
+   *
+   * @return Event.
+   */
+  public Event getEvent() {
+    return this.event;
+  }
+
+  /**
+   * Gets the start of the event in the view's timezone.
+   *
+   * @return LocalDateTime.
+   */
+  public LocalDateTime getStart() {
+    return this.start;
+  }
+
+  /**
+   * Gets the end of the event in the view's timezone.
+   *
+   * @return LocalDateTime.
+   */
+  public LocalDateTime getEnd() {
+    return this.end;
+  }
+
+  /**
+   * Appends a readable form of this entry to the given output, in the same layout as
+   * Event.toString but prefixed with the calendar name.
+   *
+   * @param out the output.
+   * @throws IOException if appending fails.
+   */
+  public void toString(Appendable out) throws IOException {
+    out.append("• [").append(this.calendarName).append("] ").append(this.event.getSubject())
+            .append(" from ").append(this.start.toLocalTime().toString())
+            .append(" to ").append(this.end.toLocalTime().toString())
+            .append(" on ").append(this.start.toLocalDate().toString());
+    String location = this.event.getLocation();
+    if (location != null && !location.trim().isEmpty()) {
+      out.append(" at ").append(location);
+    }
+  }
+}
@@ -0,0 +1,105 @@
+package calendar.model;
+
+/**
+ * Represents a snapshot of the statistics of a calendar's query cache.
+ */
+public final class CacheStats {
+
+  private final long hits;
+  private final long misses;
+  private final long evictions;
+  private final long invalidations;
+  private final int entries;
+  private final int weight;
+
+  /**
+   * Constructs a CacheStats.
+   *
+   * @param hits          the number of queries answered from the cache.
+   * @param misses        the number of queries that had to be computed.
+   * @param evictions     the number of results dropped to stay within the limits.
+   * @param invalidations the number of results dropped because the calendar changed.
+   * @param entries       the number of results currently held.
+   * @param weight        the number of events currently held, plus one per result.
+   */
+  public CacheStats(long hits, long misses, long evictions, long invalidations,
+                    int entries, int weight) {
+    this.hits = hits;
+    this.misses = misses;
+    this.evictions = evictions;
+    this.invalidations = invalidations;
+    this.entries = entries;
+    this.weight = weight;
+  }
+
+  /**
+   * Gets the number of queries answered from the cache.
+   *
+   * @return long.
+   */
+  public long getHits() {
+    return this.hits;
+  }
+
+  /**
+   * Gets the number of queries that had to be computed.
+   *
+   * @return long.
+   */
+  public long getMisses() {
+    return this.misses;
+  }
+
+  /**
+   * Gets the number of results dropped to stay within the limits.
+   *
+   * @return long.
+   */
+  public long getEvictions() {
+    return this.evictions;
+  }
+
+  /**
+   * Gets the number of results dropped because the calendar changed.
+   *
+   * @return long.
+   */
+  public long getInvalidations() {
+    return this.invalidations;
+  }
+
+  /**
+   * Gets the number of results currently held.
+   *
+   * @return int.
+   */
+  public int getEntries() {
+    return this.entries;
+  }
+
+  /**
+   * Gets the number of events currently held, plus one per result.
+   *
+   * @return int.
+   */
+  public int getWeight() {
+    return this.weight;
+  }
+
+  /**
+   * Gets the fraction of queries answered from the cache.
+   *
+   * @return double between 0 and 1.
+   */
+  public double getHitRate() {
+    long total = this.hits + this.misses;
+    return total == 0 ? 0 : (double) this.hits / total;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("hits=%d misses=%d hitRate=%.2f evictions=%d invalidations=%d "
+                    + "entries=%d weight=%d", this.hits, this.misses, this.getHitRate(),
+            this.evictions, this.invalidations, this.entries, this.weight);
+  }
+}
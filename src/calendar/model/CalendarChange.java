@@ -0,0 +1,237 @@
+package calendar.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Represents a single change made to a calendar, such as an event being added, removed or
+ * modified, or the calendar itself being renamed or moved to a new timezone.
+ */
+public final class CalendarChange {
+
+  /**
+   * The kinds of change a calendar can report.
+   */
+  public enum Type {
+    ADDED, REMOVED, MODIFIED, RENAMED, REZONED
+  }
+
+  private final Type type;
+  private final String calendarName;
+  private final Event event;
+  private final LocalDateTime oldStart;
+  private final LocalDateTime oldEnd;
+  private final LocalDateTime newStart;
+  private final LocalDateTime newEnd;
+  private final String oldValue;
+  private final String newValue;
+
+  private CalendarChange(Type type, String calendarName, Event event,
+                         LocalDateTime oldStart, LocalDateTime oldEnd,
+                         LocalDateTime newStart, LocalDateTime newEnd,
+                         String oldValue, String newValue) {
+    this.type = type;
+    this.calendarName = calendarName;
+    this.event = event;
+    this.oldStart = oldStart;
+    this.oldEnd = oldEnd;
+    this.newStart = newStart;
+    this.newEnd = newEnd;
+    this.oldValue = oldValue;
+    this.newValue = newValue;
+  }
+
+  /**
+   * Creates a change describing an event that was added to a calendar.
+   *
+   * @param calendarName name of the calendar.
+   * @param event        the added event.
+   * @return CalendarChange.
+   */
+  public static CalendarChange added(String calendarName, Event event) {
+    return new CalendarChange(Type.ADDED, calendarName, event, null, null,
+            event.getStartDateTime(), event.getEndDateTime(), null, null);
+  }
+
+  /**
+   * Creates a change describing an event that was removed from a calendar.
+   *
+   * @param calendarName name of the calendar.
+   * @param event        the removed event.
+   * @return CalendarChange.
+   */
+  public static CalendarChange removed(String calendarName, Event event) {
+    return new CalendarChange(Type.REMOVED, calendarName, event,
+            event.getStartDateTime(), event.getEndDateTime(), null, null, null, null);
+  }
+
+  /**
+   * Creates a change describing an event whose properties were modified.
+   *
+   * @param calendarName name of the calendar.
+   * @param event        the modified event, in its new state.
+   * @param oldStart     start of the event before the modification.
+   * @param oldEnd       end of the event before the modification.
+   * @return CalendarChange.
+   */
+  public static CalendarChange modified(String calendarName, Event event,
+                                        LocalDateTime oldStart, LocalDateTime oldEnd) {
+    return new CalendarChange(Type.MODIFIED, calendarName, event, oldStart, oldEnd,
+            event.getStartDateTime(), event.getEndDateTime(), null, null);
+  }
+
+  /**
+   * Creates a change describing a calendar that was renamed.
+   *
+   * @param newName the new name of the calendar.
+   * @param oldName the previous name of the calendar.
+   * @return CalendarChange.
+   */
+  public static CalendarChange renamed(String newName, String oldName) {
+    return new CalendarChange(Type.RENAMED, newName, null, null, null, null, null,
+            oldName, newName);
+  }
+
+  /**
+   * Creates a change describing a calendar that was moved to a new timezone. Every event
+   * in the calendar is shifted by such a change.
+   *
+   * @param calendarName name of the calendar.
+   * @param oldZone      the previous timezone id.
+   * @param newZone      the new timezone id.
+   * @return CalendarChange.
+   */
+  public static CalendarChange rezoned(String calendarName, String oldZone, String newZone) {
+    return new CalendarChange(Type.REZONED, calendarName, null, null, null, null, null,
+            oldZone, newZone);
+  }
+
+  /**
+   * Combines an earlier change to an event with a later change to the same event so that a
+   * batch reports only the net effect.
+   *
+   * @param earlier the earlier change.
+   * @param later   the later change.
+   * @return the combined change, or null if the two cancel out.
+   */
+  static CalendarChange merge(CalendarChange earlier, CalendarChange later) {
+    Event event = later.event;
+    if (earlier.type == Type.ADDED) {
+      if (later.type == Type.REMOVED) {
+        return null;
+      }
+      return new CalendarChange(Type.ADDED, later.calendarName, event, null, null,
+              later.newStart, later.newEnd, null, null);
+    }
+    if (earlier.type == Type.REMOVED && later.type == Type.REMOVED) {
+      return earlier;
+    }
+    if (later.type == Type.REMOVED) {
+      return new CalendarChange(Type.REMOVED, later.calendarName, event,
+              earlier.oldStart, earlier.oldEnd, null, null, null, null);
+    }
+    return new CalendarChange(Type.MODIFIED, later.calendarName, event,
+            earlier.oldStart, earlier.oldEnd, later.newStart, later.newEnd, null, null);
+  }
+
+  /**
+   * Determines whether the old or new time window of this change overlaps the given window.
+   * Calendar-wide changes (renames and timezone changes) are treated as overlapping everything.
+   *
+   * @param start start of the window.
+   * @param end   end of the window.
+   * @return boolean describing result.
+   */
+  public boolean touches(LocalDateTime start, LocalDateTime end) {
+    if (this.event == null) {
+      return true;
+    }
+    return overlaps(this.oldStart, this.oldEnd, start, end)
+            || overlaps(this.newStart, this.newEnd, start, end);
+  }
+
+  private static boolean overlaps(LocalDateTime s1, LocalDateTime e1,
+                                  LocalDateTime s2, LocalDateTime e2) {
+    return s1 != null && !s1.isAfter(e2) && !e1.isBefore(s2);
+  }
+
+  /**
+   * Gets the kind of this change.
+   *
+   * @return Type.
+   */
+  public Type getType() {
+    return this.type;
+  }
+
+  /**
+   * Gets the name of the calendar this change happened in.
+   *
+   * @return String.
+   */
+  public String getCalendarName() {
+    return this.calendarName;
+  }
+
+  /**
+   * Gets the event affected by this change, or null for calendar-wide changes.
+   *
+   * @return Event.
+   */
+  public Event getEvent() {
+    return this.event;
+  }
+
+  /**
+   * Gets the start of the event before this change, or null if it was added.
+   *
+   * @return LocalDateTime.
+   */
+  public LocalDateTime getOldStart() {
+    return this.oldStart;
+  }
+
+  /**
+   * Gets the end of the event before this change, or null if it was added.
+   *
+   * @return LocalDateTime.
+   */
+  public LocalDateTime getOldEnd() {
+    return this.oldEnd;
+  }
+
+  /**
+   * Gets the start of the event after this change, or null if it was removed.
+   *
+   * @return LocalDateTime.
+   */
+  public LocalDateTime getNewStart() {
+    return this.newStart;
+  }
+
+  /**
+   * Gets the end of the event after this change, or null if it was removed.
+   *
+   * @return LocalDateTime.
+   */
+  public LocalDateTime getNewEnd() {
+    return this.newEnd;
+  }
+
+  /**
+   * Gets the previous calendar name or timezone for calendar-wide changes.
+   *
+   * @return String.
+   */
+  public String getOldValue() {
+    return this.oldValue;
+  }
+
+  /**
+   * Gets the new calendar name or timezone for calendar-wide changes.
+   *
+   * @return String.
+   */
+  public String getNewValue() {
+    return this.newValue;
+  }
+}
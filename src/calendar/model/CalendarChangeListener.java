@@ -0,0 +1,17 @@
+package calendar.model;
+
+import java.util.List;
+
+/**
+ * Represents an observer that is told about changes made to a calendar.
+ */
+public interface CalendarChangeListener {
+
+  /**
+   * Called after one or more changes have been applied to a calendar. Changes made during a
+   * single batch are coalesced and delivered together.
+   *
+   * @param changes the changes, in the order they happened.
+   */
+  void calendarChanged(List<CalendarChange> changes);
+}
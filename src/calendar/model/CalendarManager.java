@@ -1,27 +1,94 @@
 package calendar.model;
 
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
 
 import calendar.controller.commands.CommandExecutionException;
 
 /**
  * Represents a Manager that organizes and controls the use
- * of any amount of calendars.
+ * of any amount of calendars. The calendar in use is held as a reference, resolved once when
+ * it is switched to, and belongs to this manager alone; sessions created with newSession share
+ * the calendars but each have their own calendar in use.
  */
-public class CalendarManager {
+public class CalendarManager implements CalendarStatsMXBean {
+
+  /**
+   * The name the query statistics of the calendars are published under over JMX.
+   */
+  public static final String OBJECT_NAME = "calendar:type=Calendars";
+
   private Map<String, CalendarModel> calendarList;
-  private String activeCalendar;
+  private CalendarModel activeCalendar;
+  private List<CalendarChangeListener> listeners;
+  private ParallelQueryExecutor queryExecutor;
+  private boolean inTransaction;
+  private CalendarModel savedActiveCalendar;
+  private boolean transactionFailed;
+  private UndoHistory history;
 
   /**
    * Constructs a CalendarManager.
    */
   public CalendarManager() {
-    this.calendarList = new HashMap<>();
+    this.calendarList = new ConcurrentHashMap<>();
+    this.activeCalendar = null;
+    this.listeners = new CopyOnWriteArrayList<>();
+    this.queryExecutor = new ParallelQueryExecutor();
+    this.inTransaction = false;
+    this.history = new UndoHistory(this.calendarList);
+  }
+
+  /**
+   * Constructs a CalendarManager that shares the calendars, listeners and query executor of the
+   * given manager, with no calendar in use.
+   *
+   * @param shared       the manager to share with.
+   * @param shareHistory whether to share the undo history of the manager too, rather than
+   *                     keep one of its own.
+   */
+  protected CalendarManager(CalendarManager shared, boolean shareHistory) {
+    this.calendarList = shared.calendarList;
     this.activeCalendar = null;
+    this.listeners = shared.listeners;
+    this.queryExecutor = shared.queryExecutor;
+    this.inTransaction = false;
+    this.history = shareHistory ? shared.history : new UndoHistory(this.calendarList);
+  }
+
+  /**
+   * Creates a session on the calendars of this CalendarManager. Calendars created or edited
+   * through the session or this manager are seen by both, but the session has its own calendar
+   * in use and its own undo history, so it only undoes its own changes.
+   *
+   * @return CalendarSession.
+   */
+  public CalendarSession newSession() {
+    return new CalendarSession(this, false);
+  }
+
+  /**
+   * Creates a session on the calendars of this CalendarManager that also shares its undo
+   * history, for running part of the same user's work, such as the commands of one calendar of
+   * a script run in parallel. Otherwise it is like a session from newSession.
+   *
+   * @return CalendarSession.
+   */
+  public CalendarSession newSessionSharingHistory() {
+    return new CalendarSession(this, true);
   }
 
   /**
@@ -35,7 +102,7 @@ public class CalendarManager {
     if (this.calendarList.containsKey(name)) {
       throw new CommandExecutionException("Calendar already exists");
     }
-    calendarList.put(name, new CalendarModelImpl(name, zoneId));
+    this.addCalendar(new CalendarModelImpl(name, zoneId));
   }
 
   /**
@@ -45,10 +112,13 @@ public class CalendarManager {
    * @throws CommandExecutionException if a calendar by that name already exists.
    */
   public void addCalendar(CalendarModel model) throws CommandExecutionException {
-    if (this.calendarList.containsKey(model.getName())) {
+    if (this.calendarList.putIfAbsent(model.getName(), model) != null) {
       throw new CommandExecutionException("Calendar already exists");
     }
-    calendarList.put(model.getName(), model);
+    UndoHistory.recordName(model, null);
+    for (CalendarChangeListener listener : this.listeners) {
+      model.addChangeListener(listener);
+    }
   }
 
   /**
@@ -57,7 +127,7 @@ public class CalendarManager {
    * @return A CalendarModelImpl.
    */
   public CalendarModel getActiveCalendar() {
-    return calendarList.get(activeCalendar);
+    return activeCalendar;
   }
 
   /**
@@ -66,10 +136,11 @@ public class CalendarManager {
    * @param name the name of the calendar to switch to.
    */
   public void switchToCalendar(String name) {
-    if (!calendarList.containsKey(name)) {
+    CalendarModel calendar = calendarList.get(name);
+    if (calendar == null) {
       throw new IllegalArgumentException("No such calendar.");
     }
-    activeCalendar = name;
+    activeCalendar = calendar;
   }
 
   /**
@@ -79,11 +150,11 @@ public class CalendarManager {
    * @return CalendarModelImpl.
    */
   public CalendarModel getCalendar(String name) {
-    if (!calendarList.containsKey(name)) {
+    CalendarModel calendar = calendarList.get(name);
+    if (calendar == null) {
       throw new IllegalArgumentException("No such calendar.");
-    } else {
-      return calendarList.get(name);
     }
+    return calendar;
   }
 
   /**
@@ -95,6 +166,42 @@ public class CalendarManager {
     return new ArrayList<>(calendarList.values());
   }
 
+  /**
+   * Gets the query statistics of every calendar, by name in alphabetical order.
+   *
+   * @return Map of calendar name to QueryStats.
+   */
+  @Override
+  public Map<String, QueryStats> getQueryStats() {
+    Map<String, QueryStats> stats = new TreeMap<>();
+    for (CalendarModel calendar : this.calendarList.values()) {
+      if (calendar instanceof CalendarModelImpl) {
+        stats.put(calendar.getName(), ((CalendarModelImpl) calendar).getQueryStats());
+      }
+    }
+    return stats;
+  }
+
+  /**
+   * Publishes the query statistics of these calendars on the platform MBean server under
+   * OBJECT_NAME, replacing any manager published before.
+   *
+   * @throws IllegalStateException if they cannot be published.
+   */
+  public void registerMBean() {
+    try {
+      MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+      ObjectName name = new ObjectName(OBJECT_NAME);
+      if (server.isRegistered(name)) {
+        server.unregisterMBean(name);
+      }
+      server.registerMBean(this, name);
+    } catch (JMException e) {
+      throw new IllegalStateException("Could not publish calendar statistics: "
+              + e.getMessage(), e);
+    }
+  }
+
   /**
    * Updates the name of the given calendar to be the given new name.
    *
@@ -108,12 +215,10 @@ public class CalendarManager {
     }
 
     CalendarModel calendar = this.getCalendar(calName);
+    UndoHistory.recordName(calendar, calName);
     this.calendarList.remove(calName);
     calendar.updateName(newName);
     this.calendarList.put(newName, calendar);
-    if (calName.equals(this.activeCalendar)) {
-      this.activeCalendar = newName;
-    }
   }
 
   /**
@@ -128,4 +233,313 @@ public class CalendarManager {
     calendar.updateZoneId(newZone);
   }
 
+  /**
+   * Updates whether the given calendar rejects events that overlap an existing event.
+   *
+   * @param calName calendar name.
+   * @param policy  "reject" to reject overlapping events, "allow" to allow them.
+   * @throws CommandExecutionException if the policy is not recognized.
+   */
+  public void updateOverlapPolicy(String calName, String policy)
+          throws CommandExecutionException {
+    CalendarModel calendar = this.getCalendar(calName);
+    if (policy.equals("reject")) {
+      calendar.setRejectOverlaps(true);
+    } else if (policy.equals("allow")) {
+      calendar.setRejectOverlaps(false);
+    } else {
+      throw new CommandExecutionException("Unknown overlap policy: " + policy);
+    }
+  }
+
+  /**
+   * Starts a transaction, after which the changes made to the calendars on this thread can be
+   * kept together with commitTransaction or undone together with rollbackTransaction. The
+   * transaction is recorded as one undo step, which keeps the version of each event from before
+   * its first change, so a transaction costs one record per event it changes, however many
+   * commands change it, and undoing it puts back only those events. Listeners of a calendar hear
+   * of its changes only when the transaction commits.
+   *
+   * <p>The transaction belongs to this manager or session alone. Other sessions sharing the
+   * calendars see its changes as they are made, so they must be kept off the calendars it
+   * changes until it ends.</p>
+   *
+   * @throws CommandExecutionException if a transaction is already open.
+   */
+  public void beginTransaction() throws CommandExecutionException {
+    if (this.inTransaction) {
+      throw new CommandExecutionException("A batch is already open");
+    }
+    this.inTransaction = true;
+    this.savedActiveCalendar = this.activeCalendar;
+    this.transactionFailed = false;
+    this.history.beginBatch();
+  }
+
+  /**
+   * Ends the open transaction, keeping its changes.
+   *
+   * @throws CommandExecutionException if no transaction is open, or if it failed and was
+   *                                   rolled back.
+   */
+  public void commitTransaction() throws CommandExecutionException {
+    if (!this.inTransaction) {
+      throw new CommandExecutionException("No batch is open");
+    }
+    boolean failed = this.transactionFailed;
+    if (!failed) {
+      this.history.end();
+    }
+    this.inTransaction = false;
+    this.savedActiveCalendar = null;
+    this.transactionFailed = false;
+    if (failed) {
+      throw new CommandExecutionException("Batch failed and was rolled back");
+    }
+  }
+
+  /**
+   * Ends the open transaction, undoing its changes. Calendars created in the transaction are
+   * removed, and the calendar in use is switched back to the one in use when it began.
+   *
+   * @throws CommandExecutionException if no transaction is open.
+   */
+  public void rollbackTransaction() throws CommandExecutionException {
+    if (!this.inTransaction) {
+      throw new CommandExecutionException("No batch is open");
+    }
+    if (!this.transactionFailed) {
+      this.undoTransaction();
+    }
+    this.inTransaction = false;
+    this.savedActiveCalendar = null;
+    this.transactionFailed = false;
+  }
+
+  /**
+   * Undoes the changes of the open transaction after one of its commands failed. The
+   * transaction stays open, but failed, until it is ended by a commit or rollback.
+   */
+  public void failTransaction() {
+    if (!this.inTransaction || this.transactionFailed) {
+      return;
+    }
+    this.undoTransaction();
+    this.transactionFailed = true;
+  }
+
+  /**
+   * Determines whether a transaction is open.
+   *
+   * @return boolean describing result.
+   */
+  public boolean isInTransaction() {
+    return this.inTransaction;
+  }
+
+  /**
+   * Determines whether the open transaction has failed and been rolled back.
+   *
+   * @return boolean describing result.
+   */
+  public boolean isTransactionFailed() {
+    return this.transactionFailed;
+  }
+
+  private void undoTransaction() {
+    this.history.cancel();
+    this.activeCalendar = this.savedActiveCalendar;
+    this.forgetUnlistedActiveCalendar();
+  }
+
+  /**
+   * Starts the undo step of the next command run on this thread, ending the step of the
+   * command run before it. The step records the changes the command makes to the calendars,
+   * and ends when the next command starts or when closeUndoStep, undo or redo is called.
+   * Inside a batch or a step opened with beginUndoStep, the command joins that step instead.
+   */
+  public void nextUndoStep() {
+    this.history.next();
+  }
+
+  /**
+   * Ends the undo step of the command last run on this thread, so that it is kept even if this
+   * thread runs no more commands.
+   */
+  public void closeUndoStep() {
+    this.history.endCommand();
+  }
+
+  /**
+   * Starts recording the changes made to the calendars as one undo step, or continues the
+   * step already being recorded by this thread. Every call must be matched by endUndoStep.
+   */
+  public void beginUndoStep() {
+    this.history.begin();
+  }
+
+  /**
+   * Ends a beginUndoStep. Once every begin has been ended, the step can be undone with undo.
+   */
+  public void endUndoStep() {
+    this.history.end();
+  }
+
+  /**
+   * Undoes the changes recorded so far in the undo step this thread is recording, and stops
+   * recording it.
+   */
+  public void cancelUndoStep() {
+    this.history.cancel();
+    this.forgetUnlistedActiveCalendar();
+  }
+
+  /**
+   * Undoes the latest undo step of this manager or session. No other session sharing its
+   * history may be running a command at the same time. A step whose events have been changed
+   * by another session since is dropped instead of undone.
+   *
+   * @throws CommandExecutionException if there is nothing to undo, a batch is open, or another
+   *                                   session has changed the events of the step since.
+   */
+  public void undo() throws CommandExecutionException {
+    if (this.isInTransaction()) {
+      throw new CommandExecutionException("Cannot undo inside a batch");
+    }
+    if (!this.history.undo()) {
+      throw new CommandExecutionException("Nothing to undo");
+    }
+    this.forgetUnlistedActiveCalendar();
+  }
+
+  /**
+   * Redoes the latest undone step. Steps can be redone until a new change is made, unless
+   * another session has changed their events since.
+   *
+   * @throws CommandExecutionException if there is nothing to redo, a batch is open, or another
+   *                                   session has changed the events of the step since.
+   */
+  public void redo() throws CommandExecutionException {
+    if (this.isInTransaction()) {
+      throw new CommandExecutionException("Cannot redo inside a batch");
+    }
+    if (!this.history.redo()) {
+      throw new CommandExecutionException("Nothing to redo");
+    }
+    this.forgetUnlistedActiveCalendar();
+  }
+
+  private void forgetUnlistedActiveCalendar() {
+    if (this.activeCalendar != null
+            && this.calendarList.get(this.activeCalendar.getName()) != this.activeCalendar) {
+      this.activeCalendar = null;
+    }
+  }
+
+  /**
+   * Registers a listener to be told about changes made to any calendar in this manager,
+   * including calendars added later.
+   *
+   * @param listener the listener.
+   */
+  public void addChangeListener(CalendarChangeListener listener) {
+    this.listeners.add(listener);
+    for (CalendarModel calendar : this.calendarList.values()) {
+      calendar.addChangeListener(listener);
+    }
+  }
+
+  /**
+   * Unregisters a listener previously given to addChangeListener.
+   *
+   * @param listener the listener.
+   */
+  public void removeChangeListener(CalendarChangeListener listener) {
+    this.listeners.remove(listener);
+    for (CalendarModel calendar : this.calendarList.values()) {
+      calendar.removeChangeListener(listener);
+    }
+  }
+
+  /**
+   * Finds the earliest free slots within a window that are free in every one of the named
+   * calendars.
+   *
+   * @param calendarNames the names of the calendars that must all be free.
+   * @param finder        the length and working hours of the slots to find.
+   * @param zone          the timezone the window is given in and the slots are returned in.
+   * @param from          the start of the window.
+   * @param to            the end of the window.
+   * @param limit         the most slots to return.
+   * @return List of TimeSlots, in order.
+   * @throws IllegalArgumentException if one of the calendars does not exist.
+   */
+  public List<TimeSlot> findFreeSlots(List<String> calendarNames, SlotFinder finder,
+                                      ZoneId zone, LocalDateTime from, LocalDateTime to,
+                                      int limit) {
+    List<CalendarModel> calendars = new ArrayList<>();
+    for (String name : calendarNames) {
+      calendars.add(this.getCalendar(name));
+    }
+    return finder.find(calendars, zone, from, to, limit);
+  }
+
+  /**
+   * Gets the events of every calendar within a window as one agenda in start order, with
+   * times converted into the given timezone. The agenda is merged lazily as it is iterated.
+   *
+   * @param zone the timezone the window is given in and the entries are returned in.
+   * @param from the start of the window.
+   * @param to   the end of the window.
+   * @return Iterator of AgendaEntries.
+   */
+  public Iterator<AgendaEntry> getMergedAgenda(ZoneId zone, LocalDateTime from,
+                                               LocalDateTime to) {
+    return new MergedAgenda(this.getCalendars(), zone, from, to);
+  }
+
+  /**
+   * Sets the executor used for queries that span every calendar.
+   *
+   * @param queryExecutor the executor.
+   */
+  public void setQueryExecutor(ParallelQueryExecutor queryExecutor) {
+    this.queryExecutor = queryExecutor;
+  }
+
+  /**
+   * Finds the names of the calendars that are busy at the given moment, checking every
+   * calendar in parallel.
+   *
+   * @param zone     the timezone the moment is given in.
+   * @param dateTime the moment.
+   * @return List of calendar names, sorted.
+   */
+  public List<String> getBusyCalendars(ZoneId zone, LocalDateTime dateTime) {
+    List<CalendarModel> calendars = this.getCalendars();
+    calendars.sort(Comparator.comparing(CalendarModel::getName));
+    List<Boolean> busy = this.queryExecutor.map(calendars, calendar ->
+            calendar.isBusyAt(Zones.convert(dateTime, zone, calendar.getZoneId())));
+    List<String> names = new ArrayList<>();
+    for (int i = 0; i < calendars.size(); i += 1) {
+      if (busy.get(i)) {
+        names.add(calendars.get(i).getName());
+      }
+    }
+    return names;
+  }
+
+  /**
+   * Finds the events of every calendar in progress within a window, querying the calendars
+   * in parallel.
+   *
+   * @param zone the timezone the window is given in and the entries are returned in.
+   * @param from the start of the window.
+   * @param to   the end of the window.
+   * @return List of AgendaEntries, in start order.
+   */
+  public List<AgendaEntry> getEventsAcrossCalendars(ZoneId zone, LocalDateTime from,
+                                                    LocalDateTime to) {
+    return this.queryExecutor.getEventsOverlapping(this.getCalendars(), zone, from, to);
+  }
 }
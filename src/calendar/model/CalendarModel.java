@@ -1,6 +1,7 @@
 package calendar.model;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.List;
 
@@ -19,6 +20,14 @@ public interface CalendarModel {
    */
   void addEvent(Event event) throws CommandExecutionException;
 
+  /**
+   * Includes all the given events in the calendar as single events. Either every event is
+   * added or, if any of them already exists, none are.
+   *
+   * @param events the events to be included.
+   */
+  void addEvents(List<Event> events) throws CommandExecutionException;
+
   /**
    * Includes the given event series in the calendar.
    *
@@ -82,6 +91,57 @@ public interface CalendarModel {
    */
   List<Event> getEventsOnDate(LocalDate date);
 
+  /**
+   * Finds every event in progress at any moment between two date-times, both inclusive,
+   * sorted by start time.
+   *
+   * @param start the start of the window
+   * @param end   the end of the window
+   * @return list of events overlapping the window
+   */
+  List<Event> getEventsOverlapping(LocalDateTime start, LocalDateTime end);
+
+  /**
+   * Finds every pair of overlapping events in progress between two date-times. Events overlap
+   * when they share a stretch of time; events that only meet end to start do not.
+   *
+   * @param start the start of the window
+   * @param end   the end of the window
+   * @return list of overlapping pairs, ordered by the start of the later event
+   */
+  List<Overlap> getOverlaps(LocalDateTime start, LocalDateTime end);
+
+  /**
+   * Finds every pair of overlapping events in this calendar.
+   *
+   * @return list of overlapping pairs, ordered by the start of the later event
+   */
+  List<Overlap> getOverlaps();
+
+  /**
+   * Sets whether events that overlap an existing event should be rejected when they are
+   * added with addEvent or addEventSeries.
+   *
+   * @param reject true to reject overlapping events, false to allow them
+   */
+  void setRejectOverlaps(boolean reject);
+
+  /**
+   * Determines whether this calendar rejects events that overlap an existing event.
+   *
+   * @return boolean describing result
+   */
+  boolean isRejectingOverlaps();
+
+  /**
+   * Checks if the calendar has any events in progress at a specific date and time. Events
+   * are in progress from their start to their end, both inclusive.
+   *
+   * @param dateTime the moment to check
+   * @return true if there are events at that time, false otherwise
+   */
+  boolean isBusyAt(LocalDateTime dateTime);
+
   /**
    * Removes an event from the calendar.
    *
@@ -89,4 +149,82 @@ public interface CalendarModel {
    * @return true if the event was found and removed, false otherwise
    */
   boolean removeEvent(Event event);
+
+  /**
+   * Removes the event with the given id from the calendar.
+   *
+   * @param id the id of the event to remove
+   * @return true if the event was found and removed, false otherwise
+   */
+  boolean removeEventById(long id);
+
+  /**
+   * Gets the event of this calendar with the given id.
+   *
+   * @param id the id of the event
+   * @return the Event, or null if this calendar has no event with that id
+   */
+  Event getEventById(long id);
+
+  /**
+   * Finds the events of this calendar with exactly the given subject and start time.
+   *
+   * @param subject the subject
+   * @param start   the start time
+   * @return list of matching events
+   */
+  List<Event> findEvents(String subject, LocalDateTime start);
+
+  /**
+   * Finds every event of this calendar with the given subject, sorted by start time.
+   *
+   * @param subject    the subject
+   * @param ignoreCase whether the subject should be matched ignoring case
+   * @return list of matching events
+   */
+  List<Event> findEventsBySubject(String subject, boolean ignoreCase);
+
+  /**
+   * Gets the series of this calendar that the given event belongs to.
+   *
+   * @param event the event
+   * @return the EventSeries, or null if the event is not part of a series in this calendar
+   */
+  EventSeries getSeriesOf(Event event);
+
+  /**
+   * Modifies a property of an event in this calendar and notifies listeners of the change.
+   *
+   * @param event    the event to modify.
+   * @param property the property to modify.
+   * @param value    the new value of the property.
+   * @throws CommandExecutionException if the event is not in this calendar, or the property or
+   *                                   value is invalid.
+   */
+  void modifyEvent(Event event, String property, String value) throws CommandExecutionException;
+
+  /**
+   * Registers a listener to be told about changes made to this calendar.
+   *
+   * @param listener the listener.
+   */
+  void addChangeListener(CalendarChangeListener listener);
+
+  /**
+   * Unregisters a listener previously given to addChangeListener.
+   *
+   * @param listener the listener.
+   */
+  void removeChangeListener(CalendarChangeListener listener);
+
+  /**
+   * Starts a batch of changes. Listeners are not notified until the matching endBatch, at
+   * which point they receive all changes of the batch coalesced. Batches may be nested.
+   */
+  void beginBatch();
+
+  /**
+   * Ends a batch of changes started by beginBatch.
+   */
+  void endBatch();
 }
@@ -1,11 +1,21 @@
 
 package calendar.model;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
 
 import calendar.controller.commands.CommandExecutionException;
 
@@ -14,10 +24,29 @@ import calendar.controller.commands.CommandExecutionException;
  */
 public class CalendarModelImpl implements CalendarModel {
 
+  private static final int QUERY_CACHE_ENTRIES = 256;
+  private static final int QUERY_CACHE_WEIGHT = 65536;
+  private static final LocalTime LAST_MINUTE = LocalTime.of(23, 59);
+
   private String name;
   private List<Event> events;
   private List<EventSeries> eventSeries;
   private ZoneId zoneId;
+  private final Map<Long, Event> eventsById;
+  private final Map<Long, EventSeries> seriesById;
+  private final SubjectIndex subjectIndex;
+  private final FreeBusyMap freeBusy;
+  private final DayIndex dayIndex;
+  private final Map<Long, Long> singleOrder;
+  private final Map<EventSeries, Long> seriesOrder;
+  private long nextOrder;
+  private final QueryCache queryCache;
+  private final List<CalendarChangeListener> listeners;
+  private final ChangeBatch pendingChanges;
+  private int batchDepth;
+  private boolean rejectOverlaps;
+  private final LongAdder queries;
+  private final LongAdder eventsScanned;
 
   /**
    * Constructs a new CalendarModelImpl object with empty event lists.
@@ -27,6 +56,21 @@ public class CalendarModelImpl implements CalendarModel {
     this.events = new ArrayList<Event>();
     this.eventSeries = new ArrayList<EventSeries>();
     this.zoneId = zoneId;
+    this.eventsById = new HashMap<>();
+    this.seriesById = new HashMap<>();
+    this.subjectIndex = new SubjectIndex();
+    this.freeBusy = new FreeBusyMap();
+    this.dayIndex = new DayIndex();
+    this.singleOrder = new HashMap<>();
+    this.seriesOrder = new IdentityHashMap<>();
+    this.nextOrder = 0;
+    this.queryCache = new QueryCache(QUERY_CACHE_ENTRIES, QUERY_CACHE_WEIGHT);
+    this.listeners = new CopyOnWriteArrayList<>();
+    this.pendingChanges = new ChangeBatch();
+    this.batchDepth = 0;
+    this.rejectOverlaps = false;
+    this.queries = new LongAdder();
+    this.eventsScanned = new LongAdder();
   }
 
   /**
@@ -35,13 +79,60 @@ public class CalendarModelImpl implements CalendarModel {
    * @param event the event to be included
    */
   public void addEvent(Event event) throws CommandExecutionException {
-    for (Event e : events) {
-      if (e.equals(event)) {
+    MutationEvent mutation = new MutationEvent();
+    mutation.begin();
+    if (this.hasSingleEventEqualTo(event)) {
+      throw new CommandExecutionException("Event already exists");
+    }
+    if (this.rejectOverlaps
+            && this.freeBusy.overlaps(event.getStartDateTime(), event.getEndDateTime())) {
+      throw new CommandExecutionException("Event overlaps an existing event");
+    }
+
+    this.record(event.getId());
+    this.events.add(event);
+    this.listed(event);
+    this.index(event, null);
+    this.fireChange(CalendarChange.added(this.name, event));
+    this.mutated(mutation, "add event", null, 1);
+  }
+
+  /**
+   * Includes all the given events in the calendar as single events. Either every event is
+   * added or, if any of them already exists, none are.
+   *
+   * @param newEvents the events to be included
+   * @throws CommandExecutionException if any of the events already exists
+   */
+  public void addEvents(List<Event> newEvents) throws CommandExecutionException {
+    MutationEvent mutation = new MutationEvent();
+    mutation.begin();
+    Set<Event> seen = new HashSet<>();
+    for (Event event : newEvents) {
+      if (!seen.add(event) || this.hasSingleEventEqualTo(event)) {
         throw new CommandExecutionException("Event already exists");
       }
     }
 
-    this.events.add(event);
+    for (Event event : newEvents) {
+      this.record(event.getId());
+    }
+    this.events.addAll(newEvents);
+    for (Event event : newEvents) {
+      this.listed(event);
+    }
+    this.subjectIndex.addAll(newEvents);
+    this.beginBatch();
+    try {
+      for (Event event : newEvents) {
+        this.eventsById.put(event.getId(), event);
+        this.indexTimes(event);
+        this.fireChange(CalendarChange.added(this.name, event));
+      }
+    } finally {
+      this.endBatch();
+    }
+    this.mutated(mutation, "add events", null, newEvents.size());
   }
 
   /**
@@ -50,16 +141,36 @@ public class CalendarModelImpl implements CalendarModel {
    * @param eventSeries the event series to add
    */
   public void addEventSeries(EventSeries eventSeries) throws CommandExecutionException {
+    MutationEvent mutation = new MutationEvent();
+    mutation.begin();
     for (Event e : eventSeries.getEvents()) {
-      for (Event e2 : this.events) {
-        if (e.equals(e2)) {
-          throw new CommandExecutionException("At least one event in this series conflicts"
-                  +
-                  "with a preexisting event");
-        }
+      if (this.hasSingleEventEqualTo(e)) {
+        throw new CommandExecutionException("At least one event in this series conflicts"
+                + "with a preexisting event");
+      }
+    }
+    if (this.rejectOverlaps) {
+      this.checkSeriesOverlaps(eventSeries);
+    }
+    if (UndoHistory.isRecording()) {
+      UndoHistory.recordSeries(this, eventSeries, false);
+      for (Event e : eventSeries.getEvents()) {
+        this.record(e.getId());
       }
     }
     this.eventSeries.add(eventSeries);
+    this.seriesOrder.put(eventSeries, this.nextOrder++);
+    eventSeries.setOwner(this);
+    this.beginBatch();
+    try {
+      for (Event e : eventSeries.getEvents()) {
+        this.index(e, eventSeries);
+        this.fireChange(CalendarChange.added(this.name, e));
+      }
+    } finally {
+      this.endBatch();
+    }
+    this.mutated(mutation, "add series", null, eventSeries.getEvents().size());
   }
 
   /**
@@ -120,7 +231,10 @@ public class CalendarModelImpl implements CalendarModel {
    * @param name new name.
    */
   public void updateName(String name) {
+    this.recordCalendar();
+    String oldName = this.name;
     this.name = name;
+    this.fireChange(CalendarChange.renamed(name, oldName));
   }
 
   /**
@@ -131,9 +245,12 @@ public class CalendarModelImpl implements CalendarModel {
    * @throws CommandExecutionException if the timezone is invalid or the conversion won't work.
    */
   public void updateZoneId(String zoneId) throws CommandExecutionException {
+    MutationEvent mutation = new MutationEvent();
+    mutation.begin();
+    this.recordCalendar();
+    ZoneId oldZoneId = this.zoneId;
     try {
       ZoneId newZoneId = ZoneId.of(zoneId);
-      ZoneId oldZoneId = this.zoneId;
 
       this.zoneId = newZoneId;
       this.convertEventsToNewTimezone(this.events, oldZoneId, newZoneId);
@@ -142,7 +259,12 @@ public class CalendarModelImpl implements CalendarModel {
       }
     } catch (Exception e) {
       throw new CommandExecutionException("Invalid timezone: " + zoneId);
+    } finally {
+      this.rebuildIndexes();
+      this.queryCache.clear();
     }
+    this.fireChange(CalendarChange.rezoned(this.name, oldZoneId.getId(), this.zoneId.getId()));
+    this.mutated(mutation, "change timezone", null, this.eventsById.size());
   }
 
   /**
@@ -157,7 +279,8 @@ public class CalendarModelImpl implements CalendarModel {
   private void convertEventsToNewTimezone(List<Event> eventsToConvert,
                                           ZoneId fromZone, ZoneId toZone)
           throws CommandExecutionException {
-    for (Event event : eventsToConvert) {
+    for (int i = 0; i < eventsToConvert.size(); i += 1) {
+      Event event = eventsToConvert.get(i);
       // for converting start time
       LocalDateTime oldStart = event.getStartDateTime();
       ZonedDateTime zonedStart = oldStart.atZone(fromZone);
@@ -170,8 +293,10 @@ public class CalendarModelImpl implements CalendarModel {
       ZonedDateTime convertedEnd = zonedEnd.withZoneSameInstant(toZone);
       LocalDateTime newEnd = convertedEnd.toLocalDateTime();
 
-      event.modifyProperty("start", newStart.toString());
-      event.modifyProperty("end", newEnd.toString());
+      Event converted = event.withTimes(newStart, newEnd);
+      this.record(converted.getId());
+      eventsToConvert.set(i, converted);
+      this.eventsById.put(converted.getId(), converted);
     }
   }
 
@@ -182,12 +307,17 @@ public class CalendarModelImpl implements CalendarModel {
    * @return list of events occurring on that date
    */
   public List<Event> getEventsOnDate(java.time.LocalDate date) {
-    List<Event> eventsOnDate = new ArrayList<>();
-    for (Event event : this.getEvents()) {
-      if (event.overlapsDate(date)) {
-        eventsOnDate.add(event);
-      }
+    QueryEvent query = new QueryEvent();
+    query.begin();
+    List<Event> cached = this.queryCache.get(date, date);
+    if (cached != null) {
+      this.queried(query, "events on date", cached.size(), 0, true);
+      return cached;
     }
+    List<Event> eventsOnDate = this.dayIndex.onDate(date);
+    eventsOnDate.sort(this::compareListed);
+    this.queryCache.put(date, date, eventsOnDate);
+    this.queried(query, "events on date", eventsOnDate.size(), eventsOnDate.size(), false);
     return eventsOnDate;
   }
 
@@ -199,15 +329,212 @@ public class CalendarModelImpl implements CalendarModel {
    * @return list of events in the range
    */
   public List<Event> getEventsInRange(java.time.LocalDate startDate, java.time.LocalDate endDate) {
-    List<Event> eventsInRange = new ArrayList<>();
-    for (Event event : this.getEvents()) {
-      if (event.fallsBetweenDates(startDate, endDate)) {
-        eventsInRange.add(event);
+    QueryEvent query = new QueryEvent();
+    query.begin();
+    List<Event> cached = this.queryCache.get(startDate, endDate);
+    if (cached != null) {
+      this.queried(query, "events in range", cached.size(), 0, true);
+      return cached;
+    }
+    List<Event> eventsInRange;
+    int scanned;
+    if (endDate.toEpochDay() - startDate.toEpochDay() < this.eventsById.size()) {
+      eventsInRange = this.dayIndex.inRange(startDate, endDate);
+      eventsInRange.sort(this::compareListed);
+      scanned = eventsInRange.size();
+    } else {
+      eventsInRange = new ArrayList<>();
+      TimeWindow window = TimeWindow.ofDates(startDate, endDate);
+      for (Event event : this.getEvents()) {
+        if (window.contains(event)) {
+          eventsInRange.add(event);
+        }
       }
+      scanned = this.eventsById.size();
     }
+    this.queryCache.put(startDate, endDate, eventsInRange);
+    this.queried(query, "events in range", eventsInRange.size(), scanned, false);
     return eventsInRange;
   }
 
+  /**
+   * Compares two events of this calendar by where they are listed by getEvents: single events
+   * in the order they were added, then the events of each series in the order the series were
+   * added, each series in start order. Date and range queries answered from the day index are
+   * sorted this way so they list events as a scan of getEvents would.
+   */
+  private int compareListed(Event first, Event second) {
+    EventSeries firstSeries = this.seriesById.get(first.getId());
+    EventSeries secondSeries = this.seriesById.get(second.getId());
+    if (firstSeries == null && secondSeries == null) {
+      return Long.compare(this.singleOrder.getOrDefault(first.getId(), Long.MAX_VALUE),
+              this.singleOrder.getOrDefault(second.getId(), Long.MAX_VALUE));
+    }
+    if (firstSeries == null || secondSeries == null) {
+      return firstSeries == null ? -1 : 1;
+    }
+    if (firstSeries != secondSeries) {
+      return Long.compare(this.seriesOrder.getOrDefault(firstSeries, Long.MAX_VALUE),
+              this.seriesOrder.getOrDefault(secondSeries, Long.MAX_VALUE));
+    }
+    int byStart = first.compareTo(second);
+    return byStart != 0 ? byStart : Long.compare(first.getId(), second.getId());
+  }
+
+  /**
+   * Records that an event was added to the end of the single events.
+   */
+  private void listed(Event event) {
+    this.singleOrder.put(event.getId(), this.nextOrder++);
+  }
+
+  /**
+   * Gets the hit, miss and eviction statistics of the cache in front of this calendar's date
+   * and range queries.
+   *
+   * @return CacheStats.
+   */
+  public CacheStats getQueryCacheStats() {
+    return this.queryCache.getStats();
+  }
+
+  /**
+   * Gets how many queries this calendar answered, how many events they looked at, and how
+   * large its indexes are.
+   *
+   * @return QueryStats.
+   */
+  public QueryStats getQueryStats() {
+    return new QueryStats(this.queries.sum(), this.eventsScanned.sum(), this.eventsById.size(),
+            this.eventSeries.size(), this.dayIndex.size(), this.subjectIndex.size(),
+            this.freeBusy.size(), this.getQueryCacheStats());
+  }
+
+  /**
+   * Counts a query towards the statistics of this calendar and the events touched by the
+   * running command, and commits its flight recorder event, which is only filled in when
+   * recording is on.
+   */
+  private void queried(QueryEvent query, String kind, int results, int scanned, boolean cached) {
+    this.queries.increment();
+    this.eventsScanned.add(scanned);
+    CommandTrace.touch(scanned);
+    query.end();
+    if (query.shouldCommit()) {
+      query.query = kind;
+      query.calendar = this.name;
+      query.commandType = CommandTrace.getType();
+      query.results = results;
+      query.eventsScanned = scanned;
+      query.cached = cached;
+      query.commit();
+    }
+  }
+
+  /**
+   * Counts a change towards the events touched by the running command, and commits its flight
+   * recorder event, which is only filled in when recording is on.
+   */
+  private void mutated(MutationEvent mutation, String operation, String property, int events) {
+    CommandTrace.touch(events);
+    mutation.end();
+    if (mutation.shouldCommit()) {
+      mutation.operation = operation;
+      mutation.property = property;
+      mutation.calendar = this.name;
+      mutation.commandType = CommandTrace.getType();
+      mutation.events = events;
+      mutation.commit();
+    }
+  }
+
+  private void checkSeriesOverlaps(EventSeries eventSeries) throws CommandExecutionException {
+    for (Event e : eventSeries.getEvents()) {
+      if (this.freeBusy.overlaps(e.getStartDateTime(), e.getEndDateTime())) {
+        throw new CommandExecutionException("At least one event in this series overlaps "
+                + "an existing event");
+      }
+    }
+    if (!Overlap.findAll(eventSeries.getEvents()).isEmpty()) {
+      throw new CommandExecutionException("Events of this series overlap each other");
+    }
+  }
+
+  /**
+   * Sets whether events that overlap an existing event should be rejected when they are
+   * added to this calendar.
+   *
+   * @param reject true to reject overlapping events, false to allow them.
+   */
+  public void setRejectOverlaps(boolean reject) {
+    this.recordCalendar();
+    this.rejectOverlaps = reject;
+  }
+
+  /**
+   * Determines whether this calendar rejects events that overlap an existing event.
+   *
+   * @return boolean describing result.
+   */
+  public boolean isRejectingOverlaps() {
+    return this.rejectOverlaps;
+  }
+
+  /**
+   * Finds every pair of overlapping events in progress between two date-times.
+   *
+   * @param start the start of the window
+   * @param end   the end of the window
+   * @return list of overlapping pairs
+   */
+  public List<Overlap> getOverlaps(LocalDateTime start, LocalDateTime end) {
+    return Overlap.findAll(this.getEventsOverlapping(start, end));
+  }
+
+  /**
+   * Finds every pair of overlapping events in this calendar.
+   *
+   * @return list of overlapping pairs
+   */
+  public List<Overlap> getOverlaps() {
+    QueryEvent query = new QueryEvent();
+    query.begin();
+    List<Overlap> overlaps = Overlap.findAll(this.getEvents());
+    this.queried(query, "overlaps", overlaps.size(), this.eventsById.size(), false);
+    return overlaps;
+  }
+
+  /**
+   * Finds every event in progress at any moment between two date-times, both inclusive,
+   * sorted by start time.
+   *
+   * @param start the start of the window
+   * @param end   the end of the window
+   * @return list of events overlapping the window
+   */
+  public List<Event> getEventsOverlapping(LocalDateTime start, LocalDateTime end) {
+    QueryEvent query = new QueryEvent();
+    query.begin();
+    List<Event> overlapping = new ArrayList<>();
+    List<Event> candidates;
+    LocalDate first = start.toLocalDate();
+    LocalDate last = end.toLocalDate();
+    if (!last.isBefore(first)
+            && last.toEpochDay() - first.toEpochDay() < this.eventsById.size()) {
+      candidates = this.dayIndex.inRange(first, last);
+    } else {
+      candidates = this.getEvents();
+    }
+    for (Event event : candidates) {
+      if (event.inProgressBetween(start, end)) {
+        overlapping.add(event);
+      }
+    }
+    overlapping.sort(Event.BY_START);
+    this.queried(query, "events overlapping", overlapping.size(), candidates.size(), false);
+    return overlapping;
+  }
+
   /**
    * Checks if the calendar has any events at a specific date and time.
    *
@@ -215,31 +542,521 @@ public class CalendarModelImpl implements CalendarModel {
    * @return true if there are events at that time, false otherwise
    */
   public boolean isBusyAt(LocalDateTime dateTime) {
-    for (Event event : this.getEvents()) {
-      if (event.occursDuring(dateTime)) {
-        return true;
-      }
-    }
-    return false;
+    return this.freeBusy.isBusyAt(dateTime);
   }
 
   /**
-   * Removes an event from the calendar if it exists.
+   * Removes an event from the calendar if it exists. The event is resolved by its id when it
+   * is an event of this calendar, even if it has been edited since, and by equality otherwise.
    *
    * @param eventToRemove the event to remove
    * @return true if event was removed, false if not found
    */
   public boolean removeEvent(Event eventToRemove) {
-    if (this.events.remove(eventToRemove)) {
-      return true;
+    Event current = this.eventsById.get(eventToRemove.getId());
+    if (current != null) {
+      return this.removeIndexedEvent(current);
+    }
+    for (Event event : this.events) {
+      if (event.equals(eventToRemove)) {
+        return this.removeIndexedEvent(event);
+      }
     }
     for (EventSeries series : this.eventSeries) {
-      if (series.getEvents().remove(eventToRemove)) {
-        return true;
+      for (Event event : series.getEvents()) {
+        if (event.equals(eventToRemove)) {
+          return this.removeIndexedEvent(event);
+        }
+      }
+    }
+
+    return false;
+  }
+
+  /**
+   * Removes the event with the given id from the calendar if it exists.
+   *
+   * @param id the id of the event to remove
+   * @return true if event was removed, false if not found
+   */
+  public boolean removeEventById(long id) {
+    Event event = this.eventsById.get(id);
+    if (event == null) {
+      return false;
+    }
+    return this.removeIndexedEvent(event);
+  }
+
+  /**
+   * Gets the event of this calendar with the given id.
+   *
+   * @param id the id of the event.
+   * @return the Event, or null if this calendar has no event with that id.
+   */
+  public Event getEventById(long id) {
+    return this.eventsById.get(id);
+  }
+
+  private boolean removeIndexedEvent(Event event) {
+    MutationEvent mutation = new MutationEvent();
+    mutation.begin();
+    this.record(event.getId());
+    EventSeries series = this.seriesById.get(event.getId());
+    List<Event> container = series == null ? this.events : series.getEvents();
+    for (int i = 0; i < container.size(); i += 1) {
+      if (container.get(i) == event) {
+        container.remove(i);
+        break;
+      }
+    }
+    this.unindex(event);
+    this.fireChange(CalendarChange.removed(this.name, event));
+    this.mutated(mutation, "remove event", null, 1);
+    return true;
+  }
+
+  /**
+   * Modifies a property of many events of this calendar at once, updating the indexes in a
+   * single pass rather than once per event. Each event is replaced in the given list by its
+   * edited copy; the list is expected to be, or to be a view of, the list holding the events.
+   * Nothing is changed if the property or value is invalid.
+   *
+   * @param toModify the events to modify.
+   * @param property the property to modify.
+   * @param value    the new value of the property.
+   * @throws CommandExecutionException if the property or value is invalid.
+   */
+  void modifyEvents(List<Event> toModify, String property, String value)
+          throws CommandExecutionException {
+    MutationEvent mutation = new MutationEvent();
+    mutation.begin();
+    Event[] updated = new Event[toModify.size()];
+    for (int i = 0; i < toModify.size(); i += 1) {
+      updated[i] = toModify.get(i).with(property, value);
+    }
+    for (Event event : toModify) {
+      this.record(event.getId());
+    }
+    List<Event> indexedOld = new ArrayList<>();
+    List<Event> indexedNew = new ArrayList<>();
+    List<String> oldSubjects = new ArrayList<>();
+    for (int i = 0; i < toModify.size(); i += 1) {
+      Event event = toModify.get(i);
+      if (this.eventsById.get(event.getId()) == event) {
+        indexedOld.add(event);
+        indexedNew.add(updated[i]);
+        oldSubjects.add(event.getSubject());
+      }
+    }
+    this.subjectIndex.removeAll(indexedOld, oldSubjects);
+    this.beginBatch();
+    try {
+      for (int i = 0; i < toModify.size(); i += 1) {
+        Event event = toModify.get(i);
+        toModify.set(i, updated[i]);
+        if (this.eventsById.get(event.getId()) == event) {
+          this.eventsById.put(event.getId(), updated[i]);
+          this.unindexTimes(event, event.getStartDateTime(), event.getEndDateTime());
+          this.indexTimes(updated[i]);
+        }
+        this.fireChange(CalendarChange.modified(this.name, updated[i],
+                event.getStartDateTime(), event.getEndDateTime()));
+      }
+    } finally {
+      this.subjectIndex.addAll(indexedNew);
+      this.endBatch();
+    }
+    this.mutated(mutation, "modify events", property, toModify.size());
+  }
+
+  /**
+   * Records that the given events were taken out of one of this calendar's series.
+   *
+   * @param detached the detached events.
+   */
+  void eventsDetached(List<Event> detached) {
+    List<String> subjects = new ArrayList<>();
+    this.beginBatch();
+    try {
+      for (Event event : detached) {
+        this.record(event.getId());
+        subjects.add(event.getSubject());
+        this.unindexTimes(event, event.getStartDateTime(), event.getEndDateTime());
+        this.eventsById.remove(event.getId());
+        this.seriesById.remove(event.getId());
+        this.fireChange(CalendarChange.removed(this.name, event));
       }
+    } finally {
+      this.subjectIndex.removeAll(detached, subjects);
+      this.endBatch();
     }
+  }
+
+  /**
+   * Records that the given events were put back into one of this calendar's series.
+   *
+   * @param series   the series.
+   * @param attached the attached events.
+   */
+  void eventsAttached(EventSeries series, List<Event> attached) {
+    this.subjectIndex.addAll(attached);
+    this.beginBatch();
+    try {
+      for (Event event : attached) {
+        this.record(event.getId());
+        this.eventsById.put(event.getId(), event);
+        this.indexTimes(event);
+        this.seriesById.put(event.getId(), series);
+        this.fireChange(CalendarChange.added(this.name, event));
+      }
+    } finally {
+      this.endBatch();
+    }
+  }
+
+  /**
+   * Finds the events of this calendar with exactly the given subject and start time.
+   *
+   * @param subject the subject.
+   * @param start   the start time.
+   * @return List of Events.
+   */
+  public List<Event> findEvents(String subject, LocalDateTime start) {
+    QueryEvent query = new QueryEvent();
+    query.begin();
+    List<Event> found = this.subjectIndex.find(subject, start);
+    this.queried(query, "events by subject and start", found.size(), found.size(), false);
+    return found;
+  }
 
+  /**
+   * Finds every event of this calendar with the given subject, sorted by start time.
+   *
+   * @param subject    the subject.
+   * @param ignoreCase whether the subject should be matched ignoring case.
+   * @return List of Events.
+   */
+  public List<Event> findEventsBySubject(String subject, boolean ignoreCase) {
+    QueryEvent query = new QueryEvent();
+    query.begin();
+    List<Event> found = this.subjectIndex.findAll(subject, ignoreCase);
+    this.queried(query, "events by subject", found.size(), found.size(), false);
+    return found;
+  }
+
+  /**
+   * Gets the series of this calendar that the given event belongs to.
+   *
+   * @param event the event.
+   * @return the EventSeries, or null if the event is not part of one of this calendar's series.
+   */
+  public EventSeries getSeriesOf(Event event) {
+    return this.seriesById.get(event.getId());
+  }
+
+  private boolean hasSingleEventEqualTo(Event event) {
+    for (Event candidate : this.subjectIndex.find(event.getSubject(),
+            event.getStartDateTime())) {
+      if (!this.seriesById.containsKey(candidate.getId()) && candidate.equals(event)) {
+        return true;
+      }
+    }
     return false;
   }
 
+  private void index(Event event, EventSeries series) {
+    this.eventsById.put(event.getId(), event);
+    if (series != null) {
+      this.seriesById.put(event.getId(), series);
+    }
+    this.subjectIndex.add(event);
+    this.indexTimes(event);
+  }
+
+  private void unindex(Event event) {
+    this.eventsById.remove(event.getId());
+    this.seriesById.remove(event.getId());
+    this.singleOrder.remove(event.getId());
+    this.subjectIndex.remove(event, event.getSubject(), event.getStartDateTime());
+    this.unindexTimes(event, event.getStartDateTime(), event.getEndDateTime());
+  }
+
+  private void indexTimes(Event event) {
+    this.freeBusy.add(event);
+    this.dayIndex.add(event);
+  }
+
+  private void unindexTimes(Event event, LocalDateTime start, LocalDateTime end) {
+    this.freeBusy.remove(event, start, end);
+    this.dayIndex.remove(event, start, end);
+  }
+
+  private void rebuildIndexes() {
+    this.subjectIndex.clear();
+    this.freeBusy.clear();
+    this.dayIndex.clear();
+    for (Event event : this.eventsById.values()) {
+      this.subjectIndex.add(event);
+      this.indexTimes(event);
+    }
+  }
+
+  /**
+   * Modifies a property of an event in this calendar and notifies listeners of the change. The
+   * event is resolved by its id and replaced by an edited copy, so earlier references to it
+   * keep seeing the old values.
+   *
+   * @param event    the event to modify.
+   * @param property the property to modify.
+   * @param value    the new value of the property.
+   * @throws CommandExecutionException if the event is not in this calendar, or the property or
+   *                                   value is invalid.
+   */
+  public void modifyEvent(Event event, String property, String value)
+          throws CommandExecutionException {
+    MutationEvent mutation = new MutationEvent();
+    mutation.begin();
+    Event current = this.eventsById.get(event.getId());
+    if (current == null) {
+      throw new CommandExecutionException("Event is not in this calendar");
+    }
+    Event updated = current.with(property, value);
+    this.record(current.getId());
+    this.replace(current, updated);
+    this.subjectIndex.remove(current, current.getSubject(), current.getStartDateTime());
+    this.subjectIndex.add(updated);
+    this.unindexTimes(current, current.getStartDateTime(), current.getEndDateTime());
+    this.indexTimes(updated);
+    this.fireChange(CalendarChange.modified(this.name, updated, current.getStartDateTime(),
+            current.getEndDateTime()));
+    this.mutated(mutation, "modify event", property, 1);
+  }
+
+  /**
+   * Swaps an edited copy of an event in for the event, in the list holding it and in the id
+   * index.
+   */
+  private void replace(Event current, Event updated) {
+    EventSeries series = this.seriesById.get(current.getId());
+    List<Event> container = series == null ? this.events : series.getEvents();
+    for (int i = 0; i < container.size(); i += 1) {
+      if (container.get(i) == current) {
+        container.set(i, updated);
+        break;
+      }
+    }
+    this.eventsById.put(updated.getId(), updated);
+  }
+
+  /**
+   * Registers a listener to be told about changes made to this calendar.
+   *
+   * @param listener the listener.
+   */
+  public void addChangeListener(CalendarChangeListener listener) {
+    this.listeners.add(listener);
+  }
+
+  /**
+   * Unregisters a listener previously given to addChangeListener.
+   *
+   * @param listener the listener.
+   */
+  public void removeChangeListener(CalendarChangeListener listener) {
+    this.listeners.remove(listener);
+  }
+
+  /**
+   * Starts a batch of changes whose notifications are held back until endBatch.
+   */
+  public void beginBatch() {
+    this.batchDepth += 1;
+  }
+
+  /**
+   * Ends a batch of changes, notifying listeners of the coalesced changes once the
+   * outermost batch ends.
+   */
+  public void endBatch() {
+    if (this.batchDepth > 0) {
+      this.batchDepth -= 1;
+    }
+    if (this.batchDepth == 0) {
+      this.flushChanges();
+    }
+  }
+
+  /**
+   * Ends a batch of changes whose changes have all been undone, so that listeners are never
+   * told of them.
+   */
+  void discardBatch() {
+    this.pendingChanges.drain();
+    this.endBatch();
+  }
+
+  private void record(long id) {
+    UndoHistory.recordEvent(this, id, this.eventsById.get(id), this.seriesById.get(id));
+  }
+
+  private void recordCalendar() {
+    UndoHistory.recordCalendar(this);
+  }
+
+  /**
+   * Puts the events, series and properties recorded in an undo step back into this calendar,
+   * recording what they replace so that the step can be redone. Only the recorded events are
+   * unindexed and indexed again.
+   *
+   * @param state   what the step recorded for this calendar.
+   * @param inverse where to record what is replaced.
+   */
+  void revert(UndoHistory.CalendarState state, UndoHistory.CalendarState inverse) {
+    Set<Long> singles = new HashSet<>();
+    Map<EventSeries, Set<Long>> inSeries = new IdentityHashMap<>();
+    for (Map.Entry<Long, Event> entry : state.events.entrySet()) {
+      Event current = this.eventsById.get(entry.getKey());
+      EventSeries series = this.seriesById.get(entry.getKey());
+      inverse.recordEvent(entry.getKey(), current, series);
+      if (current != null) {
+        if (series == null) {
+          singles.add(current.getId());
+        } else {
+          inSeries.computeIfAbsent(series, s -> new HashSet<>()).add(current.getId());
+        }
+        this.unindex(current);
+      }
+    }
+    if (!singles.isEmpty()) {
+      this.events.removeIf(event -> singles.contains(event.getId()));
+    }
+    for (Map.Entry<EventSeries, Set<Long>> entry : inSeries.entrySet()) {
+      entry.getKey().getEvents().removeIf(event -> entry.getValue().contains(event.getId()));
+    }
+
+    for (Map.Entry<EventSeries, Boolean> entry : state.listed.entrySet()) {
+      EventSeries series = entry.getKey();
+      boolean listed = this.eventSeries.stream().anyMatch(listedSeries -> listedSeries == series);
+      inverse.recordSeries(series, listed);
+      if (listed && !entry.getValue()) {
+        this.eventSeries.removeIf(listedSeries -> listedSeries == series);
+        this.seriesOrder.remove(series);
+        series.setOwner(null);
+      } else if (!listed && entry.getValue()) {
+        this.eventSeries.add(series);
+        this.seriesOrder.put(series, this.nextOrder++);
+        series.setOwner(this);
+      }
+    }
+
+    Set<EventSeries> unsorted = Collections.newSetFromMap(new IdentityHashMap<>());
+    for (Map.Entry<Long, Event> entry : state.events.entrySet()) {
+      Event event = entry.getValue();
+      if (event == null) {
+        continue;
+      }
+      EventSeries series = state.series.get(entry.getKey());
+      if (series == null) {
+        this.events.add(event);
+        this.listed(event);
+      } else {
+        series.getEvents().add(event);
+        unsorted.add(series);
+      }
+      this.index(event, series);
+    }
+    for (EventSeries series : unsorted) {
+      series.getEvents().sort(Event.BY_START);
+    }
+
+    this.rejectOverlaps = state.rejectOverlaps;
+    this.beginBatch();
+    try {
+      if (!this.name.equals(state.name)) {
+        String oldName = this.name;
+        this.name = state.name;
+        this.fireChange(CalendarChange.renamed(this.name, oldName));
+      }
+      if (!this.zoneId.equals(state.zoneId)) {
+        ZoneId oldZoneId = this.zoneId;
+        this.zoneId = state.zoneId;
+        this.fireChange(CalendarChange.rezoned(this.name, oldZoneId.getId(),
+                this.zoneId.getId()));
+      }
+      for (Map.Entry<Long, Event> entry : state.events.entrySet()) {
+        Event restored = entry.getValue();
+        Event replaced = inverse.events.get(entry.getKey());
+        if (replaced == null && restored != null) {
+          this.fireChange(CalendarChange.added(this.name, restored));
+        } else if (replaced != null && restored == null) {
+          this.fireChange(CalendarChange.removed(this.name, replaced));
+        } else if (replaced != null) {
+          this.fireChange(CalendarChange.modified(this.name, restored,
+                  replaced.getStartDateTime(), replaced.getEndDateTime()));
+        }
+      }
+    } finally {
+      this.endBatch();
+    }
+  }
+
+  /**
+   * Records a change and notifies listeners immediately unless a batch is open.
+   *
+   * @param change the change.
+   */
+  void fireChange(CalendarChange change) {
+    this.invalidateQueries(change);
+    this.pendingChanges.add(change);
+    if (this.batchDepth == 0) {
+      this.flushChanges();
+    }
+  }
+
+  /**
+   * Drops the cached queries that could see the given change. An event is seen by a date
+   * query from the date it starts through the date it ends, or the day after if it ends in
+   * the last minute of a day.
+   */
+  private void invalidateQueries(CalendarChange change) {
+    if (change.getType() == CalendarChange.Type.RENAMED) {
+      return;
+    }
+    if (change.getEvent() == null) {
+      this.queryCache.clear();
+      return;
+    }
+    if (change.getOldStart() != null) {
+      this.invalidateQueries(change.getOldStart(), change.getOldEnd());
+    }
+    if (change.getNewStart() != null) {
+      this.invalidateQueries(change.getNewStart(), change.getNewEnd());
+    }
+  }
+
+  private void invalidateQueries(LocalDateTime start, LocalDateTime end) {
+    LocalDate first = start.toLocalDate();
+    LocalDate last = end.toLocalDate();
+    if (end.toLocalTime().isAfter(LAST_MINUTE)) {
+      last = last.plusDays(1);
+    }
+    if (last.isBefore(first)) {
+      this.queryCache.invalidate(last, first);
+    } else {
+      this.queryCache.invalidate(first, last);
+    }
+  }
+
+  private void flushChanges() {
+    if (this.pendingChanges.isEmpty()) {
+      return;
+    }
+    List<CalendarChange> changes = this.pendingChanges.drain();
+    if (changes.isEmpty()) {
+      return;
+    }
+    for (CalendarChangeListener listener : this.listeners) {
+      listener.calendarChanged(changes);
+    }
+  }
 }
\ No newline at end of file
@@ -0,0 +1,33 @@
+package calendar.model;
+
+/**
+ * Represents one user's session on calendars shared with other users. A session works like the
+ * CalendarManager it was created from, except that the calendar it is using is its own, so
+ * several sessions can each be using a different calendar of the same manager at once. Every
+ * command built with a session reads that calendar from the session directly. A session also
+ * has its own batch and, unless it was made to share it, its own undo history.
+ */
+public class CalendarSession extends CalendarManager {
+
+  private final CalendarManager shared;
+
+  /**
+   * Constructs a session on the calendars of the given manager.
+   *
+   * @param shared       the manager whose calendars are used.
+   * @param shareHistory whether to share the undo history of the manager too.
+   */
+  CalendarSession(CalendarManager shared, boolean shareHistory) {
+    super(shared, shareHistory);
+    this.shared = shared;
+  }
+
+  /**
+   * Gets the manager this session was created from.
+   *
+   * @return CalendarManager.
+   */
+  public CalendarManager getSharedManager() {
+    return this.shared;
+  }
+}
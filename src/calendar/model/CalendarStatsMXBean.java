@@ -0,0 +1,17 @@
+package calendar.model;
+
+import java.util.Map;
+
+/**
+ * Management interface through which the query statistics of a manager's calendars are
+ * published over JMX.
+ */
+public interface CalendarStatsMXBean {
+
+  /**
+   * Gets the query statistics of every calendar, by name.
+   *
+   * @return Map of calendar name to QueryStats.
+   */
+  Map<String, QueryStats> getQueryStats();
+}
@@ -0,0 +1,75 @@
+package calendar.model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects the changes made to a calendar during a batch and coalesces repeated changes to the
+ * same event into their net effect. Events are matched by id, since editing an event replaces it
+ * with a new Event that keeps the id.
+ */
+class ChangeBatch {
+
+  private final List<CalendarChange> changes;
+  private final Map<Long, Integer> positions;
+
+  /**
+   * Constructs an empty ChangeBatch.
+   */
+  ChangeBatch() {
+    this.changes = new ArrayList<>();
+    this.positions = new HashMap<>();
+  }
+
+  /**
+   * Records a change, merging it with an earlier change to the same event if there is one.
+   *
+   * @param change the change to record.
+   */
+  void add(CalendarChange change) {
+    Event event = change.getEvent();
+    if (event == null) {
+      this.changes.add(change);
+      return;
+    }
+    Integer position = this.positions.get(event.getId());
+    if (position == null) {
+      this.positions.put(event.getId(), this.changes.size());
+      this.changes.add(change);
+      return;
+    }
+    CalendarChange merged = CalendarChange.merge(this.changes.get(position), change);
+    this.changes.set(position, merged);
+    if (merged == null) {
+      this.positions.remove(event.getId());
+    }
+  }
+
+  /**
+   * Determines if this batch has no changes recorded.
+   *
+   * @return boolean describing result.
+   */
+  boolean isEmpty() {
+    return this.changes.isEmpty();
+  }
+
+  /**
+   * Returns the coalesced changes and empties this batch.
+   *
+   * @return List of CalendarChanges.
+   */
+  List<CalendarChange> drain() {
+    List<CalendarChange> result = new ArrayList<>();
+    for (CalendarChange change : this.changes) {
+      if (change != null) {
+        result.add(change);
+      }
+    }
+    this.changes.clear();
+    this.positions.clear();
+    return result;
+  }
+}
@@ -0,0 +1,90 @@
+package calendar.model;
+
+/**
+ * Remembers which command each thread is running, so that the flight recorder events of the
+ * model and views it calls into can be tagged with the type of that command and the calendar
+ * it was parsed against, and so that the events it touched can be counted. A thread's command
+ * is replaced when it starts parsing the next one.
+ */
+public final class CommandTrace {
+
+  private static final ThreadLocal<CommandTrace> CURRENT = new ThreadLocal<>();
+  private static final CommandTrace NONE = new CommandTrace("", null);
+
+  private final String type;
+  private final CalendarModel calendar;
+  private final String calendarName;
+  private long touched;
+
+  private CommandTrace(String type, CalendarModel calendar) {
+    this.type = type;
+    this.calendar = calendar;
+    this.calendarName = calendar == null ? "" : calendar.getName();
+    this.touched = 0;
+  }
+
+  /**
+   * Records that this thread has started on a command.
+   *
+   * @param type     the type of the command, such as "create event".
+   * @param calendar the calendar in use, or null if there is none.
+   */
+  public static void start(String type, CalendarModel calendar) {
+    CURRENT.set(new CommandTrace(type, calendar));
+  }
+
+  /**
+   * Gets the type of the command this thread is running.
+   *
+   * @return String, empty if this thread has not started a command.
+   */
+  public static String getType() {
+    return current().type;
+  }
+
+  /**
+   * Gets the name of the calendar in use when this thread's command was parsed.
+   *
+   * @return String, empty if there was none or this thread has not started a command.
+   */
+  public static String getCalendar() {
+    return current().calendarName;
+  }
+
+  /**
+   * Gets the number of events now in the calendar that was in use when this thread's command
+   * was parsed.
+   *
+   * @return int, 0 if there was none or this thread has not started a command.
+   */
+  public static int getCalendarSize() {
+    CalendarModel calendar = current().calendar;
+    return calendar == null ? 0 : calendar.getEvents().size();
+  }
+
+  /**
+   * Counts events that this thread's command looked at or changed.
+   *
+   * @param events the number of events.
+   */
+  static void touch(int events) {
+    CommandTrace trace = CURRENT.get();
+    if (trace != null) {
+      trace.touched += events;
+    }
+  }
+
+  /**
+   * Gets the number of events this thread's command has looked at or changed so far.
+   *
+   * @return long.
+   */
+  public static long getTouched() {
+    return current().touched;
+  }
+
+  private static CommandTrace current() {
+    CommandTrace trace = CURRENT.get();
+    return trace == null ? NONE : trace;
+  }
+}
@@ -0,0 +1,160 @@
+package calendar.model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Indexes the events of a calendar by the days they can be seen on, so that finding the events
+ * on a date is a single lookup. An event is seen on every date from the one it starts on
+ * through the one it ends on, and also on the next date if it ends in the last minute of a
+ * day, matching Event.overlapsDate. Events seen on more than a year of dates are kept aside
+ * and checked directly.
+ */
+class DayIndex {
+
+  private static final long MAX_INDEXED_DAYS = 366;
+  private static final LocalTime LAST_MINUTE = LocalTime.of(23, 59);
+
+  private final LongMap<List<Event>> days;
+  private final Set<Event> spanning;
+
+  /**
+   * Constructs an empty DayIndex.
+   */
+  DayIndex() {
+    this.days = new LongMap<>();
+    this.spanning = Collections.newSetFromMap(new IdentityHashMap<>());
+  }
+
+  /**
+   * Adds an event to this index under its current times.
+   *
+   * @param event the event.
+   */
+  void add(Event event) {
+    long first = firstDay(event.getStartDateTime());
+    long last = lastDay(event.getEndDateTime());
+    if (last - first >= MAX_INDEXED_DAYS) {
+      this.spanning.add(event);
+      return;
+    }
+    for (long day = first; day <= last; day += 1) {
+      List<Event> bucket = this.days.get(day);
+      if (bucket == null) {
+        bucket = new ArrayList<>(4);
+        this.days.put(day, bucket);
+      }
+      bucket.add(event);
+    }
+  }
+
+  /**
+   * Removes an event from this index.
+   *
+   * @param event the event.
+   * @param start the start the event was indexed under.
+   * @param end   the end the event was indexed under.
+   */
+  void remove(Event event, LocalDateTime start, LocalDateTime end) {
+    long first = firstDay(start);
+    long last = lastDay(end);
+    if (last - first >= MAX_INDEXED_DAYS) {
+      this.spanning.remove(event);
+      return;
+    }
+    for (long day = first; day <= last; day += 1) {
+      List<Event> bucket = this.days.get(day);
+      if (bucket == null) {
+        continue;
+      }
+      for (int i = 0; i < bucket.size(); i += 1) {
+        if (bucket.get(i) == event) {
+          bucket.remove(i);
+          break;
+        }
+      }
+      if (bucket.isEmpty()) {
+        this.days.remove(day);
+      }
+    }
+  }
+
+  /**
+   * Removes every event from this index.
+   */
+  void clear() {
+    this.days.clear();
+    this.spanning.clear();
+  }
+
+  /**
+   * Gets the number of dates that have events indexed under them.
+   *
+   * @return int.
+   */
+  int size() {
+    return this.days.size();
+  }
+
+  /**
+   * Finds the events seen on a date.
+   *
+   * @param date the date.
+   * @return List of Events.
+   */
+  List<Event> onDate(LocalDate date) {
+    List<Event> bucket = this.days.get(date.toEpochDay());
+    List<Event> result = bucket == null ? new ArrayList<>() : new ArrayList<>(bucket);
+    TimeWindow window = TimeWindow.ofDate(date);
+    for (Event event : this.spanning) {
+      if (window.contains(event)) {
+        result.add(event);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Finds the events seen on any date of a range, each event once.
+   *
+   * @param from the first date of the range.
+   * @param to   the last date of the range.
+   * @return List of Events.
+   */
+  List<Event> inRange(LocalDate from, LocalDate to) {
+    Set<Event> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+    List<Event> result = new ArrayList<>();
+    for (long day = from.toEpochDay(); day <= to.toEpochDay(); day += 1) {
+      List<Event> bucket = this.days.get(day);
+      if (bucket != null) {
+        for (Event event : bucket) {
+          if (seen.add(event)) {
+            result.add(event);
+          }
+        }
+      }
+    }
+    TimeWindow window = TimeWindow.ofDates(from, to);
+    for (Event event : this.spanning) {
+      if (window.contains(event)) {
+        result.add(event);
+      }
+    }
+    return result;
+  }
+
+  private static long firstDay(LocalDateTime start) {
+    return start.toLocalDate().toEpochDay();
+  }
+
+  private static long lastDay(LocalDateTime end) {
+    long day = end.toLocalDate().toEpochDay();
+    return end.toLocalTime().isAfter(LAST_MINUTE) ? day + 1 : day;
+  }
+}
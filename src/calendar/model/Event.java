@@ -4,21 +4,48 @@ import java.io.IOException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.ZoneOffset;
 import java.time.format.DateTimeParseException;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicLong;
 
 import calendar.controller.commands.CommandExecutionException;
 
 /**
  * Represents a calendar event.
+ *
+ * <p>The start and end are kept as seconds since the epoch of the calendar's local time line,
+ * with the fraction of a second kept alongside, so that sorting, indexing and overlap checks
+ * compare longs. The LocalDateTime accessors derive their result from these.</p>
+ *
+ * <p>Events are immutable. Edits are made with the with methods, which return a new Event with
+ * the same id, and a calendar swaps the new Event in for the old one. Indexes, caches and
+ * readers on other threads can therefore share Events without copying them.</p>
  */
 public class Event implements IEvent, Comparable<Event> {
 
-  private String subject;
-  private LocalDateTime startDateTime;
-  private String description;
-  private LocalDateTime endDateTime;
-  private String location;
-  private String status;
+  private static final AtomicLong NEXT_ID = new AtomicLong(1);
+
+  /**
+   * Orders events by start time.
+   */
+  static final Comparator<Event> BY_START = Event::compareTo;
+
+  /**
+   * Orders events by end time.
+   */
+  static final Comparator<Event> BY_END = (a, b) ->
+          compare(a.endSecond, a.endNano, b.endSecond, b.endNano);
+
+  private final long id;
+  private final String subject;
+  private final long startSecond;
+  private final int startNano;
+  private final String description;
+  private final long endSecond;
+  private final int endNano;
+  private final String location;
+  private final String status;
 
   /**
    * Constructs an {@code calendar.model.Event} object with specified times within a date.
@@ -28,12 +55,8 @@ public class Event implements IEvent, Comparable<Event> {
    * @param endDateTime   when the event ends
    */
   public Event(String subject, LocalDateTime startDateTime, LocalDateTime endDateTime) {
-
-    if (this.validDates(startDateTime, endDateTime)) {
-      this.subject = subject;
-      this.startDateTime = startDateTime;
-      this.endDateTime = endDateTime;
-    }
+    this(NEXT_ID.getAndIncrement(), subject, validDates(startDateTime, endDateTime),
+            endDateTime, null, null, null);
   }
 
   /**
@@ -43,9 +66,24 @@ public class Event implements IEvent, Comparable<Event> {
    * @param date    the date of the all day event
    */
   public Event(String subject, LocalDate date) {
+    this(NEXT_ID.getAndIncrement(), subject, LocalDateTime.of(date, LocalTime.of(8, 0)),
+            LocalDateTime.of(date, LocalTime.of(17, 0)), null, null, null);
+  }
+
+  /**
+   * Constructs an Event from every one of its fields. The times are not checked.
+   */
+  private Event(long id, String subject, LocalDateTime start, LocalDateTime end,
+                String description, String location, String status) {
+    this.id = id;
     this.subject = subject;
-    this.startDateTime = LocalDateTime.of(date, LocalTime.parse("08:00"));
-    this.endDateTime = LocalDateTime.of(date, LocalTime.parse("17:00"));
+    this.startSecond = start.toEpochSecond(ZoneOffset.UTC);
+    this.startNano = start.getNano();
+    this.description = description;
+    this.endSecond = end.toEpochSecond(ZoneOffset.UTC);
+    this.endNano = end.getNano();
+    this.location = location;
+    this.status = status;
   }
 
   /**
@@ -55,11 +93,13 @@ public class Event implements IEvent, Comparable<Event> {
    * @return Event.
    */
   public Event onThisDate(LocalDateTime date) {
+    LocalDateTime start = this.getStartDateTime();
+    LocalDateTime end = this.getEndDateTime();
     return new Event(this.subject, LocalDateTime.of(date.getYear(),
-            date.getMonth(), date.getDayOfMonth(), this.startDateTime.getHour(),
-            this.startDateTime.getMinute()), LocalDateTime.of(date.getYear(),
-            date.getMonth(), date.getDayOfMonth(), this.endDateTime.getHour(),
-            this.endDateTime.getMinute()));
+            date.getMonth(), date.getDayOfMonth(), start.getHour(),
+            start.getMinute()), LocalDateTime.of(date.getYear(),
+            date.getMonth(), date.getDayOfMonth(), end.getHour(),
+            end.getMinute()));
   }
 
   /**
@@ -70,54 +110,112 @@ public class Event implements IEvent, Comparable<Event> {
    *         is 'after' other.
    */
   public int compareTo(Event other) {
-    return this.startDateTime.compareTo(other.startDateTime);
+    return compare(this.startSecond, this.startNano, other.startSecond, other.startNano);
   }
 
   /**
-   * Modifies the property of this Event to contain the given value.
+   * Returns a copy of this Event, with the same id, whose property contains the given value.
+   * This Event is left unchanged.
    *
-   * @param property property to be modified.
+   * @param property property to be changed.
    * @param value    value to change property to.
+   * @return Event.
    * @throws CommandExecutionException if the command that called this method contained
-   *                                   faulty arguments.
+   *                                   faulty arguments, or the copy would start after it
+   *                                   ends.
    */
-  public void modifyProperty(String property, String value) throws CommandExecutionException {
+  public Event with(String property, String value) throws CommandExecutionException {
     try {
       switch (property) {
         case "subject":
-          this.subject = value;
-          break;
+          return this.withSubject(value);
         case "start":
-          this.startDateTime = LocalDateTime.parse(value);
-          break;
+          return this.withStart(LocalDateTime.parse(value));
         case "end":
-          this.endDateTime = LocalDateTime.parse(value);
-          break;
+          return this.withEnd(LocalDateTime.parse(value));
         case "description":
-          this.description = value;
-          break;
+          return new Event(this.id, this.subject, this.getStartDateTime(),
+                  this.getEndDateTime(), value, this.location, this.status);
         case "location":
-          this.location = value;
-          break;
+          return new Event(this.id, this.subject, this.getStartDateTime(),
+                  this.getEndDateTime(), this.description, value, this.status);
         case "status":
-          this.status = value;
-          break;
+          return new Event(this.id, this.subject, this.getStartDateTime(),
+                  this.getEndDateTime(), this.description, this.location, value);
         default:
           throw new CommandExecutionException("Unknown property: " + property);
 
       }
     } catch (DateTimeParseException e) {
       throw new CommandExecutionException("Invalid date: " + value);
+    } catch (IllegalArgumentException e) {
+      throw new CommandExecutionException(e.getMessage());
     }
   }
 
+  /**
+   * Returns a copy of this Event, with the same id, with the given subject.
+   *
+   * @param newSubject the subject.
+   * @return Event.
+   */
+  public Event withSubject(String newSubject) {
+    return new Event(this.id, newSubject, this.getStartDateTime(), this.getEndDateTime(),
+            this.description, this.location, this.status);
+  }
+
+  /**
+   * Returns a copy of this Event, with the same id, that starts at the given time.
+   *
+   * @param start the start.
+   * @return Event.
+   * @throws IllegalArgumentException if the start is after the end of this Event.
+   */
+  public Event withStart(LocalDateTime start) {
+    return this.withTimes(start, this.getEndDateTime());
+  }
+
+  /**
+   * Returns a copy of this Event, with the same id, that ends at the given time.
+   *
+   * @param end the end.
+   * @return Event.
+   * @throws IllegalArgumentException if the end is before the start of this Event.
+   */
+  public Event withEnd(LocalDateTime end) {
+    return this.withTimes(this.getStartDateTime(), end);
+  }
+
+  /**
+   * Returns a copy of this Event, with the same id, that starts and ends at the given times.
+   *
+   * @param start the start.
+   * @param end   the end.
+   * @return Event.
+   * @throws IllegalArgumentException if the start is after the end.
+   */
+  public Event withTimes(LocalDateTime start, LocalDateTime end) {
+    return new Event(this.id, this.subject, validDates(start, end), end, this.description,
+            this.location, this.status);
+  }
+
+  /**
+   * Returns the id of this Event. Ids are generated when an Event is constructed, are unique
+   * within the running application and are kept by the copies the with methods return.
+   *
+   * @return long.
+   */
+  public long getId() {
+    return this.id;
+  }
+
   /**
    * Returns the dateTime this Event starts on.
    *
    * @return LocalDateTime.
    */
   public LocalDateTime getStartDateTime() {
-    return this.startDateTime;
+    return LocalDateTime.ofEpochSecond(this.startSecond, this.startNano, ZoneOffset.UTC);
   }
 
   /**
@@ -126,7 +224,7 @@ public class Event implements IEvent, Comparable<Event> {
    * @return LocalDateTime.
    */
   public LocalDateTime getEndDateTime() {
-    return this.endDateTime;
+    return LocalDateTime.ofEpochSecond(this.endSecond, this.endNano, ZoneOffset.UTC);
   }
 
   /**
@@ -138,6 +236,15 @@ public class Event implements IEvent, Comparable<Event> {
     return this.subject;
   }
 
+  /**
+   * Returns the location of this Event, or null if it has none.
+   *
+   * @return String.
+   */
+  public String getLocation() {
+    return this.location;
+  }
+
   /**
    * Checks if the event conflicts with another event by having the same information.
    *
@@ -147,16 +254,17 @@ public class Event implements IEvent, Comparable<Event> {
   public boolean conflictsWith(Event other) {
     return this.subject.equals(other.subject)
             &&
-            this.startDateTime.isEqual(other.startDateTime)
+            this.startSecond == other.startSecond && this.startNano == other.startNano
             &&
-            this.endDateTime.isEqual(other.endDateTime);
+            this.endSecond == other.endSecond && this.endNano == other.endNano;
   }
 
-  private boolean validDates(LocalDateTime startDateTime, LocalDateTime endDateTime) {
+  private static LocalDateTime validDates(LocalDateTime startDateTime,
+                                          LocalDateTime endDateTime) {
     if (startDateTime.isAfter(endDateTime)) {
       throw new IllegalArgumentException("Start date cannot be after end date");
     } else {
-      return true;
+      return startDateTime;
     }
   }
 
@@ -183,13 +291,8 @@ public class Event implements IEvent, Comparable<Event> {
    */
   @Override
   public int hashCode() {
-    int endTimeHash;
-    if (this.endDateTime != null) {
-      endTimeHash = this.endDateTime.hashCode();
-    } else {
-      endTimeHash = 0;
-    }
-    return this.subject.hashCode() * 1000 + this.startDateTime.hashCode() * 100 + endTimeHash;
+    return this.subject.hashCode() * 1000 + Long.hashCode(this.startSecond) * 100
+            + Long.hashCode(this.endSecond);
   }
 
   /**
@@ -200,13 +303,10 @@ public class Event implements IEvent, Comparable<Event> {
    */
   public void toString(Appendable out) throws IOException {
     out.append("• ").append(this.subject);
-    if (this.endDateTime != null) {
-      out.append(" from ").append(this.startDateTime.toLocalTime().toString())
-              .append(" to ").append(this.endDateTime.toLocalTime().toString())
-              .append(" on ").append(this.startDateTime.toLocalDate().toString());
-    } else {
-      out.append(" (All day)");
-    }
+    LocalDateTime start = this.getStartDateTime();
+    out.append(" from ").append(start.toLocalTime().toString())
+            .append(" to ").append(this.getEndDateTime().toLocalTime().toString())
+            .append(" on ").append(start.toLocalDate().toString());
 
     if (this.location != null && !this.location.trim().isEmpty()) {
       out.append(" at ").append(this.location);
@@ -219,7 +319,7 @@ public class Event implements IEvent, Comparable<Event> {
    * @return LocalDate.
    */
   public LocalDate getDate() {
-    return this.startDateTime.toLocalDate();
+    return LocalDate.ofEpochDay(Math.floorDiv(this.startSecond, 86400));
   }
 
   /**
@@ -229,8 +329,9 @@ public class Event implements IEvent, Comparable<Event> {
    * @return boolean describing result.
    */
   public boolean occursDuring(LocalDateTime dt) {
-    return (this.startDateTime.isBefore(dt) || this.startDateTime.isEqual(dt))
-            && (this.endDateTime.isEqual(dt) || this.endDateTime.isAfter(dt));
+    long second = dt.toEpochSecond(ZoneOffset.UTC);
+    return compare(this.startSecond, this.startNano, second, dt.getNano()) <= 0
+            && compare(this.endSecond, this.endNano, second, dt.getNano()) >= 0;
   }
 
   /**
@@ -240,10 +341,7 @@ public class Event implements IEvent, Comparable<Event> {
    * @return boolean describing result.
    */
   public boolean overlapsDate(LocalDate date) {
-    return this.startDateTime.isBefore(LocalDateTime.of(date,
-            LocalTime.parse("00:00")).plusDays(1))
-            && this.endDateTime.isAfter(LocalDateTime.of(date,
-            LocalTime.parse("23:59")).minusDays(1));
+    return TimeWindow.ofDate(date).contains(this);
   }
 
   /**
@@ -254,23 +352,86 @@ public class Event implements IEvent, Comparable<Event> {
    * @return boolean describing result.
    */
   public boolean fallsBetweenDates(LocalDate start, LocalDate end) {
-    return this.startDateTime.isBefore(LocalDateTime.of(end,
-            LocalTime.parse("00:00")).plusDays(1))
-            && this.endDateTime.isAfter(LocalDateTime.of(start,
-            LocalTime.parse("23:59")).minusDays(1));
+    return TimeWindow.ofDates(start, end).contains(this);
+  }
+
+  /**
+   * Gets the minute since the epoch this Event starts in, rounded down.
+   *
+   * @return long.
+   */
+  long startMinute() {
+    return Math.floorDiv(this.startSecond, 60);
+  }
+
+  /**
+   * Gets the minute since the epoch this Event ends in, rounded up.
+   *
+   * @return long.
+   */
+  long endMinute() {
+    long minute = Math.floorDiv(this.endSecond, 60);
+    return Math.floorMod(this.endSecond, 60) != 0 || this.endNano != 0 ? minute + 1 : minute;
+  }
+
+  /**
+   * Compares the start of this Event with a moment.
+   *
+   * @param second the moment, in seconds since the epoch.
+   * @param nano   the fraction of a second of the moment.
+   * @return negative if this Event starts before the moment, 0 if at it, positive if after.
+   */
+  int compareStart(long second, int nano) {
+    return compare(this.startSecond, this.startNano, second, nano);
+  }
+
+  /**
+   * Determines if this Event is in progress at any moment between two moments, both
+   * inclusive.
+   *
+   * @param from the first moment.
+   * @param to   the last moment.
+   * @return boolean describing result.
+   */
+  boolean inProgressBetween(LocalDateTime from, LocalDateTime to) {
+    return compare(this.startSecond, this.startNano, to.toEpochSecond(ZoneOffset.UTC),
+            to.getNano()) <= 0
+            && compare(this.endSecond, this.endNano, from.toEpochSecond(ZoneOffset.UTC),
+            from.getNano()) >= 0;
+  }
+
+  /**
+   * Determines if this Event ends after the other Event starts.
+   *
+   * @param other the other Event.
+   * @return boolean describing result.
+   */
+  boolean endsAfterStartOf(Event other) {
+    return compare(this.endSecond, this.endNano, other.startSecond, other.startNano) > 0;
+  }
+
+  /**
+   * Determines if this Event lasts for any time at all.
+   *
+   * @return boolean describing result.
+   */
+  boolean hasLength() {
+    return this.endsAfterStartOf(this);
+  }
+
+  private static int compare(long second, int nano, long otherSecond, int otherNano) {
+    return second != otherSecond ? Long.compare(second, otherSecond)
+            : Integer.compare(nano, otherNano);
   }
 
   /**
-   * Returns a copy of this Event.
+   * Returns a copy of this Event under a new id.
    *
    * @return Event.
-   * @throws CommandExecutionException if modifyProperty fails.
+   * @throws CommandExecutionException if the copy fails.
    */
   public Event cloneMe() throws CommandExecutionException {
-    Event newEvent = new Event(this.subject, this.startDateTime, this.endDateTime);
-    newEvent.modifyProperty("description", this.description);
-    newEvent.modifyProperty("location", this.location);
-    newEvent.modifyProperty("status", this.status);
-    return newEvent;
+    return new Event(NEXT_ID.getAndIncrement(), this.subject, this.getStartDateTime(),
+            this.getEndDateTime(), this.description, this.location, this.status);
   }
 }
\ No newline at end of file
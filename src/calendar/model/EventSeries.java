@@ -1,11 +1,13 @@
 package calendar.model;
 
-import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Set;
 
 import calendar.controller.commands.CommandExecutionException;
 
@@ -15,7 +17,8 @@ import calendar.controller.commands.CommandExecutionException;
 public class EventSeries {
 
   private List<Event> events;
-  private String onDays;
+  private final Recurrence recurrence;
+  private CalendarModelImpl owner;
 
   /**
    * Creates an event series object.
@@ -25,10 +28,7 @@ public class EventSeries {
    * @param untilDate the date that is the limit.
    */
   public EventSeries(Event event, String onDays, LocalDate untilDate) {
-    if (this.validDayString(onDays)) {
-      this.events = this.createEventListUntilDate(event, onDays, untilDate);
-      this.onDays = onDays;
-    }
+    this(event, new Recurrence(onDays, event.getDate(), untilDate));
   }
 
   /**
@@ -39,35 +39,22 @@ public class EventSeries {
    * @param repeatTimes the number of times the event is being repeated.
    */
   public EventSeries(Event event, String onDays, int repeatTimes) {
-    if (this.validDayString(onDays)) {
-      this.events = this.createEventListRepeatTimes(event, onDays, repeatTimes);
-      this.onDays = onDays;
-    }
+    this(event, new Recurrence(onDays, event.getDate(), repeatTimes));
   }
 
   /**
-   * Builds a List of all the Event contained within this EventSeries.
+   * Creates an event series object with an occurrence of the event on each date of the
+   * given recurrence.
    *
-   * @param event     the initial event that is to be repeated.
-   * @param onDays    the String representing the repeat days.
-   * @param untilDate the date that the Event should repeat until.
-   * @return A List of Events.
+   * @param event      the event that is being repeated.
+   * @param recurrence the dates to repeat the event on.
    */
-  private List<Event> createEventListUntilDate(Event event, String onDays, LocalDate untilDate) {
-    List<Event> eventList = new ArrayList<>();
-    //eventList.add(event);
-    LocalDateTime curDate = event.getStartDateTime();
-
-    List<DayOfWeek> dayList = this.getDayListFromString(onDays);
-
-    while (curDate.isBefore(untilDate.atStartOfDay().plusDays(1))) {
-      if (dayList.contains(curDate.getDayOfWeek())) {
-        eventList.add(event.onThisDate(curDate));
-      }
-      curDate = curDate.plusDays(1);
+  public EventSeries(Event event, Recurrence recurrence) {
+    this.recurrence = recurrence;
+    this.events = new ArrayList<>(recurrence.size());
+    for (LocalDate date : recurrence.dates()) {
+      this.events.add(event.onThisDate(date.atStartOfDay()));
     }
-
-    return eventList;
   }
 
   /**
@@ -84,13 +71,27 @@ public class EventSeries {
                               LocalDateTime startTime, LocalDateTime endTime,
                               String newValue) throws CommandExecutionException {
     Event tempEvent = new Event(subject, startTime, endTime);
-    for (Event event : this.events) {
+    List<Event> matching = new ArrayList<>();
+    long second = startTime.toEpochSecond(ZoneOffset.UTC);
+    for (int i = this.indexOf(subject, startTime); i >= 0 && i < this.events.size(); i += 1) {
+      Event event = this.events.get(i);
+      if (event.compareStart(second, startTime.getNano()) != 0) {
+        break;
+      }
       if (event.conflictsWith(tempEvent)) {
-        event.modifyProperty("start", newValue);
-        this.events.remove(event);
-        model.addEvent(event);
+        matching.add(event);
       }
     }
+    Set<Event> moved = Collections.newSetFromMap(new IdentityHashMap<>());
+    moved.addAll(matching);
+    this.beginBatch(model);
+    try {
+      this.modifyAll(matching, "start", newValue);
+      this.events.removeIf(moved::contains);
+      this.handOff(model, matching);
+    } finally {
+      this.endBatch(model);
+    }
   }
 
   /**
@@ -102,12 +103,7 @@ public class EventSeries {
    * @return boolean describing result.
    */
   public boolean containsEvent(String subject, LocalDateTime startTime) {
-    for (Event event : this.events) {
-      if (event.getSubject().equals(subject) && event.getStartDateTime().isEqual(startTime)) {
-        return true;
-      }
-    }
-    return false;
+    return this.indexOf(subject, startTime) >= 0;
   }
 
   /**
@@ -123,32 +119,23 @@ public class EventSeries {
    */
   public void changeAllAfter(CalendarModel model, String subject, LocalDateTime dateTime,
                              String property, String newValue) throws CommandExecutionException {
-    if (property.equals("start")) {
-      boolean reached = false;
-      for (Event event : this.events) {
-        if (reached) {
-          event.modifyProperty(property, newValue);
-          this.events.remove(event);
-          model.addEvent(event);
-        } else if (event.getStartDateTime().isEqual(dateTime)
-                && event.getSubject().equals(subject)) {
-          reached = true;
-          event.modifyProperty(property, newValue);
-          this.events.remove(event);
-          model.addEvent(event);
-        }
-      }
-    } else {
-      boolean reached = false;
-      for (Event event : this.events) {
-        if (reached) {
-          event.modifyProperty(property, newValue);
-        } else if (event.getStartDateTime().isEqual(dateTime)
-                && event.getSubject().equals(subject)) {
-          reached = true;
-          event.modifyProperty(property, newValue);
-        }
+    int from = this.indexOf(subject, dateTime);
+    if (from < 0) {
+      return;
+    }
+    List<Event> tail = this.events.subList(from, this.events.size());
+    this.beginBatch(model);
+    try {
+      if (property.equals("start")) {
+        List<Event> split = new ArrayList<>(tail);
+        this.modifyAll(split, property, newValue);
+        tail.clear();
+        this.handOff(model, split);
+      } else {
+        this.modifyAll(tail, property, newValue);
       }
+    } finally {
+      this.endBatch(model);
     }
   }
 
@@ -165,15 +152,14 @@ public class EventSeries {
    */
   public void changeAll(CalendarModel model, String subject, LocalDateTime dateTime,
                         String property, String newValue) throws CommandExecutionException {
-    if (property.equals("start")) {
-      for (Event event : this.events) {
-        event.modifyProperty(property, newValue);
-      }
-      this.dissolveSeries(model);
-    } else {
-      for (Event event : this.events) {
-        event.modifyProperty(property, newValue);
+    this.beginBatch(model);
+    try {
+      this.modifyAll(this.events, property, newValue);
+      if (property.equals("start")) {
+        this.dissolveSeries(model);
       }
+    } finally {
+      this.endBatch(model);
     }
   }
 
@@ -184,84 +170,110 @@ public class EventSeries {
    * @throws CommandExecutionException if adding event fails.
    */
   private void dissolveSeries(CalendarModel model) throws CommandExecutionException {
-    for (int i = 0; i < this.events.size(); i += 0) {
-      Event event = this.events.get(i);
-      this.events.remove(i);
-      model.addEvent(event);
-    }
+    List<Event> all = this.events;
+    this.events = new ArrayList<>();
+    this.handOff(model, all);
   }
 
-
   /**
-   * Builds a List of all the Events contained within this EventSeries.
+   * Moves events that have already been taken out of this EventSeries into the model as
+   * single events, in one bulk operation. If the model rejects them, they are put back into
+   * this EventSeries.
    *
-   * @param event       the initial event that is to be repeated.
-   * @param onDays      the String representing the repeat days.
-   * @param repeatTimes the amount of times this day should be repeated.
-   * @return A List of Events.
+   * @param model   the CalendarModel.
+   * @param removed the events taken out of this EventSeries.
+   * @throws CommandExecutionException if adding the events fails.
    */
-  private List<Event> createEventListRepeatTimes(Event event, String onDays, int repeatTimes) {
-    int toRepeat = repeatTimes;
-    List<Event> eventList = new ArrayList<>();
-    //eventList.add(event);
-    LocalDateTime curDate = event.getStartDateTime();
-
-    List<DayOfWeek> dayList = this.getDayListFromString(onDays);
-
-    while (toRepeat > 0) {
-      if (dayList.contains(curDate.getDayOfWeek())) {
-        eventList.add(event.onThisDate(curDate));
-        toRepeat -= 1;
+  private void handOff(CalendarModel model, List<Event> removed)
+          throws CommandExecutionException {
+    if (removed.isEmpty()) {
+      return;
+    }
+    if (this.owner != null) {
+      this.owner.eventsDetached(removed);
+    }
+    try {
+      model.addEvents(removed);
+    } catch (CommandExecutionException e) {
+      this.events.addAll(removed);
+      this.events.sort(Event.BY_START);
+      if (this.owner != null) {
+        this.owner.eventsAttached(this, removed);
       }
-      curDate = curDate.plusDays(1);
+      throw e;
     }
-
-    return eventList;
   }
 
   /**
-   * Creates a list of DayOfWeek describing which days an EventSeries is to repeat on.
+   * Finds the position of the first event in this EventSeries with the given subject and
+   * start time. Events of a series are kept in start order, so this is a binary search.
    *
-   * @param onDays A String representing the days this EventSeries is to repeat on,
-   *               e.g. "MRU".
-   * @return List of DayOfWeek enum.
+   * @param subject   event subject.
+   * @param startTime event starttime.
+   * @return the position, or -1 if there is no such event.
    */
-  private List<DayOfWeek> getDayListFromString(String onDays) throws IllegalArgumentException {
-    String[] letterList = {"M", "T", "W", "R", "F", "S", "U"};
-    List<String> dayStringList = Arrays.asList(letterList);
-    if (onDays.isEmpty()) {
-      throw new IllegalArgumentException("OnDays cannot be empty");
-    }
-    for (Character c : onDays.toCharArray()) {
-      String str = c.toString();
-      if (!dayStringList.contains(str)) {
-        throw new IllegalArgumentException("Given invalid dayString");
+  private int indexOf(String subject, LocalDateTime startTime) {
+    long second = startTime.toEpochSecond(ZoneOffset.UTC);
+    int nano = startTime.getNano();
+    int low = 0;
+    int high = this.events.size();
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (this.events.get(mid).compareStart(second, nano) < 0) {
+        low = mid + 1;
+      } else {
+        high = mid;
       }
     }
-    List<DayOfWeek> dayList = new ArrayList<>();
-    if (onDays.contains("M")) {
-      dayList.add(DayOfWeek.MONDAY);
-    }
-    if (onDays.contains("T")) {
-      dayList.add(DayOfWeek.TUESDAY);
-    }
-    if (onDays.contains("W")) {
-      dayList.add(DayOfWeek.WEDNESDAY);
-    }
-    if (onDays.contains("R")) {
-      dayList.add(DayOfWeek.THURSDAY);
-    }
-    if (onDays.contains("F")) {
-      dayList.add(DayOfWeek.FRIDAY);
+    for (int i = low; i < this.events.size(); i += 1) {
+      Event event = this.events.get(i);
+      if (event.compareStart(second, nano) != 0) {
+        break;
+      }
+      if (event.getSubject().equals(subject)) {
+        return i;
+      }
     }
-    if (onDays.contains("S")) {
-      dayList.add(DayOfWeek.SATURDAY);
+    return -1;
+  }
+
+  /**
+   * Sets the calendar this EventSeries belongs to, so that changes made through the series
+   * are reported to that calendar's listeners.
+   *
+   * @param owner the owning calendar.
+   */
+  void setOwner(CalendarModelImpl owner) {
+    this.owner = owner;
+  }
+
+  /**
+   * Replaces each of the given events, in the given list, with a copy whose property has the
+   * new value.
+   */
+  private void modifyAll(List<Event> toModify, String property, String newValue)
+          throws CommandExecutionException {
+    if (this.owner != null) {
+      this.owner.modifyEvents(toModify, property, newValue);
+    } else {
+      for (int i = 0; i < toModify.size(); i += 1) {
+        toModify.set(i, toModify.get(i).with(property, newValue));
+      }
     }
-    if (onDays.contains("U")) {
-      dayList.add(DayOfWeek.SUNDAY);
+  }
+
+  private void beginBatch(CalendarModel model) {
+    model.beginBatch();
+    if (this.owner != null && this.owner != model) {
+      this.owner.beginBatch();
     }
+  }
 
-    return dayList;
+  private void endBatch(CalendarModel model) {
+    if (this.owner != null && this.owner != model) {
+      this.owner.endBatch();
+    }
+    model.endBatch();
   }
 
 
@@ -274,19 +286,12 @@ public class EventSeries {
     return this.events;
   }
 
-  private boolean validDayString(String onDays) throws IllegalArgumentException {
-    String[] letterList = {"M", "T", "W", "R", "F", "S", "U"};
-    List<String> dayStringList = Arrays.asList(letterList);
-    if (onDays.isEmpty()) {
-      throw new IllegalArgumentException("OnDays cannot be empty");
-    }
-    for (Character c : onDays.toCharArray()) {
-      String str = c.toString();
-      if (!dayStringList.contains(str)) {
-        throw new IllegalArgumentException("Given invalid dayString");
-      }
-    }
-    return true;
+  /**
+   * Gets the recurrence this EventSeries was created from.
+   *
+   * @return Recurrence.
+   */
+  public Recurrence getRecurrence() {
+    return this.recurrence;
   }
-
 }
@@ -0,0 +1,256 @@
+package calendar.model;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Tracks which moments of a calendar are busy so that an availability check is a single bit
+ * probe instead of a scan over every event.
+ *
+ * <p>Time is divided into minutes, grouped into one bucket per day. Each bucket has a bit for
+ * every minute of the day at which an event is in progress at the exact start of that minute,
+ * and one for every minute throughout the rest of which an event is in progress. Minutes with
+ * more than one event also count the events past the first in a small map, so that removing
+ * one of them leaves the minute busy. Events start and end inclusively,
+ * so an event from 10:00 to 11:00 covers the instants 10:00 through 11:00 and the spans
+ * between them. Events whose start or end is not on a whole minute, and events lasting more
+ * than a week, are rare and are kept aside and checked directly, so that marking an event never
+ * costs more than a week of minutes.</p>
+ */
+class FreeBusyMap {
+
+  private static final int MINUTES_PER_DAY = 1440;
+  private static final int WORDS_PER_DAY = (MINUTES_PER_DAY + 63) / 64;
+  private static final long MAX_MARKED_MINUTES = 7L * MINUTES_PER_DAY;
+
+  private final Map<Long, DayBucket> days;
+  private final Set<Event> scanned;
+
+  /**
+   * Constructs an empty FreeBusyMap.
+   */
+  FreeBusyMap() {
+    this.days = new HashMap<>();
+    this.scanned = Collections.newSetFromMap(new IdentityHashMap<>());
+  }
+
+  /**
+   * Marks the time of an event as busy.
+   *
+   * @param event the event, at its current times.
+   */
+  void add(Event event) {
+    LocalDateTime start = event.getStartDateTime();
+    LocalDateTime end = event.getEndDateTime();
+    if (!marked(start, end)) {
+      this.scanned.add(event);
+      return;
+    }
+    this.update(epochMinute(start), epochMinute(end), 1);
+  }
+
+  /**
+   * Releases the time an event was marked busy for.
+   *
+   * @param event the event.
+   * @param start the start the event was marked with.
+   * @param end   the end the event was marked with.
+   */
+  void remove(Event event, LocalDateTime start, LocalDateTime end) {
+    if (!marked(start, end)) {
+      this.scanned.remove(event);
+      return;
+    }
+    this.update(epochMinute(start), epochMinute(end), -1);
+  }
+
+  /**
+   * Removes every event from this map.
+   */
+  void clear() {
+    this.days.clear();
+    this.scanned.clear();
+  }
+
+  /**
+   * Gets the number of days that have minutes marked.
+   *
+   * @return int.
+   */
+  int size() {
+    return this.days.size();
+  }
+
+  /**
+   * Determines if any event is in progress at the given moment.
+   *
+   * @param dateTime the moment.
+   * @return boolean describing result.
+   */
+  boolean isBusyAt(LocalDateTime dateTime) {
+    long minute = epochMinute(dateTime);
+    DayBucket bucket = this.days.get(Math.floorDiv(minute, MINUTES_PER_DAY));
+    if (bucket != null) {
+      int slot = Math.floorMod(minute, MINUTES_PER_DAY);
+      MinuteSet busy = onMinute(dateTime) ? bucket.instants : bucket.spans;
+      if (busy.contains(slot)) {
+        return true;
+      }
+    }
+    for (Event event : this.scanned) {
+      if (event.occursDuring(dateTime)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Determines if any event shares a stretch of time with the given span. Events that only
+   * meet the span at its start or end do not count.
+   *
+   * @param start the start of the span.
+   * @param end   the end of the span.
+   * @return boolean describing result.
+   */
+  boolean overlaps(LocalDateTime start, LocalDateTime end) {
+    if (!end.isAfter(start)) {
+      return false;
+    }
+    long first = epochMinute(start);
+    long last = epochMinute(end) - (onMinute(end) ? 1 : 0);
+    long firstDay = Math.floorDiv(first, MINUTES_PER_DAY);
+    long lastDay = Math.floorDiv(last, MINUTES_PER_DAY);
+    if (lastDay - firstDay < this.days.size()) {
+      for (long day = firstDay; day <= lastDay; day += 1) {
+        if (spansAny(this.days.get(day), day, first, last)) {
+          return true;
+        }
+      }
+    } else {
+      for (Map.Entry<Long, DayBucket> entry : this.days.entrySet()) {
+        if (spansAny(entry.getValue(), entry.getKey(), first, last)) {
+          return true;
+        }
+      }
+    }
+    for (Event event : this.scanned) {
+      LocalDateTime later = event.getStartDateTime().isAfter(start)
+              ? event.getStartDateTime() : start;
+      LocalDateTime earlier = event.getEndDateTime().isBefore(end) ? event.getEndDateTime() : end;
+      if (later.isBefore(earlier)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void update(long first, long last, int delta) {
+    for (long minute = first; minute <= last; minute += 1) {
+      long day = Math.floorDiv(minute, MINUTES_PER_DAY);
+      DayBucket bucket = this.days.computeIfAbsent(day, d -> new DayBucket());
+      int slot = Math.floorMod(minute, MINUTES_PER_DAY);
+      bucket.instants.update(slot, delta);
+      if (minute < last) {
+        bucket.spans.update(slot, delta);
+      }
+      bucket.marks += delta;
+      if (bucket.marks == 0) {
+        this.days.remove(day);
+      }
+    }
+  }
+
+  /**
+   * Determines if any minute of a day between first and last, both inclusive, has an event in
+   * progress throughout it.
+   */
+  private static boolean spansAny(DayBucket bucket, long day, long first, long last) {
+    if (bucket == null) {
+      return false;
+    }
+    long dayFirst = day * MINUTES_PER_DAY;
+    int from = (int) Math.max(first - dayFirst, 0);
+    int to = (int) Math.min(last - dayFirst, MINUTES_PER_DAY - 1);
+    return from <= to && bucket.spans.any(from, to);
+  }
+
+  private static boolean marked(LocalDateTime start, LocalDateTime end) {
+    return onMinute(start) && onMinute(end)
+            && epochMinute(end) - epochMinute(start) <= MAX_MARKED_MINUTES;
+  }
+
+  private static boolean onMinute(LocalDateTime dateTime) {
+    return dateTime.getSecond() == 0 && dateTime.getNano() == 0;
+  }
+
+  private static long epochMinute(LocalDateTime dateTime) {
+    return Math.floorDiv(dateTime.toEpochSecond(ZoneOffset.UTC), 60);
+  }
+
+  /**
+   * The busy minutes of a single day.
+   */
+  private static class DayBucket {
+    private final MinuteSet instants = new MinuteSet();
+    private final MinuteSet spans = new MinuteSet();
+    private int marks;
+  }
+
+  /**
+   * The minutes of a day that at least one event covers, one bit per minute, with the number of
+   * events past the first kept only for the minutes that have them.
+   */
+  private static class MinuteSet {
+    private final long[] bits = new long[WORDS_PER_DAY];
+    private Map<Integer, Integer> more;
+
+    boolean contains(int slot) {
+      return (this.bits[slot >>> 6] & (1L << (slot & 63))) != 0;
+    }
+
+    /**
+     * Determines if any minute from one slot to another, both inclusive, is covered.
+     */
+    boolean any(int from, int to) {
+      int firstWord = from >>> 6;
+      int lastWord = to >>> 6;
+      for (int word = firstWord; word <= lastWord; word += 1) {
+        long mask = -1L;
+        if (word == firstWord) {
+          mask &= -1L << (from & 63);
+        }
+        if (word == lastWord) {
+          mask &= -1L >>> (63 - (to & 63));
+        }
+        if ((this.bits[word] & mask) != 0) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    /**
+     * Adds an event to a minute if delta is 1, or removes one if it is -1.
+     */
+    void update(int slot, int delta) {
+      if (delta > 0 && !this.contains(slot)) {
+        this.bits[slot >>> 6] |= 1L << (slot & 63);
+      } else if (delta > 0) {
+        if (this.more == null) {
+          this.more = new HashMap<>();
+        }
+        this.more.merge(slot, 1, Integer::sum);
+      } else if (this.more != null && this.more.containsKey(slot)) {
+        this.more.merge(slot, -1, (count, minus) -> count == 1 ? null : count + minus);
+      } else {
+        this.bits[slot >>> 6] &= ~(1L << (slot & 63));
+      }
+    }
+  }
+}
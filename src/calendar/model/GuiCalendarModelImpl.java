@@ -1,4 +1,3 @@
-
 package calendar.model;
 
 import java.time.LocalDate;
@@ -14,8 +13,11 @@ import java.util.List;
  */
 public class GuiCalendarModelImpl extends CalendarModelImpl implements GuiCalendarModel {
 
+  private static final int SCHEDULE_SIZE = 10;
+
   List<Event> scheduleList;
   LocalDate startDate;
+  private boolean scheduleValid;
 
   /**
    * Constructs a new CalendarModelImpl object with empty event lists.
@@ -24,6 +26,8 @@ public class GuiCalendarModelImpl extends CalendarModelImpl implements GuiCalend
     super(name, zoneId);
     this.scheduleList = new ArrayList<>();
     this.startDate = LocalDate.of(1990, 1, 1);
+    this.scheduleValid = false;
+    this.addChangeListener(this::patchSchedule);
   }
 
   /**
@@ -34,14 +38,24 @@ public class GuiCalendarModelImpl extends CalendarModelImpl implements GuiCalend
   @Override
   public void setScheduleStart(LocalDate start) {
     this.startDate = start;
+    this.scheduleValid = false;
   }
 
   /**
-   * Gets the events to be included in a schedule based on the start field.
+   * Gets the events to be included in a schedule based on the start field. The schedule is
+   * computed once and then patched as the calendar changes.
    *
    * @return List of Events.
    */
   public List<Event> getScheduledEvents() {
+    if (!this.scheduleValid) {
+      this.scheduleList = this.computeSchedule();
+      this.scheduleValid = true;
+    }
+    return new ArrayList<>(this.scheduleList);
+  }
+
+  private List<Event> computeSchedule() {
     List<Event> allEvents = super.getEvents();
     if (allEvents.isEmpty()) {
       return new ArrayList<Event>();
@@ -49,7 +63,7 @@ public class GuiCalendarModelImpl extends CalendarModelImpl implements GuiCalend
     Collections.sort(allEvents);
     List<Event> scheduledEvents = new ArrayList<>();
     int i = 0;
-    while (scheduledEvents.size() <= 9 && i < allEvents.size()) {
+    while (scheduledEvents.size() < SCHEDULE_SIZE && i < allEvents.size()) {
       if (!allEvents.get(i).getStartDateTime().isBefore(this.startDate.atStartOfDay())) {
         scheduledEvents.add(allEvents.get(i));
       }
@@ -57,4 +71,66 @@ public class GuiCalendarModelImpl extends CalendarModelImpl implements GuiCalend
     }
     return scheduledEvents;
   }
+
+  /**
+   * Updates the cached schedule for the given changes, falling back to a full recompute on
+   * the next request only when a scheduled event itself was removed or edited.
+   *
+   * @param changes the changes made to this calendar.
+   */
+  private void patchSchedule(List<CalendarChange> changes) {
+    for (CalendarChange change : changes) {
+      if (!this.scheduleValid) {
+        return;
+      }
+      switch (change.getType()) {
+        case ADDED:
+          this.insertIntoSchedule(change.getEvent());
+          break;
+        case REMOVED:
+        case MODIFIED:
+          if (this.isScheduled(change.getEvent())) {
+            this.scheduleValid = false;
+          } else if (change.getType() == CalendarChange.Type.MODIFIED) {
+            this.insertIntoSchedule(change.getEvent());
+          }
+          break;
+        case REZONED:
+          this.scheduleValid = false;
+          break;
+        default:
+          break;
+      }
+    }
+  }
+
+  /**
+   * Determines whether the schedule holds a version of the given event. Edited events are
+   * replaced by new ones with the same id, so the schedule is matched by id.
+   */
+  private boolean isScheduled(Event event) {
+    for (Event scheduled : this.scheduleList) {
+      if (scheduled.getId() == event.getId()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void insertIntoSchedule(Event event) {
+    if (event.getStartDateTime().isBefore(this.startDate.atStartOfDay())) {
+      return;
+    }
+    int index = this.scheduleList.size();
+    while (index > 0 && this.scheduleList.get(index - 1).compareTo(event) > 0) {
+      index -= 1;
+    }
+    if (index >= SCHEDULE_SIZE) {
+      return;
+    }
+    this.scheduleList.add(index, event);
+    if (this.scheduleList.size() > SCHEDULE_SIZE) {
+      this.scheduleList.remove(this.scheduleList.size() - 1);
+    }
+  }
 }
\ No newline at end of file
@@ -20,14 +20,22 @@ public interface IEvent {
   public Event onThisDate(LocalDateTime date) throws CommandExecutionException;
 
   /**
-   * Modifies the property of this Event to contain the given value.
+   * Returns a copy of this Event, with the same id, whose property contains the given value.
    *
-   * @param property property to be modified.
+   * @param property property to be changed.
    * @param value    value to change property to.
+   * @return Event.
    * @throws CommandExecutionException if the command that called this method contained
    *                                   faulty arguments.
    */
-  public void modifyProperty(String property, String value) throws CommandExecutionException;
+  public Event with(String property, String value) throws CommandExecutionException;
+
+  /**
+   * Returns the stable id of this Event.
+   *
+   * @return long.
+   */
+  public long getId();
 
   /**
    * Returns the dateTime this Event starts on.
@@ -50,6 +58,13 @@ public interface IEvent {
    */
   public String getSubject();
 
+  /**
+   * Returns the location of this Event, or null if it has none.
+   *
+   * @return String.
+   */
+  public String getLocation();
+
   /**
    * Checks if the event conflicts with another event by having the same information.
    *
@@ -121,7 +136,7 @@ public interface IEvent {
    * Returns a copy of this Event.
    *
    * @return Event.
-   * @throws CommandExecutionException if modifyProperty fails.
+   * @throws CommandExecutionException if the copy fails.
    */
   public Event cloneMe() throws CommandExecutionException;
 }
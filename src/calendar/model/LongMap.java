@@ -0,0 +1,137 @@
+package calendar.model;
+
+import java.util.Arrays;
+
+/**
+ * A hash map from primitive long keys to values, using open addressing with linear probing so
+ * that keys are never boxed.
+ *
+ * @param <V> the type of value.
+ */
+class LongMap<V> {
+
+  private static final int MIN_CAPACITY = 16;
+
+  private long[] keys;
+  private Object[] values;
+  private int size;
+
+  /**
+   * Constructs an empty LongMap.
+   */
+  LongMap() {
+    this.keys = new long[MIN_CAPACITY];
+    this.values = new Object[MIN_CAPACITY];
+    this.size = 0;
+  }
+
+  /**
+   * Gets the value for a key.
+   *
+   * @param key the key.
+   * @return the value, or null if the key is not present.
+   */
+  @SuppressWarnings("unchecked")
+  V get(long key) {
+    int mask = this.keys.length - 1;
+    for (int i = slot(key, mask); this.values[i] != null; i = (i + 1) & mask) {
+      if (this.keys[i] == key) {
+        return (V) this.values[i];
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Sets the value for a key.
+   *
+   * @param key   the key.
+   * @param value the value, which must not be null.
+   */
+  void put(long key, V value) {
+    if ((this.size + 1) * 4 > this.keys.length * 3) {
+      this.resize(this.keys.length * 2);
+    }
+    int mask = this.keys.length - 1;
+    int i = slot(key, mask);
+    while (this.values[i] != null) {
+      if (this.keys[i] == key) {
+        this.values[i] = value;
+        return;
+      }
+      i = (i + 1) & mask;
+    }
+    this.keys[i] = key;
+    this.values[i] = value;
+    this.size += 1;
+  }
+
+  /**
+   * Removes a key and its value.
+   *
+   * @param key the key.
+   */
+  void remove(long key) {
+    int mask = this.keys.length - 1;
+    int i = slot(key, mask);
+    while (this.values[i] != null && this.keys[i] != key) {
+      i = (i + 1) & mask;
+    }
+    if (this.values[i] == null) {
+      return;
+    }
+    this.values[i] = null;
+    this.size -= 1;
+    // Shift later entries of the same probe run back so lookups never stop early.
+    for (int j = (i + 1) & mask; this.values[j] != null; j = (j + 1) & mask) {
+      int home = slot(this.keys[j], mask);
+      boolean movable = i <= j ? (home <= i || home > j) : (home <= i && home > j);
+      if (movable) {
+        this.keys[i] = this.keys[j];
+        this.values[i] = this.values[j];
+        this.values[j] = null;
+        i = j;
+      }
+    }
+  }
+
+  /**
+   * Gets the number of keys in this map.
+   *
+   * @return int.
+   */
+  int size() {
+    return this.size;
+  }
+
+  /**
+   * Removes every key from this map.
+   */
+  void clear() {
+    Arrays.fill(this.values, null);
+    this.size = 0;
+  }
+
+  private void resize(int capacity) {
+    long[] oldKeys = this.keys;
+    Object[] oldValues = this.values;
+    this.keys = new long[capacity];
+    this.values = new Object[capacity];
+    int mask = capacity - 1;
+    for (int j = 0; j < oldKeys.length; j += 1) {
+      if (oldValues[j] != null) {
+        int i = slot(oldKeys[j], mask);
+        while (this.values[i] != null) {
+          i = (i + 1) & mask;
+        }
+        this.keys[i] = oldKeys[j];
+        this.values[i] = oldValues[j];
+      }
+    }
+  }
+
+  private static int slot(long key, int mask) {
+    long h = key * 0x9E3779B97F4A7C15L;
+    return (int) (h ^ (h >>> 32)) & mask;
+  }
+}
@@ -0,0 +1,98 @@
+package calendar.model;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * Iterates over the events of several calendars within a window, in start order, with their
+ * times converted into one timezone.
+ *
+ * <p>Each calendar already yields its events in start order, so the calendars are merged with
+ * a heap holding the next event of each one. Producing an entry costs a logarithm of the number
+ * of calendars, and entries are only converted as they are reached, so a caller that stops
+ * early never pays for the rest of the agenda.</p>
+ */
+public class MergedAgenda implements Iterator<AgendaEntry> {
+
+  private final PriorityQueue<Cursor> heads;
+
+  /**
+   * Constructs a MergedAgenda.
+   *
+   * @param calendars the calendars to merge.
+   * @param zone      the timezone the window is given in and the entries are returned in.
+   * @param from      the start of the window.
+   * @param to        the end of the window.
+   */
+  public MergedAgenda(List<CalendarModel> calendars, ZoneId zone,
+                      LocalDateTime from, LocalDateTime to) {
+    this.heads = new PriorityQueue<>(Math.max(calendars.size(), 1),
+            Comparator.comparing((Cursor cursor) -> cursor.head.getStart())
+                    .thenComparing(cursor -> cursor.head.getCalendarName()));
+    for (CalendarModel calendar : calendars) {
+      ZoneId calendarZone = calendar.getZoneId();
+      List<Event> events = calendar.getEventsOverlapping(
+              Zones.convert(from, zone, calendarZone), Zones.convert(to, zone, calendarZone));
+      Cursor cursor = new Cursor(calendar.getName(), calendarZone, zone, events.iterator());
+      if (cursor.advance()) {
+        this.heads.add(cursor);
+      }
+    }
+  }
+
+  @Override
+  public boolean hasNext() {
+    return !this.heads.isEmpty();
+  }
+
+  @Override
+  public AgendaEntry next() {
+    Cursor cursor = this.heads.poll();
+    if (cursor == null) {
+      throw new NoSuchElementException();
+    }
+    AgendaEntry entry = cursor.head;
+    if (cursor.advance()) {
+      this.heads.add(cursor);
+    }
+    return entry;
+  }
+
+  /**
+   * The position reached in one calendar's events.
+   */
+  private static class Cursor {
+    private final String calendarName;
+    private final ZoneId calendarZone;
+    private final ZoneId zone;
+    private final Iterator<Event> events;
+    private AgendaEntry head;
+
+    private Cursor(String calendarName, ZoneId calendarZone, ZoneId zone,
+                   Iterator<Event> events) {
+      this.calendarName = calendarName;
+      this.calendarZone = calendarZone;
+      this.zone = zone;
+      this.events = events;
+    }
+
+    /**
+     * Moves to the next event of the calendar, returning false if there are none left.
+     */
+    private boolean advance() {
+      if (!this.events.hasNext()) {
+        return false;
+      }
+      Event event = this.events.next();
+      this.head = new AgendaEntry(this.calendarName, event,
+              Zones.convert(event.getStartDateTime(), this.calendarZone, this.zone),
+              Zones.convert(event.getEndDateTime(), this.calendarZone, this.zone));
+      return true;
+    }
+  }
+}
@@ -0,0 +1,35 @@
+package calendar.model;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event for one change made to a calendar.
+ */
+@Name("calendar.Mutation")
+@Label("Calendar Mutation")
+@Category({"Calendar", "Model"})
+@Description("A change made to the events or properties of a calendar")
+@StackTrace(false)
+class MutationEvent extends jdk.jfr.Event {
+
+  @Label("Operation")
+  String operation;
+
+  @Label("Property")
+  @Description("The property modified, if the operation modifies events")
+  String property;
+
+  @Label("Calendar")
+  String calendar;
+
+  @Label("Command Type")
+  String commandType;
+
+  @Label("Events")
+  @Description("The number of events changed")
+  int events;
+}
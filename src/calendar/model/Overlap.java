@@ -0,0 +1,75 @@
+package calendar.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Represents two events of a calendar whose times overlap. Events overlap when they share a
+ * stretch of time, so events that merely meet, one ending as the next starts, do not.
+ */
+public final class Overlap {
+
+  private final Event first;
+  private final Event second;
+
+  /**
+   * Constructs an Overlap.
+   *
+   * @param first  the event that starts first.
+   * @param second the event that starts second.
+   */
+  public Overlap(Event first, Event second) {
+    this.first = first;
+    this.second = second;
+  }
+
+  /**
+   * Finds every overlapping pair among the given events with a sweep over their start times.
+   * The events are sorted once, and each event is compared only with the events still in
+   * progress when it starts, so the cost is proportional to the sorting plus the number of
+   * overlaps found.
+   *
+   * @param events the events.
+   * @return List of Overlaps, ordered by the start of the later event.
+   */
+  public static List<Overlap> findAll(List<Event> events) {
+    List<Event> sorted = new ArrayList<>(events);
+    sorted.sort(Event.BY_START);
+    PriorityQueue<Event> inProgress =
+            new PriorityQueue<>(Event.BY_END);
+    List<Overlap> overlaps = new ArrayList<>();
+    for (Event event : sorted) {
+      while (!inProgress.isEmpty()
+              && !inProgress.peek().endsAfterStartOf(event)) {
+        inProgress.poll();
+      }
+      if (!event.hasLength()) {
+        continue;
+      }
+      for (Event other : inProgress) {
+        overlaps.add(new Overlap(other, event));
+      }
+      inProgress.add(event);
+    }
+    return overlaps;
+  }
+
+  /**
+   * Gets the event of this overlap that starts first.
+   *
+   * @return Event.
+   */
+  public Event getFirst() {
+    return this.first;
+  }
+
+  /**
+   * Gets the event of this overlap that starts second.
+   *
+   * @return Event.
+   */
+  public Event getSecond() {
+    return this.second;
+  }
+}
@@ -0,0 +1,205 @@
+package calendar.model;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Function;
+
+/**
+ * Runs queries that span several calendars on a ForkJoinPool, one task per calendar, and
+ * combines the results in the order the calendars were given. Calendars with more events than
+ * the threshold are themselves split into segments of their events that are filtered in
+ * parallel.
+ *
+ * <p>Queries only read the calendars, so they must not run at the same time as changes to
+ * those calendars.</p>
+ */
+public class ParallelQueryExecutor {
+
+  /**
+   * The default number of events below which a calendar is queried on a single thread.
+   */
+  public static final int DEFAULT_THRESHOLD = 4096;
+
+  private final ForkJoinPool pool;
+  private final int threshold;
+
+  /**
+   * Constructs a ParallelQueryExecutor on the common pool with the default threshold.
+   */
+  public ParallelQueryExecutor() {
+    this(ForkJoinPool.commonPool(), DEFAULT_THRESHOLD);
+  }
+
+  /**
+   * Constructs a ParallelQueryExecutor.
+   *
+   * @param pool      the pool to run queries on.
+   * @param threshold the number of events below which a calendar, or a segment of one, is
+   *                  queried on a single thread.
+   * @throws IllegalArgumentException if the threshold is not positive.
+   */
+  public ParallelQueryExecutor(ForkJoinPool pool, int threshold) {
+    if (threshold < 1) {
+      throw new IllegalArgumentException("Threshold must be positive");
+    }
+    this.pool = pool;
+    this.threshold = threshold;
+  }
+
+  /**
+   * Runs a query against every calendar in parallel.
+   *
+   * @param calendars the calendars.
+   * @param query     the query to run against each calendar.
+   * @param <R>       the type of result of the query.
+   * @return List of results, in the same order as the calendars.
+   */
+  public <R> List<R> map(List<CalendarModel> calendars, Function<CalendarModel, R> query) {
+    if (calendars.size() < 2) {
+      List<R> results = new ArrayList<>();
+      for (CalendarModel calendar : calendars) {
+        results.add(query.apply(calendar));
+      }
+      return results;
+    }
+    return this.pool.invoke(new FanOut<>(calendars, query, 0, calendars.size()));
+  }
+
+  /**
+   * Finds the events of every calendar in progress within a window, with times converted into
+   * one timezone, in start order.
+   *
+   * @param calendars the calendars.
+   * @param zone      the timezone the window is given in and the entries are returned in.
+   * @param from      the start of the window.
+   * @param to        the end of the window.
+   * @return List of AgendaEntries.
+   */
+  public List<AgendaEntry> getEventsOverlapping(List<CalendarModel> calendars, ZoneId zone,
+                                                LocalDateTime from, LocalDateTime to) {
+    List<List<AgendaEntry>> perCalendar = this.map(calendars, calendar -> {
+      ZoneId calendarZone = calendar.getZoneId();
+      List<AgendaEntry> entries = new ArrayList<>();
+      for (Event event : this.getEventsOverlapping(calendar,
+              Zones.convert(from, zone, calendarZone), Zones.convert(to, zone, calendarZone))) {
+        entries.add(new AgendaEntry(calendar.getName(), event,
+                Zones.convert(event.getStartDateTime(), calendarZone, zone),
+                Zones.convert(event.getEndDateTime(), calendarZone, zone)));
+      }
+      return entries;
+    });
+    List<AgendaEntry> all = new ArrayList<>();
+    for (List<AgendaEntry> entries : perCalendar) {
+      all.addAll(entries);
+    }
+    all.sort(Comparator.comparing(AgendaEntry::getStart));
+    return all;
+  }
+
+  /**
+   * Finds the events of one calendar in progress within a window, in start order. A calendar
+   * with more events than the threshold is split into segments that are filtered in parallel.
+   *
+   * @param calendar the calendar.
+   * @param from     the start of the window.
+   * @param to       the end of the window.
+   * @return List of Events.
+   */
+  public List<Event> getEventsOverlapping(CalendarModel calendar, LocalDateTime from,
+                                          LocalDateTime to) {
+    List<Event> events = calendar.getEvents();
+    if (events.size() <= this.threshold) {
+      return calendar.getEventsOverlapping(from, to);
+    }
+    List<Event> overlapping = this.pool.invoke(new Segment(events, from, to, 0, events.size()));
+    overlapping.sort(Event.BY_START);
+    return overlapping;
+  }
+
+  /**
+   * Splits a list of calendars in halves until each task holds a single calendar.
+   */
+  private static class FanOut<R> extends RecursiveTask<List<R>> {
+    private static final long serialVersionUID = 1L;
+
+    private final List<CalendarModel> calendars;
+    private final Function<CalendarModel, R> query;
+    private final int from;
+    private final int to;
+
+    private FanOut(List<CalendarModel> calendars, Function<CalendarModel, R> query,
+                   int from, int to) {
+      this.calendars = calendars;
+      this.query = query;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected List<R> compute() {
+      if (this.to - this.from == 1) {
+        List<R> result = new ArrayList<>();
+        result.add(this.query.apply(this.calendars.get(this.from)));
+        return result;
+      }
+      int middle = (this.from + this.to) >>> 1;
+      FanOut<R> left = new FanOut<>(this.calendars, this.query, this.from, middle);
+      left.fork();
+      List<R> right = new FanOut<>(this.calendars, this.query, middle, this.to).compute();
+      List<R> result = left.join();
+      result.addAll(right);
+      return result;
+    }
+  }
+
+  /**
+   * Filters a segment of a calendar's events, splitting it further while it is larger than
+   * the threshold.
+   */
+  private class Segment extends RecursiveTask<List<Event>> {
+    private static final long serialVersionUID = 1L;
+
+    private final List<Event> events;
+    private final LocalDateTime windowStart;
+    private final LocalDateTime windowEnd;
+    private final int from;
+    private final int to;
+
+    private Segment(List<Event> events, LocalDateTime windowStart, LocalDateTime windowEnd,
+                    int from, int to) {
+      this.events = events;
+      this.windowStart = windowStart;
+      this.windowEnd = windowEnd;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected List<Event> compute() {
+      if (this.to - this.from <= ParallelQueryExecutor.this.threshold) {
+        List<Event> result = new ArrayList<>();
+        for (int i = this.from; i < this.to; i += 1) {
+          Event event = this.events.get(i);
+          if (event.inProgressBetween(this.windowStart, this.windowEnd)) {
+            result.add(event);
+          }
+        }
+        return result;
+      }
+      int middle = (this.from + this.to) >>> 1;
+      Segment left = new Segment(this.events, this.windowStart, this.windowEnd,
+              this.from, middle);
+      left.fork();
+      List<Event> right = new Segment(this.events, this.windowStart, this.windowEnd,
+              middle, this.to).compute();
+      List<Event> result = left.join();
+      result.addAll(right);
+      return result;
+    }
+  }
+}
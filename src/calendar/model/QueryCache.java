@@ -0,0 +1,149 @@
+package calendar.model;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Remembers the results of date and range queries on a calendar. The cache is bounded both by
+ * the number of queries and by the total number of events held, evicting the least recently
+ * used query first. Whenever the calendar changes, only the queries whose dates could see the
+ * change are dropped.
+ */
+class QueryCache {
+
+  private final LinkedHashMap<Range, List<Event>> entries;
+  private final int maxEntries;
+  private final int maxWeight;
+  private int weight;
+  private long hits;
+  private long misses;
+  private long evictions;
+  private long invalidations;
+
+  /**
+   * Constructs an empty QueryCache.
+   *
+   * @param maxEntries the most queries to remember.
+   * @param maxWeight  the most events to hold across all remembered queries.
+   */
+  QueryCache(int maxEntries, int maxWeight) {
+    this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    this.maxEntries = maxEntries;
+    this.maxWeight = maxWeight;
+  }
+
+  /**
+   * Gets the remembered result of a range query.
+   *
+   * @param from the first date of the range.
+   * @param to   the last date of the range.
+   * @return a copy of the result, or null if it is not remembered.
+   */
+  synchronized List<Event> get(LocalDate from, LocalDate to) {
+    List<Event> result = this.entries.get(new Range(from, to));
+    if (result == null) {
+      this.misses += 1;
+      return null;
+    }
+    this.hits += 1;
+    return new ArrayList<>(result);
+  }
+
+  /**
+   * Remembers the result of a range query, evicting older queries if needed.
+   *
+   * @param from   the first date of the range.
+   * @param to     the last date of the range.
+   * @param result the result.
+   */
+  synchronized void put(LocalDate from, LocalDate to, List<Event> result) {
+    if (weigh(result) > this.maxWeight || this.maxEntries == 0) {
+      return;
+    }
+    List<Event> previous = this.entries.put(new Range(from, to), new ArrayList<>(result));
+    if (previous != null) {
+      this.weight -= weigh(previous);
+    }
+    this.weight += weigh(result);
+    Iterator<List<Event>> eldest = this.entries.values().iterator();
+    while (this.entries.size() > this.maxEntries || this.weight > this.maxWeight) {
+      this.weight -= weigh(eldest.next());
+      eldest.remove();
+      this.evictions += 1;
+    }
+  }
+
+  /**
+   * Drops every remembered query whose range shares a date with the given range.
+   *
+   * @param from the first date changed.
+   * @param to   the last date changed.
+   */
+  synchronized void invalidate(LocalDate from, LocalDate to) {
+    Iterator<Map.Entry<Range, List<Event>>> it = this.entries.entrySet().iterator();
+    while (it.hasNext()) {
+      Map.Entry<Range, List<Event>> entry = it.next();
+      Range range = entry.getKey();
+      if (!range.from.isAfter(to) && !range.to.isBefore(from)) {
+        this.weight -= weigh(entry.getValue());
+        it.remove();
+        this.invalidations += 1;
+      }
+    }
+  }
+
+  /**
+   * Drops every remembered query.
+   */
+  synchronized void clear() {
+    this.invalidations += this.entries.size();
+    this.entries.clear();
+    this.weight = 0;
+  }
+
+  /**
+   * Gets a snapshot of the statistics of this cache.
+   *
+   * @return CacheStats.
+   */
+  synchronized CacheStats getStats() {
+    return new CacheStats(this.hits, this.misses, this.evictions, this.invalidations,
+            this.entries.size(), this.weight);
+  }
+
+  private static int weigh(List<Event> result) {
+    return result.size() + 1;
+  }
+
+  /**
+   * The dates of a range query.
+   */
+  private static final class Range {
+    private final LocalDate from;
+    private final LocalDate to;
+
+    private Range(LocalDate from, LocalDate to) {
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      if (!(other instanceof Range)) {
+        return false;
+      }
+      Range that = (Range) other;
+      return this.from.equals(that.from) && this.to.equals(that.to);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(this.from, this.to);
+    }
+  }
+}
@@ -0,0 +1,37 @@
+package calendar.model;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event for one query answered by a calendar.
+ */
+@Name("calendar.Query")
+@Label("Calendar Query")
+@Category({"Calendar", "Model"})
+@Description("A query answered by a calendar, with how many events it looked at")
+@StackTrace(false)
+class QueryEvent extends jdk.jfr.Event {
+
+  @Label("Query")
+  String query;
+
+  @Label("Calendar")
+  String calendar;
+
+  @Label("Command Type")
+  String commandType;
+
+  @Label("Results")
+  int results;
+
+  @Label("Events Scanned")
+  int eventsScanned;
+
+  @Label("Cached")
+  @Description("Whether the result came from the query cache")
+  boolean cached;
+}
@@ -0,0 +1,131 @@
+package calendar.model;
+
+/**
+ * Represents a snapshot of how many queries a calendar answered, how much work they took, and
+ * how large the calendar and its indexes are.
+ */
+public final class QueryStats {
+
+  private final long queries;
+  private final long eventsScanned;
+  private final int events;
+  private final int series;
+  private final int indexedDays;
+  private final int subjects;
+  private final int busyDays;
+  private final CacheStats cache;
+
+  /**
+   * Constructs a QueryStats.
+   *
+   * @param queries       the number of queries answered.
+   * @param eventsScanned the number of events the queries looked at.
+   * @param events        the number of events in the calendar.
+   * @param series        the number of series in the calendar.
+   * @param indexedDays   the number of dates in the day index.
+   * @param subjects      the number of subjects in the subject index.
+   * @param busyDays      the number of days in the free/busy map.
+   * @param cache         the statistics of the query cache.
+   */
+  public QueryStats(long queries, long eventsScanned, int events, int series, int indexedDays,
+                    int subjects, int busyDays, CacheStats cache) {
+    this.queries = queries;
+    this.eventsScanned = eventsScanned;
+    this.events = events;
+    this.series = series;
+    this.indexedDays = indexedDays;
+    this.subjects = subjects;
+    this.busyDays = busyDays;
+    this.cache = cache;
+  }
+
+  /**
+   * Gets the number of queries answered.
+   *
+   * @return long.
+   */
+  public long getQueries() {
+    return this.queries;
+  }
+
+  /**
+   * Gets the number of events the queries looked at, not counting queries answered from the
+   * cache.
+   *
+   * @return long.
+   */
+  public long getEventsScanned() {
+    return this.eventsScanned;
+  }
+
+  /**
+   * Gets the mean number of events a query looked at.
+   *
+   * @return double.
+   */
+  public double getEventsScannedPerQuery() {
+    return this.queries == 0 ? 0 : (double) this.eventsScanned / this.queries;
+  }
+
+  /**
+   * Gets the number of events in the calendar.
+   *
+   * @return int.
+   */
+  public int getEvents() {
+    return this.events;
+  }
+
+  /**
+   * Gets the number of series in the calendar.
+   *
+   * @return int.
+   */
+  public int getSeries() {
+    return this.series;
+  }
+
+  /**
+   * Gets the number of dates in the day index.
+   *
+   * @return int.
+   */
+  public int getIndexedDays() {
+    return this.indexedDays;
+  }
+
+  /**
+   * Gets the number of subjects in the subject index.
+   *
+   * @return int.
+   */
+  public int getSubjects() {
+    return this.subjects;
+  }
+
+  /**
+   * Gets the number of days in the free/busy map.
+   *
+   * @return int.
+   */
+  public int getBusyDays() {
+    return this.busyDays;
+  }
+
+  /**
+   * Gets the statistics of the query cache.
+   *
+   * @return CacheStats.
+   */
+  public CacheStats getCache() {
+    return this.cache;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("queries=%d scanned=%d scannedPerQuery=%.1f events=%d series=%d "
+                    + "indexedDays=%d subjects=%d busyDays=%d cache: %s", this.queries,
+            this.eventsScanned, this.getEventsScannedPerQuery(), this.events, this.series,
+            this.indexedDays, this.subjects, this.busyDays, this.cache);
+  }
+}
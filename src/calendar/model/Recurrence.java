@@ -0,0 +1,190 @@
+package calendar.model;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Represents the dates an EventSeries repeats on: a set of weekdays starting from a first
+ * date, bounded either by a number of occurrences or by a last date. The weekday string is
+ * compiled once into a bitmask, and the dates are generated by jumping straight from one
+ * matching day to the next rather than checking every day in between.
+ */
+public final class Recurrence {
+
+  private static final String DAY_LETTERS = "MTWRFSU";
+
+  private final int mask;
+  private final int[] gaps;
+  private final long firstDay;
+  private final long lastDay;
+  private final int count;
+
+  /**
+   * Creates a recurrence that repeats a number of times.
+   *
+   * @param onDays      the days to repeat on, e.g. "MWF".
+   * @param first       the first date the recurrence may occur on.
+   * @param repeatTimes the number of occurrences.
+   * @throws IllegalArgumentException if onDays is empty or contains an unknown day.
+   */
+  public Recurrence(String onDays, LocalDate first, int repeatTimes) {
+    this.mask = parseDays(onDays);
+    this.gaps = gapsOf(this.mask);
+    this.firstDay = first.toEpochDay();
+    this.count = Math.max(repeatTimes, 0);
+    this.lastDay = this.count == 0 ? this.firstDay - 1 : this.nthDay(this.count - 1);
+  }
+
+  /**
+   * Creates a recurrence that repeats until a date.
+   *
+   * @param onDays    the days to repeat on, e.g. "MWF".
+   * @param first     the first date the recurrence may occur on.
+   * @param untilDate the last date the recurrence may occur on.
+   * @throws IllegalArgumentException if onDays is empty or contains an unknown day.
+   */
+  public Recurrence(String onDays, LocalDate first, LocalDate untilDate) {
+    this.mask = parseDays(onDays);
+    this.gaps = gapsOf(this.mask);
+    this.firstDay = first.toEpochDay();
+    this.lastDay = untilDate.toEpochDay();
+    this.count = this.countBefore(this.lastDay + 1);
+  }
+
+  /**
+   * Compiles a weekday string into a bitmask where bit 0 is Monday and bit 6 is Sunday.
+   *
+   * @param onDays the days, using M T W R F S U for Monday through Sunday.
+   * @return the bitmask.
+   * @throws IllegalArgumentException if onDays is empty or contains an unknown day.
+   */
+  public static int parseDays(String onDays) {
+    if (onDays.isEmpty()) {
+      throw new IllegalArgumentException("OnDays cannot be empty");
+    }
+    int mask = 0;
+    for (int i = 0; i < onDays.length(); i += 1) {
+      int day = DAY_LETTERS.indexOf(onDays.charAt(i));
+      if (day < 0) {
+        throw new IllegalArgumentException("Given invalid dayString");
+      }
+      mask |= 1 << day;
+    }
+    return mask;
+  }
+
+  /**
+   * Determines if the given date is one of the weekdays of this recurrence, ignoring its
+   * bounds.
+   *
+   * @param date the date.
+   * @return boolean describing result.
+   */
+  public boolean repeatsOn(LocalDate date) {
+    return (this.mask & (1 << (date.getDayOfWeek().getValue() - 1))) != 0;
+  }
+
+  /**
+   * Gets the number of occurrences of this recurrence.
+   *
+   * @return int.
+   */
+  public int size() {
+    return this.count;
+  }
+
+  /**
+   * Gets every date this recurrence occurs on, in order.
+   *
+   * @return List of LocalDates.
+   */
+  public List<LocalDate> dates() {
+    return this.expand(LocalDate.ofEpochDay(this.firstDay), LocalDate.ofEpochDay(this.lastDay));
+  }
+
+  /**
+   * Gets the dates this recurrence occurs on within a window, in order. Only the dates in
+   * the window are generated.
+   *
+   * @param from the first date of the window.
+   * @param to   the last date of the window.
+   * @return List of LocalDates, empty if none fall in the window.
+   */
+  public List<LocalDate> expand(LocalDate from, LocalDate to) {
+    long day = Math.max(from.toEpochDay(), this.firstDay);
+    long end = Math.min(to.toEpochDay(), this.lastDay);
+    List<LocalDate> result = new ArrayList<>();
+    if (day > end) {
+      return result;
+    }
+    day = this.nextOnOrAfter(day);
+    while (day <= end) {
+      result.add(LocalDate.ofEpochDay(day));
+      day += this.gaps[weekday(day)];
+    }
+    return result;
+  }
+
+  /**
+   * Finds the first matching day on or after the given epoch day.
+   */
+  private long nextOnOrAfter(long day) {
+    if ((this.mask & (1 << weekday(day))) != 0) {
+      return day;
+    }
+    return day + this.gaps[weekday(day)];
+  }
+
+  /**
+   * Finds the epoch day of the occurrence with the given zero-based index.
+   */
+  private long nthDay(int n) {
+    int perWeek = Integer.bitCount(this.mask);
+    long day = this.nextOnOrAfter(this.firstDay) + 7L * (n / perWeek);
+    for (int i = n % perWeek; i > 0; i -= 1) {
+      day += this.gaps[weekday(day)];
+    }
+    return day;
+  }
+
+  /**
+   * Counts the matching days from the first day up to, but not including, the given day.
+   */
+  private int countBefore(long day) {
+    long days = day - this.firstDay;
+    if (days <= 0) {
+      return 0;
+    }
+    long result = (days / 7) * Integer.bitCount(this.mask);
+    int start = weekday(this.firstDay);
+    for (int i = 0; i < days % 7; i += 1) {
+      if ((this.mask & (1 << ((start + i) % 7))) != 0) {
+        result += 1;
+      }
+    }
+    return (int) result;
+  }
+
+  /**
+   * Gets the weekday of an epoch day, where 0 is Monday and 6 is Sunday.
+   */
+  private static int weekday(long epochDay) {
+    return (int) Math.floorMod(epochDay + 3, 7L);
+  }
+
+  /**
+   * Computes, for each weekday, how many days ahead the next matching weekday is.
+   */
+  private static int[] gapsOf(int mask) {
+    int[] gaps = new int[7];
+    for (int day = 0; day < 7; day += 1) {
+      int gap = 1;
+      while ((mask & (1 << ((day + gap) % 7))) == 0) {
+        gap += 1;
+      }
+      gaps[day] = gap;
+    }
+    return gaps;
+  }
+}
@@ -0,0 +1,118 @@
+package calendar.model;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Finds free slots of a fixed length that no event of any of several calendars overlaps,
+ * optionally only within working hours and on weekdays.
+ *
+ * <p>The busy intervals of every calendar are converted into one timezone and merged in start
+ * order. A single sweep over them then yields the gaps in order, and each gap is cut into
+ * slots. Slots may begin the moment an event ends and end the moment the next one starts.</p>
+ */
+public class SlotFinder {
+
+  private final Duration length;
+  private final LocalTime dayStart;
+  private final LocalTime dayEnd;
+  private final boolean weekdaysOnly;
+
+  /**
+   * Constructs a SlotFinder.
+   *
+   * @param length       the length of each slot.
+   * @param dayStart     the earliest time of day a slot may start.
+   * @param dayEnd       the latest time of day a slot may end, where midnight means the end of
+   *                     the day.
+   * @param weekdaysOnly whether slots on Saturdays and Sundays should be skipped.
+   * @throws IllegalArgumentException if the length is not positive or the day is empty.
+   */
+  public SlotFinder(Duration length, LocalTime dayStart, LocalTime dayEnd,
+                    boolean weekdaysOnly) {
+    if (length.isZero() || length.isNegative()) {
+      throw new IllegalArgumentException("Slot length must be positive");
+    }
+    if (!dayEnd.equals(LocalTime.MIDNIGHT) && !dayEnd.isAfter(dayStart)) {
+      throw new IllegalArgumentException("Working hours must end after they start");
+    }
+    this.length = length;
+    this.dayStart = dayStart;
+    this.dayEnd = dayEnd;
+    this.weekdaysOnly = weekdaysOnly;
+  }
+
+  /**
+   * Finds the earliest free slots within a window across the given calendars.
+   *
+   * @param calendars the calendars that must all be free.
+   * @param zone      the timezone the window is given in and the slots are returned in.
+   * @param from      the start of the window.
+   * @param to        the end of the window.
+   * @param limit     the most slots to return.
+   * @return List of TimeSlots, in order.
+   */
+  public List<TimeSlot> find(List<CalendarModel> calendars, ZoneId zone,
+                             LocalDateTime from, LocalDateTime to, int limit) {
+    List<LocalDateTime[]> busy = new ArrayList<>();
+    for (CalendarModel calendar : calendars) {
+      ZoneId calendarZone = calendar.getZoneId();
+      LocalDateTime calendarFrom = Zones.convert(from, zone, calendarZone);
+      LocalDateTime calendarTo = Zones.convert(to, zone, calendarZone);
+      for (Event event : calendar.getEventsOverlapping(calendarFrom, calendarTo)) {
+        busy.add(new LocalDateTime[] {
+            Zones.convert(event.getStartDateTime(), calendarZone, zone),
+            Zones.convert(event.getEndDateTime(), calendarZone, zone)});
+      }
+    }
+    // Each calendar's intervals are already in start order, so this sort only merges runs.
+    busy.sort(Comparator.comparing(interval -> interval[0]));
+
+    List<TimeSlot> slots = new ArrayList<>();
+    LocalDateTime cursor = from;
+    for (LocalDateTime[] interval : busy) {
+      if (slots.size() >= limit) {
+        return slots;
+      }
+      if (interval[0].isAfter(cursor)) {
+        this.cutGap(cursor, interval[0].isBefore(to) ? interval[0] : to, slots, limit);
+      }
+      if (interval[1].isAfter(cursor)) {
+        cursor = interval[1];
+      }
+    }
+    this.cutGap(cursor, to, slots, limit);
+    return slots;
+  }
+
+  /**
+   * Cuts a gap between events into consecutive slots within working hours.
+   */
+  private void cutGap(LocalDateTime gapStart, LocalDateTime gapEnd, List<TimeSlot> slots,
+                      int limit) {
+    LocalDate last = gapEnd.toLocalDate();
+    for (LocalDate day = gapStart.toLocalDate(); !day.isAfter(last) && slots.size() < limit;
+         day = day.plusDays(1)) {
+      if (this.weekdaysOnly && (day.getDayOfWeek() == DayOfWeek.SATURDAY
+              || day.getDayOfWeek() == DayOfWeek.SUNDAY)) {
+        continue;
+      }
+      LocalDateTime open = day.atTime(this.dayStart);
+      LocalDateTime close = this.dayEnd.equals(LocalTime.MIDNIGHT)
+              ? day.plusDays(1).atStartOfDay() : day.atTime(this.dayEnd);
+      LocalDateTime slotStart = gapStart.isAfter(open) ? gapStart : open;
+      LocalDateTime windowEnd = gapEnd.isBefore(close) ? gapEnd : close;
+      while (!slotStart.plus(this.length).isAfter(windowEnd) && slots.size() < limit) {
+        slots.add(new TimeSlot(slotStart, slotStart.plus(this.length)));
+        slotStart = slotStart.plus(this.length);
+      }
+    }
+  }
+}
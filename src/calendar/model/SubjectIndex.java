@@ -0,0 +1,273 @@
+package calendar.model;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Indexes the events of a calendar by subject. Each subject maps to its events sorted by start
+ * time, so finding an event by subject and start is a hash probe followed by a binary search.
+ * A case-insensitive variant of the index is built the first time it is needed and kept up to
+ * date from then on.
+ */
+class SubjectIndex {
+
+  private final Map<String, List<Event>> bySubject;
+  private Map<String, List<Event>> byLowerSubject;
+
+  /**
+   * Constructs an empty SubjectIndex.
+   */
+  SubjectIndex() {
+    this.bySubject = new HashMap<>();
+    this.byLowerSubject = null;
+  }
+
+  /**
+   * Adds an event to this index under its current subject and start.
+   *
+   * @param event the event.
+   */
+  void add(Event event) {
+    insert(this.bySubject, event.getSubject(), event);
+    if (this.byLowerSubject != null) {
+      insert(this.byLowerSubject, lower(event.getSubject()), event);
+    }
+  }
+
+  /**
+   * Removes an event from this index.
+   *
+   * @param event   the event.
+   * @param subject the subject the event was indexed under.
+   * @param start   the start the event was indexed under.
+   */
+  void remove(Event event, String subject, LocalDateTime start) {
+    delete(this.bySubject, subject, start, event);
+    if (this.byLowerSubject != null) {
+      delete(this.byLowerSubject, lower(subject), start, event);
+    }
+  }
+
+  /**
+   * Adds many events to this index at once. Each affected subject is merged in a single pass
+   * instead of one insertion per event.
+   *
+   * @param events the events.
+   */
+  void addAll(List<Event> events) {
+    mergeAll(this.bySubject, events, false);
+    if (this.byLowerSubject != null) {
+      mergeAll(this.byLowerSubject, events, true);
+    }
+  }
+
+  /**
+   * Removes many events from this index at once. Each affected subject is filtered in a
+   * single pass instead of one removal per event.
+   *
+   * @param events   the events.
+   * @param subjects the subject each event was indexed under, in the same order.
+   */
+  void removeAll(List<Event> events, List<String> subjects) {
+    filterAll(this.bySubject, events, subjects, false);
+    if (this.byLowerSubject != null) {
+      filterAll(this.byLowerSubject, events, subjects, true);
+    }
+  }
+
+  /**
+   * Removes every event from this index.
+   */
+  void clear() {
+    this.bySubject.clear();
+    this.byLowerSubject = null;
+  }
+
+  /**
+   * Gets the number of distinct subjects indexed.
+   *
+   * @return int.
+   */
+  int size() {
+    return this.bySubject.size();
+  }
+
+  /**
+   * Finds the events with exactly the given subject that start at the given time.
+   *
+   * @param subject the subject.
+   * @param start   the start time.
+   * @return List of Events, empty if there are none.
+   */
+  List<Event> find(String subject, LocalDateTime start) {
+    List<Event> result = new ArrayList<>();
+    List<Event> list = this.bySubject.get(subject);
+    if (list == null) {
+      return result;
+    }
+    long second = start.toEpochSecond(ZoneOffset.UTC);
+    for (int i = lowerBound(list, second, start.getNano()); i < list.size(); i += 1) {
+      Event event = list.get(i);
+      if (event.compareStart(second, start.getNano()) != 0) {
+        break;
+      }
+      result.add(event);
+    }
+    return result;
+  }
+
+  /**
+   * Finds every event with the given subject, sorted by start time.
+   *
+   * @param subject    the subject.
+   * @param ignoreCase whether the subject should be matched ignoring case.
+   * @return List of Events, empty if there are none.
+   */
+  List<Event> findAll(String subject, boolean ignoreCase) {
+    List<Event> list;
+    if (ignoreCase) {
+      if (this.byLowerSubject == null) {
+        this.buildLowerIndex();
+      }
+      list = this.byLowerSubject.get(lower(subject));
+    } else {
+      list = this.bySubject.get(subject);
+    }
+    return list == null ? new ArrayList<>() : new ArrayList<>(list);
+  }
+
+  private void buildLowerIndex() {
+    this.byLowerSubject = new HashMap<>();
+    for (List<Event> list : this.bySubject.values()) {
+      for (Event event : list) {
+        insert(this.byLowerSubject, lower(event.getSubject()), event);
+      }
+    }
+  }
+
+  private static void mergeAll(Map<String, List<Event>> index, List<Event> events,
+                               boolean lowerKeys) {
+    Map<String, List<Event>> groups = new HashMap<>();
+    for (Event event : events) {
+      String key = lowerKeys ? lower(event.getSubject()) : event.getSubject();
+      groups.computeIfAbsent(key, k -> new ArrayList<>()).add(event);
+    }
+    for (Map.Entry<String, List<Event>> group : groups.entrySet()) {
+      List<Event> added = group.getValue();
+      added.sort(Event.BY_START);
+      List<Event> existing = index.get(group.getKey());
+      if (existing == null) {
+        index.put(group.getKey(), added);
+        continue;
+      }
+      List<Event> merged = new ArrayList<>(existing.size() + added.size());
+      int i = 0;
+      int j = 0;
+      while (i < existing.size() || j < added.size()) {
+        if (j == added.size() || (i < existing.size()
+                && existing.get(i).compareTo(added.get(j)) <= 0)) {
+          merged.add(existing.get(i));
+          i += 1;
+        } else {
+          merged.add(added.get(j));
+          j += 1;
+        }
+      }
+      index.put(group.getKey(), merged);
+    }
+  }
+
+  private static void filterAll(Map<String, List<Event>> index, List<Event> events,
+                                List<String> subjects, boolean lowerKeys) {
+    Map<String, Set<Event>> groups = new HashMap<>();
+    for (int i = 0; i < events.size(); i += 1) {
+      String key = lowerKeys ? lower(subjects.get(i)) : subjects.get(i);
+      groups.computeIfAbsent(key, k -> Collections.newSetFromMap(new IdentityHashMap<>()))
+              .add(events.get(i));
+    }
+    for (Map.Entry<String, Set<Event>> group : groups.entrySet()) {
+      List<Event> list = index.get(group.getKey());
+      if (list == null) {
+        continue;
+      }
+      Set<Event> removed = group.getValue();
+      list.removeIf(removed::contains);
+      if (list.isEmpty()) {
+        index.remove(group.getKey());
+      }
+    }
+  }
+
+  private static String lower(String subject) {
+    return subject.toLowerCase(Locale.ROOT);
+  }
+
+  private static void insert(Map<String, List<Event>> index, String key, Event event) {
+    List<Event> list = index.computeIfAbsent(key, k -> new ArrayList<>());
+    list.add(upperBound(list, event), event);
+  }
+
+  private static void delete(Map<String, List<Event>> index, String key,
+                             LocalDateTime start, Event event) {
+    List<Event> list = index.get(key);
+    if (list == null) {
+      return;
+    }
+    long second = start.toEpochSecond(ZoneOffset.UTC);
+    for (int i = lowerBound(list, second, start.getNano()); i < list.size(); i += 1) {
+      if (list.get(i) == event) {
+        list.remove(i);
+        break;
+      }
+      if (list.get(i).compareStart(second, start.getNano()) != 0) {
+        break;
+      }
+    }
+    if (list.isEmpty()) {
+      index.remove(key);
+    }
+  }
+
+  /**
+   * Finds the first position in a start-sorted list whose event does not start before the
+   * given time, given as seconds since the epoch and a fraction of a second.
+   */
+  private static int lowerBound(List<Event> list, long second, int nano) {
+    int low = 0;
+    int high = list.size();
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (list.get(mid).compareStart(second, nano) < 0) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * Finds the first position in a start-sorted list whose event starts after the given event.
+   */
+  private static int upperBound(List<Event> list, Event event) {
+    int low = 0;
+    int high = list.size();
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (list.get(mid).compareTo(event) > 0) {
+        high = mid;
+      } else {
+        low = mid + 1;
+      }
+    }
+    return low;
+  }
+}
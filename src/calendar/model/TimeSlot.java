@@ -0,0 +1,46 @@
+package calendar.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Represents a span of time with no events in it, as found by a SlotFinder.
+ */
+public final class TimeSlot {
+
+  private final LocalDateTime start;
+  private final LocalDateTime end;
+
+  /**
+   * Constructs a TimeSlot.
+   *
+   * @param start the start of the slot.
+   * @param end   the end of the slot.
+   */
+  public TimeSlot(LocalDateTime start, LocalDateTime end) {
+    this.start = start;
+    this.end = end;
+  }
+
+  /**
+   * Gets the start of this slot.
+   *
+   * @return LocalDateTime.
+   */
+  public LocalDateTime getStart() {
+    return this.start;
+  }
+
+  /**
+   * Gets the end of this slot.
+   *
+   * @return LocalDateTime.
+   */
+  public LocalDateTime getEnd() {
+    return this.end;
+  }
+
+  @Override
+  public String toString() {
+    return this.start + " to " + this.end;
+  }
+}
@@ -0,0 +1,57 @@
+package calendar.model;
+
+import java.time.LocalDate;
+
+/**
+ * Represents a range of dates that events are matched against. The bounds are worked out once,
+ * as minutes since the epoch, when the window is built, so matching an event is two comparisons
+ * of longs rather than parsing times and building date-times for every event.
+ *
+ * <p>An event is in the window when it starts before the day after the last date and ends after
+ * the last minute of the day before the first date, the same rule as Event.overlapsDate and
+ * Event.fallsBetweenDates.</p>
+ */
+public final class TimeWindow {
+
+  private static final long MINUTES_PER_DAY = 1440;
+
+  private final long after;
+  private final long before;
+
+  private TimeWindow(long after, long before) {
+    this.after = after;
+    this.before = before;
+  }
+
+  /**
+   * Creates a window covering a single date.
+   *
+   * @param date the date.
+   * @return TimeWindow.
+   */
+  public static TimeWindow ofDate(LocalDate date) {
+    return ofDates(date, date);
+  }
+
+  /**
+   * Creates a window covering a range of dates, both inclusive.
+   *
+   * @param from the first date.
+   * @param to   the last date.
+   * @return TimeWindow.
+   */
+  public static TimeWindow ofDates(LocalDate from, LocalDate to) {
+    return new TimeWindow(from.toEpochDay() * MINUTES_PER_DAY - 1,
+            (to.toEpochDay() + 1) * MINUTES_PER_DAY);
+  }
+
+  /**
+   * Determines if the given event is in this window.
+   *
+   * @param event the event.
+   * @return boolean describing result.
+   */
+  public boolean contains(Event event) {
+    return event.startMinute() < this.before && event.endMinute() > this.after;
+  }
+}
@@ -0,0 +1,507 @@
+package calendar.model;
+
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import calendar.controller.commands.CommandExecutionException;
+
+/**
+ * Remembers the changes made to the calendars of a manager so that they can be undone and
+ * redone one step at a time, where a step is everything one command changed.
+ *
+ * <p>A step does not copy the calendars. For each event the command touched, it keeps the
+ * version of the event from before the command and the series that held it, and for each
+ * calendar it touched, the name, timezone and overlap policy it had. Undoing a step puts those
+ * back, and records what they replaced as the step that redoes it, so both cost time and memory
+ * in proportion to the events the command touched. At most a fixed number of steps and of
+ * recorded events are kept; the oldest steps are forgotten first.</p>
+ *
+ * <p>Each session has a history of its own, and each thread records its own step, so commands
+ * run at the same time on different threads do not mix their changes. A calendar records its
+ * changes in whichever step is open on the thread changing it. The step of a command lasts
+ * until the next command on its thread starts, or until a step of its history is undone or
+ * redone, which first ends the steps of every thread recording into that history; so undo and
+ * redo must not run while other threads are running commands of the same history.</p>
+ *
+ * <p>When a step ends it also notes the events and calendars it left behind. A step is only
+ * undone or redone if they are still there, since otherwise another session has changed the
+ * same events since, and putting back the recorded versions would undo that session's work.
+ * Such a step is dropped instead.</p>
+ */
+class UndoHistory {
+
+  private static final int MAX_STEPS = 100;
+  private static final int MAX_EVENTS = 100000;
+  private static final ThreadLocal<Step> CURRENT = new ThreadLocal<>();
+
+  private final Map<String, CalendarModel> calendars;
+  private final Deque<Step> undoSteps;
+  private final Deque<Step> redoSteps;
+  private final Set<Step> commandSteps;
+  private int recordedEvents;
+
+  /**
+   * Constructs an empty UndoHistory for the given calendars.
+   *
+   * @param calendars the calendars of the manager, by name.
+   */
+  UndoHistory(Map<String, CalendarModel> calendars) {
+    this.calendars = calendars;
+    this.undoSteps = new ArrayDeque<>();
+    this.redoSteps = new ArrayDeque<>();
+    this.commandSteps = ConcurrentHashMap.newKeySet();
+    this.recordedEvents = 0;
+  }
+
+  /**
+   * Starts the step of the next command run on this thread, ending the step of the command run
+   * before it. Inside a step opened with begin, the command joins that step instead.
+   */
+  void next() {
+    Step step = openStep();
+    if (step != null && step.depth > 0) {
+      return;
+    }
+    if (step != null) {
+      step.history.close(step);
+    }
+    this.open(new Step(this));
+  }
+
+  /**
+   * Opens a step on this thread that lasts until the matching end, ending the step of the
+   * command run before it. Nested begins continue the step already opened.
+   */
+  void begin() {
+    Step step = openStep();
+    if (step == null || step.depth == 0) {
+      if (step != null) {
+        step.history.close(step);
+      }
+      step = new Step(this);
+      this.open(step);
+    }
+    step.depth += 1;
+  }
+
+  /**
+   * Opens a step like begin for a batch. Listeners of the calendars the step changes are not
+   * told of the changes until the step ends, and never if it is cancelled.
+   */
+  void beginBatch() {
+    this.begin();
+    openStep().batch = true;
+  }
+
+  /**
+   * Ends a begin. Once every begin has been ended, the step is kept if it changed anything.
+   */
+  void end() {
+    Step step = openStep();
+    if (step == null || step.depth == 0) {
+      return;
+    }
+    step.depth -= 1;
+    if (step.depth == 0) {
+      step.history.close(step);
+      if (step.batch) {
+        for (CalendarModelImpl calendar : step.states.keySet()) {
+          calendar.endBatch();
+        }
+      }
+    }
+  }
+
+  /**
+   * Ends the step of the command last run on this thread, if it was not opened with begin.
+   */
+  void endCommand() {
+    Step step = openStep();
+    if (step != null && step.depth == 0) {
+      step.history.close(step);
+    }
+  }
+
+  /**
+   * Undoes the changes of the step open on this thread, and stops recording it.
+   */
+  void cancel() {
+    Step step = openStep();
+    if (step == null) {
+      return;
+    }
+    UndoHistory history = step.history;
+    history.forget(step);
+    if (!step.isEmpty()) {
+      synchronized (history) {
+        history.apply(step);
+      }
+    }
+    if (step.batch) {
+      for (CalendarModelImpl calendar : step.states.keySet()) {
+        calendar.discardBatch();
+      }
+    }
+  }
+
+  /**
+   * Determines whether a step is being recorded on this thread.
+   *
+   * @return boolean describing result.
+   */
+  static boolean isRecording() {
+    return openStep() != null;
+  }
+
+  /**
+   * Notes where an event was before the step being recorded on this thread first changes it.
+   *
+   * @param calendar the calendar of the event.
+   * @param id       the id of the event.
+   * @param event    the event with that id in the calendar, or null if there is none.
+   * @param series   the series holding the event, or null if it is a single event.
+   */
+  static void recordEvent(CalendarModelImpl calendar, long id, Event event,
+                          EventSeries series) {
+    Step step = openStep();
+    if (step != null) {
+      step.stateOf(calendar).recordEvent(id, event, series);
+    }
+  }
+
+  /**
+   * Notes whether a series was in a calendar before the step being recorded first adds or
+   * removes it.
+   *
+   * @param calendar the calendar.
+   * @param series   the series.
+   * @param listed   whether the series was in the calendar.
+   */
+  static void recordSeries(CalendarModelImpl calendar, EventSeries series, boolean listed) {
+    Step step = openStep();
+    if (step != null) {
+      step.stateOf(calendar).recordSeries(series, listed);
+    }
+  }
+
+  /**
+   * Notes the name, timezone and overlap policy of a calendar before the step being recorded
+   * first changes them.
+   *
+   * @param calendar the calendar.
+   */
+  static void recordCalendar(CalendarModelImpl calendar) {
+    Step step = openStep();
+    if (step != null) {
+      step.stateOf(calendar);
+    }
+  }
+
+  /**
+   * Notes the name a calendar was listed under before the step being recorded first adds or
+   * renames it.
+   *
+   * @param calendar the calendar.
+   * @param name     the name it was listed under, or null if it was not listed.
+   */
+  static void recordName(CalendarModel calendar, String name) {
+    Step step = openStep();
+    if (step != null && !step.names.containsKey(calendar)) {
+      step.names.put(calendar, name);
+    }
+  }
+
+  /**
+   * Undoes the latest step, after ending the steps of the commands last run on every thread.
+   *
+   * @return whether there was a step to undo.
+   * @throws CommandExecutionException if another session has changed what the step changed
+   *                                   since, in which case the step is dropped.
+   */
+  synchronized boolean undo() throws CommandExecutionException {
+    this.closeCommands();
+    return this.move(this.undoSteps, this.redoSteps, "undo");
+  }
+
+  /**
+   * Redoes the latest undone step, after ending the steps of the commands last run on every
+   * thread.
+   *
+   * @return whether there was a step to redo.
+   * @throws CommandExecutionException if another session has changed what the step changed
+   *                                   since, in which case the step is dropped.
+   */
+  synchronized boolean redo() throws CommandExecutionException {
+    this.closeCommands();
+    return this.move(this.redoSteps, this.undoSteps, "redo");
+  }
+
+  private static Step openStep() {
+    Step step = CURRENT.get();
+    return step == null || step.closed ? null : step;
+  }
+
+  private void open(Step step) {
+    CURRENT.set(step);
+    this.commandSteps.add(step);
+  }
+
+  /**
+   * Stops recording the given step of this thread, and returns whether it was still open, as
+   * another thread may have ended it first.
+   */
+  private boolean forget(Step step) {
+    step.closed = true;
+    CURRENT.remove();
+    return this.commandSteps.remove(step);
+  }
+
+  private void close(Step step) {
+    if (this.forget(step) && !step.isEmpty()) {
+      step.seal();
+      this.push(step);
+    }
+  }
+
+  private void closeCommands() {
+    for (Step step : this.commandSteps) {
+      if (step.depth == 0 && this.commandSteps.remove(step)) {
+        step.closed = true;
+        if (!step.isEmpty()) {
+          step.seal();
+          this.push(step);
+        }
+      }
+    }
+  }
+
+  private boolean move(Deque<Step> from, Deque<Step> to, String action)
+          throws CommandExecutionException {
+    Step step = from.pollFirst();
+    if (step == null) {
+      return false;
+    }
+    this.recordedEvents -= step.size();
+    if (!step.isUnchanged()) {
+      throw new CommandExecutionException("Cannot " + action + ", another session has changed "
+              + "the same events since");
+    }
+    Step inverse = this.apply(step);
+    inverse.seal();
+    to.addFirst(inverse);
+    this.recordedEvents += inverse.size();
+    this.trim();
+    return true;
+  }
+
+  private synchronized void push(Step step) {
+    for (Step undone : this.redoSteps) {
+      this.recordedEvents -= undone.size();
+    }
+    this.redoSteps.clear();
+    this.undoSteps.addFirst(step);
+    this.recordedEvents += step.size();
+    this.trim();
+  }
+
+  private void trim() {
+    while (this.undoSteps.size() > MAX_STEPS || this.recordedEvents > MAX_EVENTS) {
+      Step oldest = this.undoSteps.isEmpty() ? this.redoSteps.pollLast()
+              : this.undoSteps.pollLast();
+      if (oldest == null) {
+        return;
+      }
+      this.recordedEvents -= oldest.size();
+    }
+  }
+
+  /**
+   * Puts back everything the given step recorded, and returns the step that would put back
+   * what it replaced.
+   */
+  private Step apply(Step step) {
+    Step inverse = new Step(this);
+    Map<CalendarModel, String> listedAs = new IdentityHashMap<>();
+    for (CalendarModel calendar : step.names.keySet()) {
+      listedAs.put(calendar, this.listedName(calendar));
+    }
+    for (Map.Entry<CalendarModelImpl, CalendarState> entry : step.states.entrySet()) {
+      entry.getKey().revert(entry.getValue(), inverse.stateOf(entry.getKey()));
+    }
+    for (Map.Entry<CalendarModel, String> entry : step.names.entrySet()) {
+      String name = listedAs.get(entry.getKey());
+      inverse.names.put(entry.getKey(), name);
+      if (name != null) {
+        this.calendars.remove(name, entry.getKey());
+      }
+    }
+    for (Map.Entry<CalendarModel, String> entry : step.names.entrySet()) {
+      if (entry.getValue() != null) {
+        this.calendars.put(entry.getValue(), entry.getKey());
+      }
+    }
+    return inverse;
+  }
+
+  /**
+   * Gets the name a calendar is listed under, or null if it is not listed.
+   */
+  private String listedName(CalendarModel calendar) {
+    String name = calendar.getName();
+    return this.calendars.get(name) == calendar ? name : null;
+  }
+
+  /**
+   * The changes of one command, as the states they replaced, and once it has ended, the states
+   * it left behind.
+   */
+  private static class Step {
+    private final UndoHistory history;
+    private final Map<CalendarModelImpl, CalendarState> states = new IdentityHashMap<>();
+    private final Map<CalendarModel, String> names = new IdentityHashMap<>();
+    private final Map<CalendarModelImpl, CalendarState> after = new IdentityHashMap<>();
+    private final Map<CalendarModel, String> namesAfter = new IdentityHashMap<>();
+    private int depth;
+    private boolean batch;
+    private volatile boolean closed;
+
+    Step(UndoHistory history) {
+      this.history = history;
+    }
+
+    CalendarState stateOf(CalendarModelImpl calendar) {
+      CalendarState state = this.states.get(calendar);
+      if (state == null) {
+        state = new CalendarState(calendar);
+        this.states.put(calendar, state);
+        if (this.batch) {
+          calendar.beginBatch();
+        }
+      }
+      return state;
+    }
+
+    boolean isEmpty() {
+      return this.states.isEmpty() && this.names.isEmpty();
+    }
+
+    /**
+     * Notes the states this step has left behind.
+     */
+    void seal() {
+      for (Map.Entry<CalendarModelImpl, CalendarState> entry : this.states.entrySet()) {
+        this.after.put(entry.getKey(), CalendarState.current(entry.getKey(), entry.getValue()));
+      }
+      for (CalendarModel calendar : this.names.keySet()) {
+        this.namesAfter.put(calendar, this.history.listedName(calendar));
+      }
+    }
+
+    /**
+     * Determines whether everything this step changed is still as it left it.
+     */
+    boolean isUnchanged() {
+      for (Map.Entry<CalendarModelImpl, CalendarState> entry : this.after.entrySet()) {
+        CalendarState now = CalendarState.current(entry.getKey(),
+                this.states.get(entry.getKey()));
+        if (!now.isSameAs(entry.getValue())) {
+          return false;
+        }
+      }
+      for (Map.Entry<CalendarModel, String> entry : this.namesAfter.entrySet()) {
+        if (!Objects.equals(this.history.listedName(entry.getKey()), entry.getValue())) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    int size() {
+      int size = this.names.size();
+      for (CalendarState state : this.states.values()) {
+        size += 1 + state.events.size();
+      }
+      return size;
+    }
+  }
+
+  /**
+   * What one calendar looked like before a step changed it: the events the step touched, as
+   * they were, and the calendar's own properties.
+   */
+  static class CalendarState {
+    final String name;
+    final ZoneId zoneId;
+    final boolean rejectOverlaps;
+    final Map<Long, Event> events;
+    final Map<Long, EventSeries> series;
+    final Map<EventSeries, Boolean> listed;
+
+    CalendarState(CalendarModelImpl calendar) {
+      this.name = calendar.getName();
+      this.zoneId = calendar.getZoneId();
+      this.rejectOverlaps = calendar.isRejectingOverlaps();
+      this.events = new LinkedHashMap<>();
+      this.series = new HashMap<>();
+      this.listed = new IdentityHashMap<>();
+    }
+
+    void recordEvent(long id, Event event, EventSeries series) {
+      if (this.events.containsKey(id)) {
+        return;
+      }
+      this.events.put(id, event);
+      if (series != null) {
+        this.series.put(id, series);
+      }
+    }
+
+    void recordSeries(EventSeries series, boolean listed) {
+      this.listed.putIfAbsent(series, listed);
+    }
+
+    /**
+     * Gets the state a calendar is in now, for the events and series the given state holds.
+     */
+    static CalendarState current(CalendarModelImpl calendar, CalendarState recorded) {
+      CalendarState state = new CalendarState(calendar);
+      for (Long id : recorded.events.keySet()) {
+        Event event = calendar.getEventById(id);
+        state.recordEvent(id, event, event == null ? null : calendar.getSeriesOf(event));
+      }
+      for (EventSeries series : recorded.listed.keySet()) {
+        state.recordSeries(series, calendar.getEventSeries().stream()
+                .anyMatch(listedSeries -> listedSeries == series));
+      }
+      return state;
+    }
+
+    /**
+     * Determines whether this state holds the same properties, and the very same events and
+     * series, as the given one.
+     */
+    boolean isSameAs(CalendarState other) {
+      if (!this.name.equals(other.name) || !this.zoneId.equals(other.zoneId)
+              || this.rejectOverlaps != other.rejectOverlaps
+              || !this.listed.equals(other.listed)
+              || !this.events.keySet().equals(other.events.keySet())) {
+        return false;
+      }
+      for (Map.Entry<Long, Event> entry : this.events.entrySet()) {
+        if (entry.getValue() != other.events.get(entry.getKey())
+                || this.series.get(entry.getKey()) != other.series.get(entry.getKey())) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+}
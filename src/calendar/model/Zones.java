@@ -0,0 +1,29 @@
+package calendar.model;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Helpers for moving local date-times between the timezones of different calendars.
+ */
+final class Zones {
+
+  private Zones() {
+  }
+
+  /**
+   * Converts a local date-time in one timezone into the local date-time of the same instant in
+   * another timezone.
+   *
+   * @param dateTime the date-time.
+   * @param from     the timezone the date-time is in.
+   * @param to       the timezone to convert to.
+   * @return LocalDateTime.
+   */
+  static LocalDateTime convert(LocalDateTime dateTime, ZoneId from, ZoneId to) {
+    if (from.equals(to)) {
+      return dateTime;
+    }
+    return dateTime.atZone(from).withZoneSameInstant(to).toLocalDateTime();
+  }
+}
@@ -236,7 +236,6 @@ public class CalendarSwingView extends JFrame implements CalendarGuiView {
 
         controller.addEvent(subjectField.getText(), startDateTime, endDateTime);
         dialog.dispose();
-        refreshEvents();
       } catch (Exception ex) {
         renderError("Invalid input: " + ex.getMessage());
       }
@@ -358,7 +357,6 @@ public class CalendarSwingView extends JFrame implements CalendarGuiView {
         Event editedEvent = new Event(subjectField.getText(), newStartDateTime, newEndDateTime);
         controller.editEvent(selectedEvent, editedEvent);
         dialog.dispose();
-        refreshEvents();
       } catch (Exception ex) {
         renderError("Invalid input: " + ex.getMessage());
       }
@@ -5,11 +5,13 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.io.PrintStream;
 
+import calendar.model.CommandTrace;
 import calendar.model.Event;
 
 
 /**
- * Text-based implementation of CalendarView that outputs to a PrintStream.
+ * Text-based implementation of CalendarView that outputs to a PrintStream. Each piece of output
+ * is recorded as a calendar.Render flight recorder event.
  */
 public class CalendarTextView implements CalendarView {
   private PrintStream out;
@@ -28,7 +30,10 @@ public class CalendarTextView implements CalendarView {
    * @param message the message to display
    */
   public void renderMessage(String message) {
+    RenderEvent render = new RenderEvent();
+    render.begin();
     this.out.println(message);
+    rendered(render, "message", 1);
   }
 
   /**
@@ -37,7 +42,10 @@ public class CalendarTextView implements CalendarView {
    * @param error the error message to display
    */
   public void renderError(String error) {
+    RenderEvent render = new RenderEvent();
+    render.begin();
     this.out.println("Error " + error);
+    rendered(render, "error", 1);
   }
 
   /**
@@ -46,6 +54,22 @@ public class CalendarTextView implements CalendarView {
    * @param eventsList the events to display
    */
   public void renderEvents(List<Event> eventsList) {
+    this.renderEvents(eventsList, false);
+  }
+
+  /**
+   * Displays a list of events in a formatted way, each followed by its id.
+   *
+   * @param eventsList the events to display
+   */
+  @Override
+  public void renderEventsWithIds(List<Event> eventsList) {
+    this.renderEvents(eventsList, true);
+  }
+
+  private void renderEvents(List<Event> eventsList, boolean ids) {
+    RenderEvent render = new RenderEvent();
+    render.begin();
     try {
       if (eventsList.isEmpty()) {
         out.println("No events found.");
@@ -53,6 +77,9 @@ public class CalendarTextView implements CalendarView {
         for (Event event : eventsList) {
           StringBuilder sb = new StringBuilder();
           event.toString(sb);
+          if (ids) {
+            sb.append(" [#").append(event.getId()).append("]");
+          }
           out.println(sb);
         }
       }
@@ -60,6 +87,7 @@ public class CalendarTextView implements CalendarView {
     catch (IOException e) {
       renderError(e.getMessage());
     }
+    rendered(render, "events", Math.max(1, eventsList.size()));
   }
 
   /**
@@ -69,10 +97,28 @@ public class CalendarTextView implements CalendarView {
    * @param dateTime the date and time being checked
    */
   public void renderBusyStatus(boolean busy, LocalDateTime dateTime) {
+    RenderEvent render = new RenderEvent();
+    render.begin();
     if (busy) {
       out.println("busy");
     } else {
       out.println("available");
     }
+    rendered(render, "busy status", 1);
+  }
+
+  /**
+   * Commits the flight recorder event of one piece of output, which is only filled in when
+   * recording is on.
+   */
+  private static void rendered(RenderEvent render, String output, int lines) {
+    render.end();
+    if (render.shouldCommit()) {
+      render.output = output;
+      render.commandType = CommandTrace.getType();
+      render.calendar = CommandTrace.getCalendar();
+      render.lines = lines;
+      render.commit();
+    }
   }
 }
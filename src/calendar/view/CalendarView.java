@@ -30,6 +30,16 @@ public interface CalendarView {
    */
   void renderEvents(List<Event> events);
 
+  /**
+   * Displays a list of events in a formatted way, with the id of each where the view can show
+   * it. Views that cannot show ids display the events as renderEvents does.
+   *
+   * @param events the events to display
+   */
+  default void renderEventsWithIds(List<Event> events) {
+    this.renderEvents(events);
+  }
+
   /**
    * Displays the busy status at a specific time.
    *
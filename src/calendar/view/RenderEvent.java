@@ -0,0 +1,30 @@
+package calendar.view;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event for writing one piece of output.
+ */
+@Name("calendar.Render")
+@Label("Render")
+@Category({"Calendar", "View"})
+@Description("Writing a message, error, list of events or busy status")
+@StackTrace(false)
+class RenderEvent extends jdk.jfr.Event {
+
+  @Label("Output")
+  String output;
+
+  @Label("Command Type")
+  String commandType;
+
+  @Label("Calendar")
+  String calendar;
+
+  @Label("Lines")
+  int lines;
+}
@@ -14,10 +14,20 @@ import java.io.FileReader;
 import java.io.PrintStream;
 import java.io.StringReader;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Scanner;
+import java.util.Set;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -141,6 +151,108 @@ public class HeadlessControllerTest {
     assertTrue(output.toString().contains("Meeting from 10:00 to 11:00 on 2024-03-15"));
   }
 
+  @Test
+  public void testEditEventById() {
+    StringReader reader = new StringReader("create calendar --name cal1 --timezone " +
+            "America/New_York\nuse calendar --name cal1\ncreate event Meeting from " +
+            "2024-03-15T10:00 to 2024-03-15T11:00\nexit\n");
+    this.controller = new HeadlessController(this.view, reader, this.parser);
+    this.controller.run();
+    long id = manager.getCalendar("cal1").getEvents().get(0).getId();
+
+    reader = new StringReader("use calendar --name cal1\nedit event subject #" + id
+            + " with Standup\nprint events on 2024-03-15\nprint events on 2024-03-15 --ids\n"
+            + "print events from 2024-03-15T00:00 to 2024-03-16T00:00 --ids\nexit\n");
+    this.controller = new HeadlessController(this.view, reader, this.parser);
+    this.controller.run();
+    assertEquals("Standup", manager.getCalendar("cal1").getEvents().get(0).getSubject());
+    String[] lines = output.toString().split("\\R");
+    List<String> printed = new ArrayList<>();
+    for (String line : lines) {
+      if (line.contains("Standup")) {
+        printed.add(line.substring(line.indexOf("Standup")));
+      }
+    }
+    assertEquals(Arrays.asList("Standup from 10:00 to 11:00 on 2024-03-15",
+            "Standup from 10:00 to 11:00 on 2024-03-15 [#" + id + "]",
+            "Standup from 10:00 to 11:00 on 2024-03-15 [#" + id + "]"), printed);
+  }
+
+  @Test
+  public void testFindEventsWithSubject() {
+    StringReader reader = new StringReader("create calendar --name cal1 --timezone " +
+            "America/New_York\nuse calendar --name cal1\ncreate event \"Team Sync\" from " +
+            "2024-03-15T10:00 to 2024-03-15T11:00\ncreate event Lunch from " +
+            "2024-03-15T12:00 to 2024-03-15T13:00\n" +
+            "find events with subject \"team sync\" --ignore-case\nexit\n");
+    this.controller = new HeadlessController(this.view, reader, this.parser);
+    this.controller.run();
+    String outputText = output.toString();
+    assertTrue(outputText.contains("Team Sync from 10:00 to 11:00 on 2024-03-15"));
+    assertFalse(outputText.contains("Lunch from"));
+  }
+
+  @Test
+  public void testFindSlots() {
+    StringReader reader = new StringReader("create calendar --name cal1 --timezone " +
+            "America/New_York\nuse calendar --name cal1\ncreate event Standup from " +
+            "2024-03-15T09:00 to 2024-03-15T10:00\n" +
+            "find slots 60 from 2024-03-15T00:00 to 2024-03-16T00:00 between 09:00 and 17:00 " +
+            "--limit 2\nexit\n");
+    this.controller = new HeadlessController(this.view, reader, this.parser);
+    this.controller.run();
+    String outputText = output.toString();
+    assertTrue(outputText.contains("2024-03-15T10:00 to 2024-03-15T11:00"));
+    assertTrue(outputText.contains("2024-03-15T11:00 to 2024-03-15T12:00"));
+    assertFalse(outputText.contains("2024-03-15T09:00 to"));
+    assertFalse(outputText.contains("2024-03-15T12:00 to"));
+  }
+
+  @Test
+  public void testShowOverlapsAndRejectPolicy() {
+    StringReader reader = new StringReader("create calendar --name cal1 --timezone " +
+            "America/New_York\nuse calendar --name cal1\ncreate event Standup from " +
+            "2024-03-15T09:00 to 2024-03-15T10:00\ncreate event Review from " +
+            "2024-03-15T09:30 to 2024-03-15T10:30\nshow overlaps\n" +
+            "edit calendar --name cal1 --property overlaps reject\ncreate event Lunch from " +
+            "2024-03-15T10:00 to 2024-03-15T11:00\nexit\n");
+    this.controller = new HeadlessController(this.view, reader, this.parser);
+    this.controller.run();
+    String outputText = output.toString();
+    assertTrue(outputText.contains("Overlap:"));
+    assertTrue(outputText.contains("Review from 09:30 to 10:30 on 2024-03-15"));
+    assertEquals(2, manager.getCalendar("cal1").getEvents().size());
+    assertTrue(manager.getCalendar("cal1").isRejectingOverlaps());
+  }
+
+  @Test
+  public void testPrintAgenda() {
+    StringReader reader = new StringReader("create calendar --name work --timezone " +
+            "America/New_York\ncreate calendar --name home --timezone America/Chicago\n" +
+            "use calendar --name home\ncreate event Gym from 2024-03-15T08:15 to " +
+            "2024-03-15T09:15\nuse calendar --name work\ncreate event Standup from " +
+            "2024-03-15T09:00 to 2024-03-15T09:30\nprint agenda on 2024-03-15\nexit\n");
+    this.controller = new HeadlessController(this.view, reader, this.parser);
+    this.controller.run();
+    String outputText = output.toString();
+    int standup = outputText.indexOf("[work] Standup from 09:00 to 09:30 on 2024-03-15");
+    int gym = outputText.indexOf("[home] Gym from 09:15 to 10:15 on 2024-03-15");
+    assertTrue(standup >= 0);
+    assertTrue(gym > standup);
+  }
+
+  @Test
+  public void testShowStatusAll() {
+    StringReader reader = new StringReader("create calendar --name work --timezone " +
+            "America/New_York\ncreate calendar --name home --timezone America/Chicago\n" +
+            "use calendar --name home\ncreate event Gym from 2024-03-15T08:00 to " +
+            "2024-03-15T09:00\nuse calendar --name work\n" +
+            "show status on 2024-03-15T09:30 --all\nexit\n");
+    this.controller = new HeadlessController(this.view, reader, this.parser);
+    this.controller.run();
+    assertTrue(output.toString().contains("Busy in home"));
+  }
+
   @Test
   public void testExitCommand() {
     StringReader reader = new StringReader("create calendar --name cal1 --timezone" +
@@ -431,4 +543,148 @@ public class HeadlessControllerTest {
     assertTrue(this.output.toString().contains("Error"));
   }
 
-}
\ No newline at end of file
+
+  @Test
+  public void testFailingCommandRollsBackBatch() {
+    StringReader reader = new StringReader("create calendar --name cal1 --timezone "
+            + "America/New_York\nuse calendar --name cal1\n"
+            + "create event Kept from 2024-03-14T10:00 to 2024-03-14T11:00\n"
+            + "begin\n"
+            + "create event Meeting from 2024-03-15T10:00 to 2024-03-15T11:00\n"
+            + "create event Meeting from 2024-03-15T10:00 to 2024-03-15T11:00\n"
+            + "create event Later from 2024-03-16T10:00 to 2024-03-16T11:00\n"
+            + "commit\n"
+            + "begin\n"
+            + "create event Review from 2024-03-17T10:00 to 2024-03-17T11:00\n"
+            + "commit\n"
+            + "exit\n");
+    this.controller = new HeadlessController(this.view, reader, this.parser);
+    this.controller.run();
+    String out = this.output.toString();
+    assertTrue(out.contains("Error Event already exists"));
+    assertTrue(out.contains("Error Batch failed, end it with commit or rollback"));
+    assertTrue(out.contains("Error Batch failed and was rolled back"));
+    List<Event> events = manager.getCalendar("cal1").getEvents();
+    assertEquals(2, events.size());
+    assertEquals("Kept", events.get(0).getSubject());
+    assertEquals("Review", events.get(1).getSubject());
+  }
+
+  @Test
+  public void testExitAndEndOfInputRollBackOpenBatch() {
+    StringReader reader = new StringReader("create calendar --name cal1 --timezone "
+            + "America/New_York\nuse calendar --name cal1\n"
+            + "begin\n"
+            + "create event Meeting from 2024-03-15T10:00 to 2024-03-15T11:00\n"
+            + "create event Meeting from 2024-03-15T10:00 to 2024-03-15T11:00\n"
+            + "exit\n");
+    this.controller = new HeadlessController(this.view, reader, this.parser);
+    this.controller.run();
+    assertFalse(this.output.toString().contains("File must end with 'exit' command"));
+    assertEquals(0, manager.getCalendar("cal1").getEvents().size());
+    assertFalse(manager.isInTransaction());
+
+    reader = new StringReader("begin\n"
+            + "create event Review from 2024-03-17T10:00 to 2024-03-17T11:00\n");
+    this.controller = new HeadlessController(this.view, reader, this.parser);
+    this.controller.run();
+    assertTrue(this.output.toString().contains("File must end with 'exit' command"));
+    assertEquals(0, manager.getCalendar("cal1").getEvents().size());
+    assertFalse(manager.isInTransaction());
+  }
+
+  @Test
+  public void testUndoAndRedoCommands() {
+    StringReader reader = new StringReader("create calendar --name cal1 --timezone "
+            + "America/New_York\nuse calendar --name cal1\n"
+            + "create event Meeting from 2025-06-16T10:00 to 2025-06-16T11:00 repeats "
+            + "M for 3 times\n"
+            + "edit series subject Meeting from 2025-06-16T10:00 with Standup\n"
+            + "create event Lunch from 2025-06-16T12:00 to 2025-06-16T13:00\n"
+            + "undo\n"
+            + "undo\n"
+            + "redo\n"
+            + "exit\n");
+    this.controller = new HeadlessController(this.view, reader, this.parser);
+    this.controller.run();
+    List<Event> events = manager.getCalendar("cal1").getEvents();
+    assertEquals(3, events.size());
+    for (Event event : events) {
+      assertEquals("Standup", event.getSubject());
+    }
+    assertEquals(3, manager.getCalendar("cal1").getEventSeries().get(0).getEvents().size());
+  }
+
+  @Test
+  public void testUndoBatchAsOneStep() {
+    StringReader reader = new StringReader("create calendar --name cal1 --timezone "
+            + "America/New_York\nuse calendar --name cal1\n"
+            + "create event Kept from 2024-03-14T10:00 to 2024-03-14T11:00\n"
+            + "begin\n"
+            + "create event Meeting from 2024-03-15T10:00 to 2024-03-15T11:00\n"
+            + "edit calendar --name cal1 --property name cal2\n"
+            + "commit\n"
+            + "undo\n"
+            + "undo\n"
+            + "undo\n"
+            + "undo\n"
+            + "undo\n"
+            + "exit\n");
+    this.controller = new HeadlessController(this.view, reader, this.parser);
+    this.controller.run();
+    assertTrue(this.output.toString().contains("Error Nothing to undo"));
+    assertTrue(manager.getCalendars().isEmpty());
+  }
+
+  @Test
+  public void testStatsShowsCommandsAndCalendars() {
+    StringReader reader = new StringReader("create calendar --name cal1 --timezone "
+            + "America/New_York\nuse calendar --name cal1\n"
+            + "create event Lunch from 2025-06-16T12:00 to 2025-06-16T13:00\n"
+            + "print events on 2025-06-16\n"
+            + "stats\n"
+            + "exit\n");
+    this.controller = new HeadlessController(this.view, reader, this.parser);
+    this.controller.run();
+    String out = this.output.toString();
+    assertTrue(out.contains("create event: count="));
+    assertTrue(out.contains("print events: count="));
+    assertTrue(out.contains("calendar cal1: queries=1 scanned=1"));
+  }
+
+  @Test
+  public void testFlightRecorderEventsAreTaggedWithCommandAndCalendar() throws IOException {
+    StringReader reader = new StringReader("create calendar --name cal1 --timezone "
+            + "America/New_York\nuse calendar --name cal1\n"
+            + "create event Lunch from 2025-06-16T12:00 to 2025-06-16T13:00\n"
+            + "print events on 2025-06-16\n"
+            + "exit\n");
+    Path file = Files.createTempFile("calendar", ".jfr");
+    try (Recording recording = new Recording()) {
+      for (String name : new String[] {"calendar.Parse", "calendar.Execute", "calendar.Query",
+        "calendar.Mutation", "calendar.Render"}) {
+        recording.enable(name).withoutThreshold();
+      }
+      recording.start();
+      this.controller = new HeadlessController(this.view, reader, this.parser);
+      this.controller.run();
+      recording.stop();
+      recording.dump(file);
+
+      Set<String> seen = new HashSet<>();
+      for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+        String name = event.getEventType().getName();
+        if (name.startsWith("calendar.") && "cal1".equals(event.getString("calendar"))) {
+          seen.add(name + " " + event.getString("commandType"));
+        }
+      }
+      assertTrue(seen.contains("calendar.Parse create event"));
+      assertTrue(seen.contains("calendar.Execute create event"));
+      assertTrue(seen.contains("calendar.Mutation create event"));
+      assertTrue(seen.contains("calendar.Query print events"));
+      assertTrue(seen.contains("calendar.Render print events"));
+    } finally {
+      Files.delete(file);
+    }
+  }
+}
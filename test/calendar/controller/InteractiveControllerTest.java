@@ -5,6 +5,7 @@ import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
 
+import calendar.model.CalendarChange;
 import calendar.model.CalendarManager;
 import calendar.view.CalendarTextView;
 import calendar.view.CalendarView;
@@ -12,6 +13,8 @@ import calendar.view.CalendarView;
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
 import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Testing class for the InteractiveController class.
@@ -168,4 +171,30 @@ public class InteractiveControllerTest {
     assertEquals(4, this.manager.getActiveCalendar().getEvents().size());
     assertEquals(true, output.toString().contains("Error"));
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testExitAndEndOfInputRollBackOpenBatch() {
+    List<List<CalendarChange>> heard = new ArrayList<>();
+    this.manager.addChangeListener(heard::add);
+    controller = new InteractiveController(view, createReader("create calendar --name cal1"
+            + " --timezone America/New_York\n"
+            + "use calendar --name cal1\n"
+            + "begin\n"
+            + "create event Review from 2024-11-08T13:30 to 2024-11-08T14:30\n"
+            + "exit\n"), parser);
+    controller.run();
+    assertEquals(0, this.manager.getActiveCalendar().getEvents().size());
+    assertEquals(false, this.manager.isInTransaction());
+
+    controller = new InteractiveController(view, createReader("begin\n"
+            + "create event Review from 2024-11-08T13:30 to 2024-11-08T14:30\n"), parser);
+    controller.run();
+    assertEquals(0, this.manager.getActiveCalendar().getEvents().size());
+    assertEquals(false, this.manager.isInTransaction());
+
+    controller = new InteractiveController(view, createReader(
+            "create event Review from 2024-11-08T13:30 to 2024-11-08T14:30\n"), parser);
+    controller.run();
+    assertEquals(1, heard.size());
+  }
+}
@@ -0,0 +1,74 @@
+package calendar.controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Test;
+
+/**
+ * Tests for LineReader.
+ */
+public class LineReaderTest {
+
+  @Test
+  public void testLineEnds() throws IOException {
+    LineReader reader = new LineReader(new StringReader("first\r\nsecond\n\nlast"));
+    assertEquals("first", reader.readLine());
+    assertEquals("second", reader.readLine());
+    assertEquals("", reader.readLine());
+    assertEquals("last", reader.readLine());
+    assertNull(reader.readLine());
+    assertNull(reader.readLine());
+  }
+
+  @Test
+  public void testLinesLongerThanTheBuffer() throws IOException {
+    String longLine = "x".repeat(20000);
+    LineReader reader = new LineReader(new StringReader("a\n" + longLine + "\nb\n"));
+    assertEquals("a", reader.readLine());
+    assertEquals(longLine, reader.readLine());
+    assertEquals("b", reader.readLine());
+    assertNull(reader.readLine());
+  }
+
+  @Test
+  public void testLineLimit() throws IOException {
+    LineReader reader = new LineReader(new StringReader("12345\n123456\n"), 5);
+    assertEquals("12345", reader.readLine());
+    try {
+      reader.readLine();
+      fail("Line longer than the limit was read");
+    } catch (IOException e) {
+      assertEquals("Line longer than 5 characters", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testFileAcrossBuffers() throws IOException {
+    StringBuilder script = new StringBuilder();
+    for (int i = 0; i < 20000; i += 1) {
+      script.append("create event Café ").append(i).append(" on 2025-05-05\n");
+    }
+    Path file = Files.createTempFile("commands", ".txt");
+    try {
+      Files.write(file, script.toString().getBytes(StandardCharsets.UTF_8));
+      try (LineReader reader = new LineReader(FileChannel.open(file),
+              StandardCharsets.UTF_8)) {
+        for (int i = 0; i < 20000; i += 1) {
+          assertEquals("create event Café " + i + " on 2025-05-05", reader.readLine());
+        }
+        assertNull(reader.readLine());
+      }
+    } finally {
+      Files.delete(file);
+    }
+  }
+}
@@ -0,0 +1,133 @@
+package calendar.controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import calendar.controller.commands.CommandExecutionException;
+import calendar.model.CalendarManager;
+import calendar.model.CalendarModel;
+import calendar.model.CalendarSession;
+
+/**
+ * Tests for LockedCommandParser, checking which calendar locks its commands hold from another
+ * thread.
+ */
+public class LockedCommandParserTest {
+
+  private CalendarManager manager;
+  private CalendarSession session;
+  private CalendarLocks locks;
+  private CalendarModel work;
+  private CalendarModel home;
+
+  @Before
+  public void setUp() throws CommandExecutionException {
+    this.manager = new CalendarManager();
+    this.manager.addCalendar("work", ZoneId.of("America/New_York"));
+    this.manager.addCalendar("home", ZoneId.of("Europe/Paris"));
+    this.work = this.manager.getCalendar("work");
+    this.home = this.manager.getCalendar("home");
+    this.session = this.manager.newSession();
+    this.session.switchToCalendar("work");
+    this.locks = new CalendarLocks(50);
+  }
+
+  /**
+   * Checks from another thread whether a lock is free.
+   */
+  private boolean isFree(Lock lock) {
+    AtomicBoolean free = new AtomicBoolean();
+    Thread other = new Thread(() -> {
+      if (lock.tryLock()) {
+        free.set(true);
+        lock.unlock();
+      }
+    });
+    other.start();
+    try {
+      other.join();
+    } catch (InterruptedException e) {
+      throw new IllegalStateException(e);
+    }
+    return free.get();
+  }
+
+  /**
+   * Runs a command through a LockedCommandParser, noting which locks are free while it runs.
+   */
+  private List<Boolean> freeWhileRunning(String input) throws CommandExecutionException {
+    List<Boolean> free = new ArrayList<>();
+    CommandParser parser = new LockedCommandParser(cmd -> () -> {
+      free.add(this.isFree(this.locks.of(this.work)));
+      free.add(this.isFree(this.locks.of(this.home)));
+      free.add(this.isFree(this.locks.catalog().readLock()));
+    }, this.session, this.locks);
+    parser.parse(input).execute();
+    return free;
+  }
+
+  @Test
+  public void testActiveCalendarCommandLocksOnlyThatCalendar()
+          throws CommandExecutionException {
+    assertEquals(List.of(false, true, true),
+            this.freeWhileRunning("create event Standup from 2025-05-05T09:00 to "
+                    + "2025-05-05T09:15"));
+    assertEquals(List.of(false, true, true),
+            this.freeWhileRunning("print events on 2025-05-05"));
+    assertEquals(List.of(false, true, true),
+            this.freeWhileRunning("show status on 2025-05-05T09:00"));
+    assertTrue(this.isFree(this.locks.of(this.work)));
+  }
+
+  @Test
+  public void testCommandsAcrossCalendarsLockEveryCalendar() throws CommandExecutionException {
+    assertEquals(List.of(false, false, false),
+            this.freeWhileRunning("copy events on 2025-05-05 --target home to 2025-05-06"));
+    assertEquals(List.of(false, false, false),
+            this.freeWhileRunning("create calendar --name play --timezone Europe/Paris"));
+    assertEquals(List.of(false, false, false), this.freeWhileRunning("undo"));
+    assertEquals(List.of(false, false, false),
+            this.freeWhileRunning("show status on 2025-05-05T09:00 --all"));
+    assertTrue(this.isFree(this.locks.catalog().readLock()));
+    assertTrue(this.isFree(this.locks.of(this.home)));
+  }
+
+  @Test
+  public void testSwitchingCalendarsLocksNothing() throws CommandExecutionException {
+    assertEquals(List.of(true, true, true), this.freeWhileRunning("use calendar --name home"));
+  }
+
+  @Test
+  public void testGivesUpOnCalendarHeldElsewhere() throws Exception {
+    Lock lock = this.locks.of(this.work);
+    Thread holder = new Thread(lock::lock);
+    holder.start();
+    holder.join();
+    List<String> parsed = new ArrayList<>();
+    CommandParser parser = new LockedCommandParser(cmd -> {
+      parsed.add(cmd);
+      return () -> { };
+    }, this.session, this.locks);
+    try {
+      parser.parse("print events on 2025-05-05");
+      fail("Expected the calendar to be busy");
+    } catch (CommandExecutionException e) {
+      assertEquals("Calendar is in use by another session, try again later", e.getMessage());
+    }
+    parser.parse("use calendar --name home").execute();
+    assertEquals(List.of("use calendar --name home"), parsed);
+    assertFalse(this.isFree(lock));
+    assertTrue(this.isFree(this.locks.catalog().readLock()));
+  }
+}
@@ -0,0 +1,80 @@
+package calendar.controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.io.StringReader;
+
+import org.junit.Test;
+
+import calendar.model.CalendarManager;
+import calendar.view.CalendarTextView;
+import calendar.view.CalendarView;
+
+/**
+ * Tests for ParallelHeadlessController, checked against the output of HeadlessController.
+ */
+public class ParallelHeadlessControllerTest {
+
+  private String runSequential(String script) {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    CalendarView view = new CalendarTextView(new PrintStream(output));
+    CommandParser parser = new CommandParserImpl(new CalendarManager(), view);
+    new HeadlessController(view, new StringReader(script), parser).run();
+    return output.toString();
+  }
+
+  private String runParallel(String script) {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    CalendarView view = new CalendarTextView(new PrintStream(output));
+    new ParallelHeadlessController(new CalendarManager(), view,
+            new LineReader(new StringReader(script)), 4).run();
+    return output.toString();
+  }
+
+  @Test
+  public void testInterleavedCalendarsMatchSequentialRun() {
+    StringBuilder script = new StringBuilder();
+    script.append("print events on 2025-05-05\n");
+    script.append("create calendar --name work --timezone America/New_York\n");
+    script.append("create calendar --name home --timezone Europe/Paris\n");
+    for (int day = 1; day <= 28; day += 1) {
+      String date = String.format("2025-05-%02d", day);
+      script.append("use calendar --name work\n");
+      script.append("create event Standup from ").append(date).append("T09:00 to ")
+              .append(date).append("T09:15\n");
+      script.append("edit event subject Standup from ").append(date)
+              .append("T09:00 to ").append(date).append("T09:15 with Daily\n");
+      script.append("print events on ").append(date).append("\n");
+      script.append("use calendar --name home\n");
+      script.append("create event Dinner from ").append(date).append("T19:00 to ")
+              .append(date).append("T20:00\n");
+      script.append("create event Dinner from ").append(date).append("T19:00 to ")
+              .append(date).append("T20:00\n");
+      script.append("print events on ").append(date).append("\n");
+      if (day % 7 == 0) {
+        script.append("copy events on ").append(date)
+                .append(" --target work to ").append(date).append("\n");
+        script.append("use calendar --name work\n");
+        script.append("print events on ").append(date).append("\n");
+      }
+    }
+    script.append("use calendar --name nowhere\n");
+    script.append("exit\n");
+
+    String expected = this.runSequential(script.toString());
+    assertTrue(expected.contains("Daily"));
+    assertEquals(expected, this.runParallel(script.toString()));
+  }
+
+  @Test
+  public void testMissingExit() {
+    String script = "create calendar --name work --timezone UTC\n"
+            + "use calendar --name work\n"
+            + "create event Review from 2025-05-05T10:00 to 2025-05-05T11:00\n";
+    assertEquals(this.runSequential(script), this.runParallel(script));
+    assertTrue(this.runParallel(script).contains("File must end with 'exit' command"));
+  }
+}
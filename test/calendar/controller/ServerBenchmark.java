@@ -0,0 +1,86 @@
+package calendar.controller;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+
+import calendar.model.CalendarManager;
+
+/**
+ * Load test for the server mode. Starts a ServerController on a free localhost port and fires
+ * requests at it from an in-process generator, keeping a fixed number in flight. One request
+ * in ten creates an event; the rest query a week of events. Run with the main method, giving
+ * the number of requests in flight as the optional argument.
+ */
+public class ServerBenchmark {
+
+  private static final int REQUESTS = 20000;
+  private static final int ROUNDS = 3;
+
+  /**
+   * Runs the load a few times and prints the throughput and failures of each round.
+   *
+   * @param args the number of requests in flight, 1000 if not given.
+   * @throws Exception if the server cannot be started.
+   */
+  public static void main(String[] args) throws Exception {
+    int inFlight = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+    CalendarManager manager = new CalendarManager();
+    manager.addCalendar("bench", ZoneId.of("America/New_York"));
+    ServerController server = new ServerController(manager, 0);
+    server.start();
+    try {
+      HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+      String base = "http://localhost:" + server.getPort() + "/calendars/bench/events";
+      for (int round = 0; round < ROUNDS; round += 1) {
+        long start = System.nanoTime();
+        int failed = load(client, base, inFlight, round);
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        System.out.printf("round %d: %d requests, %d in flight, %d ms, %.0f req/s, %d failed%n",
+                round, REQUESTS, inFlight, millis, REQUESTS * 1000.0 / Math.max(millis, 1),
+                failed);
+      }
+    } finally {
+      server.stop();
+    }
+  }
+
+  private static int load(HttpClient client, String base, int inFlight, int round)
+          throws Exception {
+    Semaphore permits = new Semaphore(inFlight);
+    List<CompletableFuture<Integer>> pending = new ArrayList<>(REQUESTS);
+    for (int i = 0; i < REQUESTS; i += 1) {
+      HttpRequest request;
+      if (i % 10 == 0) {
+        int day = 1 + (i / 10) % 28;
+        String time = String.format("2025-02-%02dT%02d:00", day, 8 + i % 9);
+        String end = String.format("2025-02-%02dT%02d:30", day, 8 + i % 9);
+        String body = "{\"subject\":\"load " + round + "-" + i + "\",\"start\":\"" + time
+                + "\",\"end\":\"" + end + "\"}";
+        request = HttpRequest.newBuilder(URI.create(base))
+                .POST(HttpRequest.BodyPublishers.ofString(body)).build();
+      } else {
+        request = HttpRequest.newBuilder(URI.create(
+                base + "?from=2025-02-03T00:00&to=2025-02-09T23:59")).GET().build();
+      }
+      permits.acquire();
+      pending.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+              .handle((response, error) -> {
+                permits.release();
+                return error == null && response.statusCode() < 300 ? 0 : 1;
+              }));
+    }
+    int failed = 0;
+    for (CompletableFuture<Integer> result : pending) {
+      failed += result.get();
+    }
+    return failed;
+  }
+}
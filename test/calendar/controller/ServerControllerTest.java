@@ -0,0 +1,149 @@
+package calendar.controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import calendar.controller.commands.CommandExecutionException;
+import calendar.model.CalendarManager;
+
+/**
+ * Tests for ServerController, run against a server on a free localhost port.
+ */
+public class ServerControllerTest {
+
+  private CalendarManager manager;
+  private ServerController server;
+  private HttpClient client;
+
+  @Before
+  public void setUp() throws IOException, CommandExecutionException {
+    this.manager = new CalendarManager();
+    this.manager.addCalendar("work", ZoneId.of("America/New_York"));
+    this.server = new ServerController(this.manager, 0, 4);
+    this.server.start();
+    this.client = HttpClient.newHttpClient();
+  }
+
+  @After
+  public void tearDown() {
+    this.server.stop();
+  }
+
+  private HttpResponse<String> send(String method, String path, String body)
+          throws IOException, InterruptedException {
+    HttpRequest request = HttpRequest.newBuilder(
+                    URI.create("http://localhost:" + this.server.getPort() + path))
+            .method(method, body == null ? HttpRequest.BodyPublishers.noBody()
+                    : HttpRequest.BodyPublishers.ofString(body))
+            .build();
+    return this.client.send(request, HttpResponse.BodyHandlers.ofString());
+  }
+
+  @Test
+  public void testCalendarEndpoints() throws Exception {
+    HttpResponse<String> created = this.send("POST", "/calendars",
+            "{\"name\": \"home\", \"timezone\": \"Europe/Paris\"}");
+    assertEquals(201, created.statusCode());
+    assertEquals("{\"name\":\"home\",\"timezone\":\"Europe/Paris\"}", created.body());
+
+    HttpResponse<String> edited = this.send("PUT", "/calendars/home",
+            "{\"property\": \"name\", \"value\": \"house\"}");
+    assertEquals(200, edited.statusCode());
+    assertTrue(edited.body().contains("\"name\":\"house\""));
+
+    HttpResponse<String> listed = this.send("GET", "/calendars", null);
+    assertEquals("[{\"name\":\"house\",\"timezone\":\"Europe/Paris\"},"
+            + "{\"name\":\"work\",\"timezone\":\"America/New_York\"}]", listed.body());
+
+    assertEquals(400, this.send("POST", "/calendars",
+            "{\"name\": \"work\", \"timezone\": \"UTC\"}").statusCode());
+    assertEquals(405, this.send("DELETE", "/calendars", null).statusCode());
+    assertEquals(404, this.send("GET", "/calendars/work/nothing", null).statusCode());
+    assertEquals(404, this.send("POST", "/calendars/work/use", null).statusCode());
+  }
+
+  @Test
+  public void testEventEndpoints() throws Exception {
+    HttpResponse<String> created = this.send("POST", "/calendars/work/events",
+            "{\"subject\": \"Review\", \"start\": \"2025-05-05T10:00\","
+                    + " \"end\": \"2025-05-05T11:00\", \"location\": \"Room \\\"A\\\"\"}");
+    assertEquals(201, created.statusCode());
+    long id = this.manager.getCalendar("work").getEvents().get(0).getId();
+    assertEquals("{\"id\":" + id + ",\"subject\":\"Review\",\"start\":\"2025-05-05T10:00\","
+            + "\"end\":\"2025-05-05T11:00\",\"location\":\"Room \\\"A\\\"\"}", created.body());
+
+    HttpResponse<String> edited = this.send("PATCH", "/calendars/work/events/" + id,
+            "{\"property\": \"subject\", \"value\": \"Design review\"}");
+    assertEquals(200, edited.statusCode());
+    assertTrue(edited.body().contains("\"subject\":\"Design review\""));
+
+    HttpResponse<String> found = this.send("GET",
+            "/calendars/work/events?from=2025-05-05T10%3A30&to=2025-05-05T12:00", null);
+    assertEquals(200, found.statusCode());
+    assertTrue(found.body().startsWith("[{\"id\":" + id + ",\"subject\":\"Design review\""));
+    assertEquals("[]", this.send("GET",
+            "/calendars/work/events?from=2025-05-06T00:00&to=2025-05-07T00:00", null).body());
+
+    assertEquals(400, this.send("POST", "/calendars/work/events",
+            "{\"subject\": \"Bad\", \"start\": \"2025-05-05T12:00\"}").statusCode());
+    assertEquals(400, this.send("PATCH", "/calendars/work/events/" + (id + 1000),
+            "{\"property\": \"subject\", \"value\": \"x\"}").statusCode());
+  }
+
+  @Test
+  public void testConcurrentCreatesAreAllApplied() throws Exception {
+    List<CompletableFuture<HttpResponse<String>>> pending = new ArrayList<>();
+    for (int i = 0; i < 200; i += 1) {
+      String body = "{\"subject\": \"e" + i + "\", \"start\": \"2025-06-01T09:00\","
+              + " \"end\": \"2025-06-01T10:00\"}";
+      pending.add(this.client.sendAsync(HttpRequest.newBuilder(URI.create(
+                      "http://localhost:" + this.server.getPort() + "/calendars/work/events"))
+              .POST(HttpRequest.BodyPublishers.ofString(body)).build(),
+              HttpResponse.BodyHandlers.ofString()));
+    }
+    for (CompletableFuture<HttpResponse<String>> response : pending) {
+      assertEquals(201, response.get().statusCode());
+    }
+    assertEquals(200, this.manager.getCalendar("work").getEvents().size());
+  }
+
+  @Test
+  public void testConcurrentRequestsOnSeveralCalendars() throws Exception {
+    this.manager.addCalendar("home", ZoneId.of("Europe/Paris"));
+    List<CompletableFuture<HttpResponse<String>>> pending = new ArrayList<>();
+    for (int i = 0; i < 200; i += 1) {
+      String calendar = i % 2 == 0 ? "work" : "home";
+      String body = "{\"subject\": \"e" + i + "\", \"start\": \"2025-06-01T09:00\","
+              + " \"end\": \"2025-06-01T10:00\"}";
+      pending.add(this.client.sendAsync(HttpRequest.newBuilder(URI.create(
+                      "http://localhost:" + this.server.getPort() + "/calendars/" + calendar
+                              + "/events"))
+              .POST(HttpRequest.BodyPublishers.ofString(body)).build(),
+              HttpResponse.BodyHandlers.ofString()));
+      if (i % 20 == 0) {
+        pending.add(this.client.sendAsync(HttpRequest.newBuilder(URI.create(
+                        "http://localhost:" + this.server.getPort() + "/calendars"))
+                .GET().build(), HttpResponse.BodyHandlers.ofString()));
+      }
+    }
+    for (CompletableFuture<HttpResponse<String>> response : pending) {
+      assertTrue(response.get().statusCode() < 300);
+    }
+    assertEquals(100, this.manager.getCalendar("work").getEvents().size());
+    assertEquals(100, this.manager.getCalendar("home").getEvents().size());
+  }
+}
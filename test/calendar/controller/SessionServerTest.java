@@ -0,0 +1,165 @@
+package calendar.controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import calendar.model.CalendarManager;
+
+/**
+ * Tests for SessionServer, run against a server on a free localhost port.
+ */
+public class SessionServerTest {
+
+  private CalendarManager manager;
+  private SessionServer server;
+
+  @Before
+  public void setUp() throws IOException {
+    this.manager = new CalendarManager();
+    this.server = new SessionServer(this.manager, 0, 2);
+    this.server.start();
+  }
+
+  @After
+  public void tearDown() {
+    this.server.stop();
+  }
+
+  /**
+   * A connected test client.
+   */
+  private class Client {
+    private final Socket socket;
+    private final PrintWriter out;
+    private final BufferedReader in;
+
+    Client() throws IOException {
+      this.socket = new Socket("localhost", SessionServerTest.this.server.getPort());
+      this.socket.setSoTimeout(5000);
+      this.out = new PrintWriter(this.socket.getOutputStream(), true, StandardCharsets.UTF_8);
+      this.in = new BufferedReader(new InputStreamReader(this.socket.getInputStream(),
+              StandardCharsets.UTF_8));
+    }
+
+    void send(String line) {
+      this.out.println(line);
+    }
+
+    String read() throws IOException {
+      return this.in.readLine();
+    }
+
+    void close() throws IOException {
+      this.socket.close();
+    }
+  }
+
+  @Test
+  public void testSessionsHaveTheirOwnActiveCalendar() throws IOException {
+    Client first = new Client();
+    Client second = new Client();
+    first.send("create calendar --name work --timezone America/New_York");
+    first.send("use calendar --name work");
+    first.send("create event Standup from 2025-05-05T09:00 to 2025-05-05T09:15");
+    first.send("print events on 2025-05-05");
+    assertTrue(first.read().startsWith("• Standup from 09:00 to 09:15 on 2025-05-05"));
+
+    second.send("print events on 2025-05-05");
+    assertEquals("Error Invalid command", second.read());
+    second.send("create calendar --name home --timezone Europe/Paris");
+    second.send("use calendar --name home");
+    second.send("print events on 2025-05-05");
+    assertEquals("No events found.", second.read());
+
+    first.send("print events on 2025-05-05");
+    assertTrue(first.read().startsWith("• Standup"));
+    assertEquals(2, this.manager.getCalendars().size());
+    assertEquals(null, this.manager.getActiveCalendar());
+    first.close();
+    second.close();
+  }
+
+  @Test
+  public void testRenameBySomeoneElseKeepsActiveCalendar() throws IOException {
+    Client first = new Client();
+    Client second = new Client();
+    first.send("create calendar --name work --timezone America/New_York");
+    first.send("use calendar --name work");
+    first.send("print events on 2025-05-05");
+    assertEquals("No events found.", first.read());
+    second.send("edit calendar --name work --property name office");
+    second.send("use calendar --name office");
+    second.send("create event Review from 2025-05-05T10:00 to 2025-05-05T11:00");
+    second.send("print events on 2025-05-05");
+    assertTrue(second.read().startsWith("• Review"));
+    first.send("print events on 2025-05-05");
+    assertTrue(first.read().startsWith("• Review"));
+    first.close();
+    second.close();
+  }
+
+  @Test
+  public void testBatchKeepsOtherSessionsOffItsCalendars() throws Exception {
+    this.server.stop();
+    this.server = new SessionServer(this.manager, 0, 2, 200);
+    this.server.start();
+    Client first = new Client();
+    Client second = new Client();
+    first.send("create calendar --name work --timezone America/New_York");
+    first.send("create calendar --name home --timezone Europe/Paris");
+    first.send("use calendar --name work");
+    first.send("begin");
+    first.send("create event Standup from 2025-05-05T09:00 to 2025-05-05T09:15");
+    first.send("print events on 2025-05-05");
+    assertTrue(first.read().startsWith("• Standup"));
+
+    second.send("use calendar --name work");
+    second.send("print events on 2025-05-05");
+    assertEquals("Error Calendar is in use by another session, try again later",
+            second.read());
+    second.send("begin");
+    second.send("use calendar --name home");
+    second.send("create event Swim from 2025-05-05T07:00 to 2025-05-05T08:00");
+    second.send("commit");
+    second.send("print events on 2025-05-05");
+    assertTrue(second.read().startsWith("• Swim"));
+
+    first.close();
+    while (this.server.getSessionCount() > 1) {
+      Thread.sleep(10);
+    }
+    second.send("use calendar --name work");
+    second.send("print events on 2025-05-05");
+    assertEquals("No events found.", second.read());
+    second.send("create event Review from 2025-05-05T10:00 to 2025-05-05T11:00");
+    second.send("print events on 2025-05-05");
+    assertTrue(second.read().startsWith("• Review"));
+    assertEquals(1, this.manager.getCalendar("home").getEvents().size());
+    second.close();
+  }
+
+  @Test
+  public void testSessionLimitAndLongLines() throws IOException {
+    Client first = new Client();
+    Client second = new Client();
+    Client third = new Client();
+    assertEquals("Error Server is full, try again later", third.read());
+    assertEquals(null, third.read());
+
+    first.send("x".repeat(5000));
+    assertEquals(null, first.read());
+    second.send("exit");
+    assertEquals(null, second.read());
+  }
+}
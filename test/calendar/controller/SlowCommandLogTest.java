@@ -0,0 +1,120 @@
+package calendar.controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import calendar.model.CalendarManager;
+import calendar.view.CalendarTextView;
+import calendar.view.CalendarView;
+
+/**
+ * Tests for SlowCommandLog.
+ */
+public class SlowCommandLogTest {
+
+  private Path directory;
+  private Path file;
+
+  @Before
+  public void setUp() throws IOException {
+    this.directory = Files.createTempDirectory("slow-log");
+    this.file = this.directory.resolve("slow.log");
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    try (Stream<Path> files = Files.list(this.directory)) {
+      for (Path path : (Iterable<Path>) files::iterator) {
+        Files.delete(path);
+      }
+    }
+    Files.delete(this.directory);
+  }
+
+  @Test
+  public void testLogsCommandsOverThreshold() throws IOException {
+    CalendarManager manager = new CalendarManager();
+    CalendarView view = new CalendarTextView(new PrintStream(new ByteArrayOutputStream()));
+    HeadlessController controller = new HeadlessController(view, new StringReader(
+            "create calendar --name work --timezone UTC\n"
+                    + "use calendar --name work\n"
+                    + "create event Lunch from 2025-06-16T12:00 to 2025-06-16T13:00\n"
+                    + "print events on 2025-06-16\n"
+                    + "exit\n"), new CommandParserImpl(manager, view));
+    try (SlowCommandLog log = new SlowCommandLog(this.file, 0)) {
+      controller.setSlowCommandLog(log);
+      controller.run();
+    }
+
+    List<String> lines = Files.readAllLines(this.file, StandardCharsets.UTF_8);
+    assertEquals(5, lines.size());
+    assertTrue(lines.get(2).contains("command=CreateEventCommand calendar=work size=1 "
+            + "touched=1 input=create event Lunch"));
+    assertTrue(lines.get(3).contains("command=PrintEventOnDateCommand calendar=work size=1 "
+            + "touched=1 input=print events on 2025-06-16"));
+    assertTrue(lines.get(4).contains("command=QuitCommand"));
+  }
+
+  @Test
+  public void testLogsParallelHeadlessCommands() throws IOException {
+    CalendarView view = new CalendarTextView(new PrintStream(new ByteArrayOutputStream()));
+    ParallelHeadlessController controller = new ParallelHeadlessController(
+            new CalendarManager(), view, new LineReader(new StringReader(
+            "create calendar --name work --timezone UTC\n"
+                    + "create calendar --name home --timezone UTC\n"
+                    + "use calendar --name work\n"
+                    + "create event Lunch from 2025-06-16T12:00 to 2025-06-16T13:00\n"
+                    + "use calendar --name home\n"
+                    + "create event Dinner from 2025-06-16T19:00 to 2025-06-16T20:00\n"
+                    + "exit\n")), 2);
+    try (SlowCommandLog log = new SlowCommandLog(this.file, 0)) {
+      controller.setSlowCommandLog(log);
+      controller.run();
+    }
+
+    String logged = Files.readString(this.file, StandardCharsets.UTF_8);
+    assertEquals(7, logged.lines().count());
+    assertTrue(logged.contains("command=CreateEventCommand calendar=work size=1 touched=1 "
+            + "input=create event Lunch"));
+    assertTrue(logged.contains("command=CreateEventCommand calendar=home size=1 touched=1 "
+            + "input=create event Dinner"));
+  }
+
+  @Test
+  public void testSkipsFastCommands() throws IOException {
+    try (SlowCommandLog log = new SlowCommandLog(this.file, 60_000)) {
+      log.record("use calendar --name work", "UseCalendarCommand", System.nanoTime());
+    }
+    assertEquals(0, Files.size(this.file));
+  }
+
+  @Test
+  public void testRotatesFiles() throws IOException {
+    try (SlowCommandLog log = new SlowCommandLog(this.file, 0, 200, 2)) {
+      for (int i = 0; i < 20; i += 1) {
+        log.record("print events on 2025-06-" + (10 + i), "PrintEventOnDateCommand", 0);
+      }
+    }
+    assertTrue(Files.exists(this.file));
+    assertTrue(Files.exists(this.directory.resolve("slow.log.1")));
+    assertTrue(Files.exists(this.directory.resolve("slow.log.2")));
+    assertFalse(Files.exists(this.directory.resolve("slow.log.3")));
+    List<String> newest = Files.readAllLines(this.file, StandardCharsets.UTF_8);
+    assertTrue(newest.get(newest.size() - 1).endsWith("input=print events on 2025-06-29"));
+  }
+}
@@ -0,0 +1,70 @@
+package calendar.controller.commands;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+/**
+ * Tests for CommandMetrics and its latency histograms.
+ */
+public class CommandMetricsTest {
+
+  @Test
+  public void testTypeIsLongestKnownKeyword() {
+    assertEquals("create event", CommandMetrics.typeOf("create event A on 2025-05-05"));
+    assertEquals("edit events", CommandMetrics.typeOf("edit events subject A from x with B"));
+    assertEquals("edit event", CommandMetrics.typeOf("Edit Event subject A from x to y with B"));
+    assertEquals("undo", CommandMetrics.typeOf("  undo "));
+    assertEquals("other", CommandMetrics.typeOf("launch rockets"));
+  }
+
+  @Test
+  public void testExecuteCountsCommandsAndErrors() {
+    CommandMetrics metrics = new CommandMetrics();
+    try {
+      metrics.execute("undo", () -> { });
+      metrics.execute("undo", () -> {
+        throw new CommandExecutionException("Nothing to undo");
+      });
+      fail("Failing command did not throw");
+    } catch (CommandExecutionException e) {
+      assertEquals("Nothing to undo", e.getMessage());
+    }
+    CommandStats stats = metrics.getStats("undo");
+    assertEquals(2, stats.getCount());
+    assertEquals(1, stats.getErrors());
+    assertEquals(2, metrics.getTotalCount());
+    assertEquals(1, metrics.getTotalErrors());
+    assertEquals(1, metrics.getCommandStats().size());
+    assertTrue(stats.toString().startsWith("undo: count=2 errors=1"));
+  }
+
+  @Test
+  public void testHistogramBucketsCoverEveryValue() {
+    int previous = -1;
+    for (long value = 0; value < 100000; value += 1) {
+      int bucket = LatencyHistogram.bucketOf(value);
+      assertTrue(bucket == previous || bucket == previous + 1);
+      assertTrue(LatencyHistogram.highestValueOf(bucket) >= value);
+      previous = bucket;
+    }
+    assertEquals(Long.MAX_VALUE,
+            LatencyHistogram.highestValueOf(LatencyHistogram.bucketOf(Long.MAX_VALUE)));
+  }
+
+  @Test
+  public void testHistogramPercentilesAreWithinBucketPrecision() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (long micros = 1; micros <= 1000; micros += 1) {
+      histogram.record(micros * 1000);
+    }
+    assertEquals(1000, histogram.getCount());
+    assertEquals(500500.0, histogram.getMean(), 0.001);
+    assertEquals(1_000_000, histogram.getMax());
+    assertEquals(500_000, histogram.getValueAt(0.5), 500_000 / 16);
+    assertEquals(990_000, histogram.getValueAt(0.99), 990_000 / 16);
+    assertEquals(1_000_000, histogram.getValueAt(1));
+  }
+}
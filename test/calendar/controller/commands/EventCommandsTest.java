@@ -267,9 +267,9 @@ public class EventCommandsTest {
   public void testCopyEventPreservesAllProperties() throws CommandExecutionException {
     Event originalEvent = new Event("Complex Board Meeting",
             LocalDateTime.of(2025, 2, 14, 9, 0),
-            LocalDateTime.of(2025, 2, 14, 12, 0));
-    originalEvent.modifyProperty("location", "Executive Conference Room");
-    originalEvent.modifyProperty("description", "Q4 Results and 2025 Planning");
+            LocalDateTime.of(2025, 2, 14, 12, 0))
+            .with("location", "Executive Conference Room")
+            .with("description", "Q4 Results and 2025 Planning");
     this.cal1.addEvent(originalEvent);
 
     CopyEventCommand cmd = new CopyEventCommand(this.manager, "Complex Board Meeting",
@@ -5,8 +5,15 @@ import org.junit.Before;
 import org.junit.Test;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
 import calendar.controller.commands.CommandExecutionException;
 
 /**
@@ -66,4 +73,227 @@ public class CalendarManagerTest {
     this.manager.addCalendar("testCal", ZoneId.of("America/New_York"));
     this.manager.updateTimezone("testCal", "Invalid/BadZone");
   }
+
+  @Test
+  public void testFindFreeSlotsAcrossZones() throws CommandExecutionException {
+    this.manager.addCalendar("Work", ZoneId.of("America/New_York"));
+    this.manager.addCalendar("Home", ZoneId.of("America/Los_Angeles"));
+    this.manager.getCalendar("Work").addEvent(new Event("Standup",
+            LocalDateTime.of(2025, 6, 16, 9, 0), LocalDateTime.of(2025, 6, 16, 10, 0)));
+    // 07:30 to 08:00 in Los Angeles is 10:30 to 11:00 in New York.
+    this.manager.getCalendar("Home").addEvent(new Event("School run",
+            LocalDateTime.of(2025, 6, 16, 7, 30), LocalDateTime.of(2025, 6, 16, 8, 0)));
+    SlotFinder finder = new SlotFinder(Duration.ofMinutes(30), LocalTime.of(9, 0),
+            LocalTime.of(17, 0), true);
+
+    List<TimeSlot> slots = this.manager.findFreeSlots(Arrays.asList("Work", "Home"), finder,
+            ZoneId.of("America/New_York"), LocalDateTime.of(2025, 6, 16, 0, 0),
+            LocalDateTime.of(2025, 6, 23, 0, 0), 3);
+
+    assertEquals(3, slots.size());
+    assertEquals(LocalDateTime.of(2025, 6, 16, 10, 0), slots.get(0).getStart());
+    assertEquals(LocalDateTime.of(2025, 6, 16, 11, 0), slots.get(1).getStart());
+    assertEquals(LocalDateTime.of(2025, 6, 16, 11, 30), slots.get(2).getStart());
+  }
+
+  @Test
+  public void testFindFreeSlotsSkipsWeekends() throws CommandExecutionException {
+    this.manager.addCalendar("Work", ZoneId.of("America/New_York"));
+    SlotFinder finder = new SlotFinder(Duration.ofHours(8), LocalTime.of(9, 0),
+            LocalTime.of(17, 0), true);
+
+    List<TimeSlot> slots = this.manager.findFreeSlots(Arrays.asList("Work"), finder,
+            ZoneId.of("America/New_York"), LocalDateTime.of(2025, 6, 20, 12, 0),
+            LocalDateTime.of(2025, 6, 24, 0, 0), 10);
+
+    assertEquals(1, slots.size());
+    assertEquals(LocalDateTime.of(2025, 6, 23, 9, 0), slots.get(0).getStart());
+    assertEquals(LocalDateTime.of(2025, 6, 23, 17, 0), slots.get(0).getEnd());
+  }
+
+  @Test
+  public void testMergedAgendaInterleavesCalendarsInOneZone() throws CommandExecutionException {
+    this.manager.addCalendar("Work", ZoneId.of("America/New_York"));
+    this.manager.addCalendar("Home", ZoneId.of("America/Los_Angeles"));
+    this.manager.addCalendar("Empty", ZoneId.of("Europe/Paris"));
+    CalendarModel work = this.manager.getCalendar("Work");
+    CalendarModel home = this.manager.getCalendar("Home");
+    work.addEvent(new Event("Standup", LocalDateTime.of(2025, 6, 16, 9, 0),
+            LocalDateTime.of(2025, 6, 16, 9, 15)));
+    work.addEvent(new Event("Review", LocalDateTime.of(2025, 6, 16, 14, 0),
+            LocalDateTime.of(2025, 6, 16, 15, 0)));
+    home.addEvent(new Event("Gym", LocalDateTime.of(2025, 6, 16, 8, 0),
+            LocalDateTime.of(2025, 6, 16, 9, 0)));
+    home.addEvent(new Event("Next day", LocalDateTime.of(2025, 6, 16, 22, 0),
+            LocalDateTime.of(2025, 6, 16, 23, 0)));
+
+    Iterator<AgendaEntry> agenda = this.manager.getMergedAgenda(ZoneId.of("America/New_York"),
+            LocalDateTime.of(2025, 6, 16, 0, 0), LocalDateTime.of(2025, 6, 16, 23, 59));
+
+    AgendaEntry first = agenda.next();
+    assertEquals("Standup", first.getEvent().getSubject());
+    AgendaEntry second = agenda.next();
+    assertEquals("Gym", second.getEvent().getSubject());
+    assertEquals("Home", second.getCalendarName());
+    assertEquals(LocalDateTime.of(2025, 6, 16, 11, 0), second.getStart());
+    assertEquals("Review", agenda.next().getEvent().getSubject());
+    assertEquals(false, agenda.hasNext());
+  }
+
+  @Test
+  public void testSessionsShareCalendarsButNotTheCalendarInUse()
+          throws CommandExecutionException {
+    this.manager.addCalendar("Work", ZoneId.of("America/New_York"));
+    CalendarSession first = this.manager.newSession();
+    CalendarSession second = this.manager.newSession();
+    first.switchToCalendar("Work");
+    second.addCalendar("Home", ZoneId.of("Europe/Paris"));
+    second.switchToCalendar("Home");
+
+    assertEquals("Work", first.getActiveCalendar().getName());
+    assertEquals("Home", second.getActiveCalendar().getName());
+    assertNull(this.manager.getActiveCalendar());
+    assertEquals(2, first.getCalendars().size());
+    assertEquals(this.manager, first.getSharedManager());
+
+    second.updateName("Work", "Office");
+    assertEquals("Office", first.getActiveCalendar().getName());
+    assertEquals(first.getActiveCalendar(), this.manager.getCalendar("Office"));
+  }
+
+  @Test
+  public void testRollbackTransactionRestoresCalendars() throws CommandExecutionException {
+    this.manager.addCalendar("Work", ZoneId.of("America/New_York"));
+    this.manager.switchToCalendar("Work");
+    CalendarModel work = this.manager.getActiveCalendar();
+
+    this.manager.beginTransaction();
+    this.manager.addCalendar("Home", ZoneId.of("Europe/Paris"));
+    this.manager.updateName("Work", "Office");
+    this.manager.switchToCalendar("Home");
+    this.manager.rollbackTransaction();
+
+    assertEquals(1, this.manager.getCalendars().size());
+    assertEquals(work, this.manager.getCalendar("Work"));
+    assertEquals("Work", work.getName());
+    assertEquals(work, this.manager.getActiveCalendar());
+    assertEquals(false, this.manager.isInTransaction());
+  }
+
+  @Test
+  public void testRollbackKeepsChangesOfOtherSessions() throws Exception {
+    this.manager.addCalendar("Work", ZoneId.of("America/New_York"));
+    CalendarSession first = this.manager.newSession();
+    CalendarSession second = this.manager.newSession();
+    first.switchToCalendar("Work");
+
+    first.beginTransaction();
+    first.addCalendar("Home", ZoneId.of("Europe/Paris"));
+    first.getActiveCalendar().addEvent(new Event("Standup",
+            LocalDateTime.of(2025, 5, 5, 9, 0), LocalDateTime.of(2025, 5, 5, 9, 15)));
+    Thread other = new Thread(() -> {
+      try {
+        second.beginTransaction();
+        second.addCalendar("Gym", ZoneId.of("Europe/Paris"));
+        second.getCalendar("Gym").addEvent(new Event("Swim",
+                LocalDateTime.of(2025, 5, 5, 7, 0), LocalDateTime.of(2025, 5, 5, 8, 0)));
+        second.commitTransaction();
+      } catch (CommandExecutionException e) {
+        throw new IllegalStateException(e);
+      }
+    });
+    other.start();
+    other.join();
+    first.rollbackTransaction();
+
+    assertEquals(2, this.manager.getCalendars().size());
+    assertEquals("Gym", this.manager.getCalendar("Gym").getName());
+    assertEquals(0, this.manager.getCalendar("Work").getEvents().size());
+    assertEquals(1, this.manager.getCalendar("Gym").getEvents().size());
+    assertEquals(false, second.isInTransaction());
+  }
+
+  @Test
+  public void testSessionsUndoOnlyTheirOwnChanges() throws CommandExecutionException {
+    this.manager.addCalendar("Work", ZoneId.of("America/New_York"));
+    CalendarModel work = this.manager.getCalendar("Work");
+    CalendarSession first = this.manager.newSession();
+    CalendarSession second = this.manager.newSession();
+    Event standup = new Event("Standup", LocalDateTime.of(2025, 5, 5, 9, 0),
+            LocalDateTime.of(2025, 5, 5, 9, 15));
+    Event review = new Event("Review", LocalDateTime.of(2025, 5, 5, 10, 0),
+            LocalDateTime.of(2025, 5, 5, 11, 0));
+
+    first.nextUndoStep();
+    work.addEvent(standup);
+    first.closeUndoStep();
+    second.nextUndoStep();
+    work.addEvent(review);
+    second.closeUndoStep();
+
+    first.undo();
+    assertEquals(1, work.getEvents().size());
+    assertEquals("Review", work.getEvents().get(0).getSubject());
+    first.redo();
+    second.undo();
+    assertEquals(1, work.getEvents().size());
+    assertEquals("Standup", work.getEvents().get(0).getSubject());
+    try {
+      this.manager.undo();
+      fail("Undid the changes of a session");
+    } catch (CommandExecutionException e) {
+      assertEquals("Nothing to undo", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testUndoRefusesStepChangedByAnotherSession() throws CommandExecutionException {
+    this.manager.addCalendar("Work", ZoneId.of("America/New_York"));
+    CalendarModel work = this.manager.getCalendar("Work");
+    CalendarSession first = this.manager.newSession();
+    CalendarSession second = this.manager.newSession();
+    Event standup = new Event("Standup", LocalDateTime.of(2025, 5, 5, 9, 0),
+            LocalDateTime.of(2025, 5, 5, 9, 15));
+
+    first.nextUndoStep();
+    work.addEvent(standup);
+    first.closeUndoStep();
+    second.nextUndoStep();
+    work.modifyEvent(standup, "subject", "Sync");
+    second.closeUndoStep();
+
+    try {
+      first.undo();
+      fail("Undid a step changed by another session");
+    } catch (CommandExecutionException e) {
+      assertEquals("Cannot undo, another session has changed the same events since",
+              e.getMessage());
+    }
+    assertEquals("Sync", work.getEvents().get(0).getSubject());
+    try {
+      first.undo();
+      fail("Kept a step changed by another session");
+    } catch (CommandExecutionException e) {
+      assertEquals("Nothing to undo", e.getMessage());
+    }
+    second.undo();
+    assertEquals("Standup", work.getEvents().get(0).getSubject());
+  }
+
+  @Test
+  public void testFailedTransactionCannotCommit() throws CommandExecutionException {
+    this.manager.addCalendar("Work", ZoneId.of("America/New_York"));
+    this.manager.beginTransaction();
+    this.manager.addCalendar("Home", ZoneId.of("Europe/Paris"));
+    this.manager.failTransaction();
+    assertEquals(true, this.manager.isTransactionFailed());
+    assertEquals(1, this.manager.getCalendars().size());
+    try {
+      this.manager.commitTransaction();
+      fail("Failed batch was committed");
+    } catch (CommandExecutionException e) {
+      assertEquals("Batch failed and was rolled back", e.getMessage());
+    }
+    assertEquals(false, this.manager.isInTransaction());
+  }
 }
\ No newline at end of file
@@ -3,8 +3,10 @@ package calendar.model;
 import org.junit.Before;
 import org.junit.Test;
 import static org.junit.Assert.assertEquals;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.List;
 
 import calendar.controller.commands.CommandExecutionException;
@@ -63,4 +65,418 @@ public class CalendarModelImplTest {
             LocalDateTime.of(2024, 3, 15, 12, 0),
             convertedEvent.getStartDateTime());
   }
+
+  @Test
+  public void testListenerToldAboutAddedEvent() throws CommandExecutionException {
+    List<List<CalendarChange>> received = new ArrayList<>();
+    this.model.addChangeListener(received::add);
+    this.model.addEvent(this.differentEvent);
+
+    assertEquals(1, received.size());
+    CalendarChange change = received.get(0).get(0);
+    assertEquals(CalendarChange.Type.ADDED, change.getType());
+    assertEquals("cal1", change.getCalendarName());
+    assertEquals(LocalDateTime.of(2024, 6, 15, 14, 0), change.getNewStart());
+  }
+
+  @Test
+  public void testBatchCoalescesChangesToSameEvent() throws CommandExecutionException {
+    List<List<CalendarChange>> received = new ArrayList<>();
+    this.model.addEvent(this.differentEvent);
+    this.model.addChangeListener(received::add);
+
+    this.model.beginBatch();
+    this.model.modifyEvent(this.differentEvent, "start", "2024-06-15T14:30");
+    this.model.modifyEvent(this.differentEvent, "end", "2024-06-15T16:00");
+    assertEquals(0, received.size());
+    this.model.endBatch();
+
+    assertEquals(1, received.size());
+    assertEquals(1, received.get(0).size());
+    CalendarChange change = received.get(0).get(0);
+    assertEquals(CalendarChange.Type.MODIFIED, change.getType());
+    assertEquals(LocalDateTime.of(2024, 6, 15, 14, 0), change.getOldStart());
+    assertEquals(LocalDateTime.of(2024, 6, 15, 15, 0), change.getOldEnd());
+    assertEquals(LocalDateTime.of(2024, 6, 15, 16, 0), change.getNewEnd());
+  }
+
+  @Test
+  public void testAddThenRemoveInBatchCancelsOut() throws CommandExecutionException {
+    List<List<CalendarChange>> received = new ArrayList<>();
+    this.model.addChangeListener(received::add);
+
+    this.model.beginBatch();
+    this.model.addEvent(this.differentEvent);
+    this.model.removeEvent(this.differentEvent);
+    this.model.endBatch();
+
+    assertEquals(0, received.size());
+  }
+
+  @Test
+  public void testListenerToldAboutRenameAndRezone() throws CommandExecutionException {
+    List<CalendarChange> received = new ArrayList<>();
+    this.model.addChangeListener(received::addAll);
+    this.model.updateName("work");
+    this.model.updateZoneId("Europe/Paris");
+
+    assertEquals(CalendarChange.Type.RENAMED, received.get(0).getType());
+    assertEquals("cal1", received.get(0).getOldValue());
+    assertEquals(CalendarChange.Type.REZONED, received.get(1).getType());
+    assertEquals("Europe/Paris", received.get(1).getNewValue());
+  }
+
+  @Test
+  public void testEventsResolvedById() throws CommandExecutionException {
+    this.model.addEvent(this.testEvent);
+    this.model.addEvent(this.differentEvent);
+
+    assertEquals(this.differentEvent, this.model.getEventById(this.differentEvent.getId()));
+    assertEquals(true, this.model.removeEventById(this.testEvent.getId()));
+    assertEquals(null, this.model.getEventById(this.testEvent.getId()));
+    assertEquals(1, this.model.getEvents().size());
+    assertEquals(false, this.model.removeEventById(this.testEvent.getId()));
+  }
+
+  @Test
+  public void testSubjectIndexFollowsEdits() throws CommandExecutionException {
+    this.model.addEvent(this.differentEvent);
+    this.model.addEventSeries(new EventSeries(new Event("Standup",
+            LocalDateTime.of(2024, 6, 3, 9, 0), LocalDateTime.of(2024, 6, 3, 9, 15)),
+            "MWF", 5));
+
+    assertEquals(5, this.model.findEventsBySubject("Standup", false).size());
+    assertEquals(0, this.model.findEventsBySubject("standup", false).size());
+    assertEquals(5, this.model.findEventsBySubject("standup", true).size());
+    assertEquals(1, this.model.findEvents("Standup",
+            LocalDateTime.of(2024, 6, 5, 9, 0)).size());
+
+    this.model.modifyEvent(this.differentEvent, "subject", "STANDUP");
+    assertEquals(0, this.model.findEventsBySubject("Part-time job interview", false).size());
+    List<Event> found = this.model.findEventsBySubject("standup", true);
+    assertEquals(6, found.size());
+    assertEquals("Standup", found.get(0).getSubject());
+    assertEquals("STANDUP", found.get(5).getSubject());
+  }
+
+  @Test
+  public void testIsBusyAtIncludesStartAndEnd() throws CommandExecutionException {
+    this.model.addEvent(this.differentEvent);
+
+    assertEquals(false, this.model.isBusyAt(LocalDateTime.of(2024, 6, 15, 13, 59)));
+    assertEquals(true, this.model.isBusyAt(LocalDateTime.of(2024, 6, 15, 14, 0)));
+    assertEquals(true, this.model.isBusyAt(LocalDateTime.of(2024, 6, 15, 14, 30, 15)));
+    assertEquals(true, this.model.isBusyAt(LocalDateTime.of(2024, 6, 15, 15, 0)));
+    assertEquals(false, this.model.isBusyAt(LocalDateTime.of(2024, 6, 15, 15, 0, 1)));
+  }
+
+  @Test
+  public void testIsBusyAtBetweenBackToBackEvents() throws CommandExecutionException {
+    this.model.addEvent(new Event("a", LocalDateTime.of(2024, 6, 15, 9, 0),
+            LocalDateTime.of(2024, 6, 15, 9, 30)));
+    this.model.addEvent(new Event("b", LocalDateTime.of(2024, 6, 15, 9, 31),
+            LocalDateTime.of(2024, 6, 15, 10, 0)));
+
+    assertEquals(true, this.model.isBusyAt(LocalDateTime.of(2024, 6, 15, 9, 30)));
+    assertEquals(false, this.model.isBusyAt(LocalDateTime.of(2024, 6, 15, 9, 30, 30)));
+    assertEquals(true, this.model.isBusyAt(LocalDateTime.of(2024, 6, 15, 9, 31)));
+  }
+
+  @Test
+  public void testIsBusyAtFollowsEditsAndRemoval() throws CommandExecutionException {
+    this.model.addEvent(this.differentEvent);
+    this.model.modifyEvent(this.differentEvent, "end", "2024-06-16T01:00");
+
+    assertEquals(true, this.model.isBusyAt(LocalDateTime.of(2024, 6, 16, 0, 30)));
+
+    this.model.removeEvent(this.differentEvent);
+
+    assertEquals(false, this.model.isBusyAt(LocalDateTime.of(2024, 6, 15, 14, 30)));
+    assertEquals(false, this.model.isBusyAt(LocalDateTime.of(2024, 6, 16, 0, 30)));
+  }
+
+  @Test
+  public void testIsBusyAtWithStackedEvents() throws CommandExecutionException {
+    Event first = new Event("a", LocalDateTime.of(2024, 6, 15, 9, 0),
+            LocalDateTime.of(2024, 6, 15, 10, 0));
+    Event second = new Event("b", LocalDateTime.of(2024, 6, 15, 9, 30),
+            LocalDateTime.of(2024, 6, 15, 11, 0));
+    Event third = new Event("c", LocalDateTime.of(2024, 6, 15, 9, 45),
+            LocalDateTime.of(2024, 6, 15, 10, 0));
+    this.model.addEvent(first);
+    this.model.addEvent(second);
+    this.model.addEvent(third);
+
+    this.model.removeEvent(first);
+    assertEquals(true, this.model.isBusyAt(LocalDateTime.of(2024, 6, 15, 9, 50)));
+    assertEquals(false, this.model.isBusyAt(LocalDateTime.of(2024, 6, 15, 9, 15)));
+
+    this.model.removeEvent(third);
+    assertEquals(true, this.model.isBusyAt(LocalDateTime.of(2024, 6, 15, 9, 50)));
+    assertEquals(true, this.model.isBusyAt(LocalDateTime.of(2024, 6, 15, 10, 0)));
+
+    this.model.removeEvent(second);
+    assertEquals(false, this.model.isBusyAt(LocalDateTime.of(2024, 6, 15, 9, 50)));
+    assertEquals(false, this.model.isBusyAt(LocalDateTime.of(2024, 6, 15, 10, 30, 30)));
+  }
+
+  @Test
+  public void testIsBusyAtWithSecondsInEvent() throws CommandExecutionException {
+    this.model.addEvent(new Event("odd", LocalDateTime.of(2024, 6, 15, 9, 0, 20),
+            LocalDateTime.of(2024, 6, 15, 9, 0, 40)));
+
+    assertEquals(false, this.model.isBusyAt(LocalDateTime.of(2024, 6, 15, 9, 0)));
+    assertEquals(true, this.model.isBusyAt(LocalDateTime.of(2024, 6, 15, 9, 0, 30)));
+  }
+
+  @Test
+  public void testIsBusyAtAfterTimezoneChange() throws CommandExecutionException {
+    this.model.addEvent(this.differentEvent);
+    this.model.updateZoneId("America/Los_Angeles");
+
+    assertEquals(false, this.model.isBusyAt(LocalDateTime.of(2024, 6, 15, 14, 30)));
+    assertEquals(true, this.model.isBusyAt(LocalDateTime.of(2024, 6, 15, 11, 30)));
+  }
+
+  @Test
+  public void testGetOverlapsIgnoresEventsThatOnlyMeet() throws CommandExecutionException {
+    Event morning = new Event("a", LocalDateTime.of(2024, 6, 15, 9, 0),
+            LocalDateTime.of(2024, 6, 15, 10, 0));
+    Event next = new Event("b", LocalDateTime.of(2024, 6, 15, 10, 0),
+            LocalDateTime.of(2024, 6, 15, 11, 0));
+    Event long1 = new Event("c", LocalDateTime.of(2024, 6, 15, 9, 30),
+            LocalDateTime.of(2024, 6, 15, 12, 0));
+    this.model.addEvent(morning);
+    this.model.addEvent(next);
+    this.model.addEvent(long1);
+
+    List<Overlap> overlaps = this.model.getOverlaps();
+
+    assertEquals(2, overlaps.size());
+    assertEquals(morning, overlaps.get(0).getFirst());
+    assertEquals(long1, overlaps.get(0).getSecond());
+    assertEquals(long1, overlaps.get(1).getFirst());
+    assertEquals(next, overlaps.get(1).getSecond());
+    assertEquals(1, this.model.getOverlaps(LocalDateTime.of(2024, 6, 15, 9, 0),
+            LocalDateTime.of(2024, 6, 15, 9, 45)).size());
+  }
+
+  @Test
+  public void testRejectOverlapsPolicy() throws CommandExecutionException {
+    this.model.addEvent(this.differentEvent);
+    this.model.setRejectOverlaps(true);
+
+    try {
+      this.model.addEvent(new Event("clash", LocalDateTime.of(2024, 6, 15, 14, 59, 30),
+              LocalDateTime.of(2024, 6, 15, 16, 0)));
+      assertEquals("overlapping event should be rejected", "added");
+    } catch (CommandExecutionException e) {
+      assertEquals("Event overlaps an existing event", e.getMessage());
+    }
+    this.model.addEvent(new Event("after", LocalDateTime.of(2024, 6, 15, 15, 0),
+            LocalDateTime.of(2024, 6, 15, 16, 0)));
+    assertEquals(2, this.model.getEvents().size());
+
+    try {
+      this.model.addEventSeries(new EventSeries(new Event("weekly",
+              LocalDateTime.of(2024, 6, 8, 13, 0), LocalDateTime.of(2024, 6, 8, 14, 30)),
+              "S", 3));
+      assertEquals("overlapping series should be rejected", "added");
+    } catch (CommandExecutionException e) {
+      assertEquals(2, this.model.getEvents().size());
+    }
+
+    this.model.setRejectOverlaps(false);
+    this.model.addEvent(new Event("clash", LocalDateTime.of(2024, 6, 15, 14, 30),
+            LocalDateTime.of(2024, 6, 15, 16, 0)));
+    assertEquals(3, this.model.getEvents().size());
+  }
+
+  @Test
+  public void testDateQueriesAreCachedAndInvalidatedByChanges()
+          throws CommandExecutionException {
+    CalendarModelImpl impl = (CalendarModelImpl) this.model;
+    LocalDate day = LocalDate.of(2024, 6, 15);
+    LocalDate otherDay = LocalDate.of(2024, 6, 20);
+    impl.addEvent(this.differentEvent);
+
+    assertEquals(1, impl.getEventsOnDate(day).size());
+    assertEquals(1, impl.getEventsOnDate(day).size());
+    assertEquals(0, impl.getEventsOnDate(otherDay).size());
+    assertEquals(1, impl.getQueryCacheStats().getHits());
+    assertEquals(2, impl.getQueryCacheStats().getMisses());
+
+    impl.modifyEvent(this.differentEvent, "subject", "Renamed");
+    assertEquals(1, impl.getQueryCacheStats().getEntries());
+    assertEquals("Renamed", impl.getEventsOnDate(day).get(0).getSubject());
+    assertEquals(0, impl.getEventsOnDate(otherDay).size());
+    assertEquals(2, impl.getQueryCacheStats().getHits());
+
+    impl.modifyEvent(this.differentEvent, "end", "2024-06-20T11:00");
+    impl.modifyEvent(this.differentEvent, "start", "2024-06-20T10:00");
+    assertEquals(0, impl.getEventsOnDate(day).size());
+    assertEquals(1, impl.getEventsOnDate(otherDay).size());
+    assertEquals(1, impl.getEventsInRange(day, otherDay).size());
+  }
+
+  @Test
+  public void testQueryStatsCountScannedEventsAndIndexSizes()
+          throws CommandExecutionException {
+    CalendarModelImpl impl = (CalendarModelImpl) this.model;
+    LocalDate day = LocalDate.of(2024, 6, 15);
+    impl.addEvent(this.differentEvent);
+
+    impl.getEventsOnDate(day);
+    impl.getEventsOnDate(day);
+    QueryStats stats = impl.getQueryStats();
+    assertEquals(2, stats.getQueries());
+    assertEquals(1, stats.getEventsScanned());
+    assertEquals(1, stats.getCache().getHits());
+    assertEquals(1, stats.getEvents());
+    assertEquals(1, stats.getIndexedDays());
+    assertEquals(1, stats.getSubjects());
+    assertEquals(1, stats.getBusyDays());
+  }
+
+  @Test
+  public void testDateQueryCacheSeesSeriesEditsAndZoneChanges()
+          throws CommandExecutionException {
+    CalendarModelImpl impl = (CalendarModelImpl) this.model;
+    EventSeries series = new EventSeries(this.differentEvent, "S", 3);
+    impl.addEventSeries(series);
+    LocalDate lastDay = LocalDate.of(2024, 6, 29);
+    assertEquals(1, impl.getEventsOnDate(lastDay).size());
+
+    series.changeAll(impl, "Part-time job interview", this.differentEvent.getStartDateTime(),
+            "subject", "Shift");
+    assertEquals("Shift", impl.getEventsOnDate(lastDay).get(0).getSubject());
+
+    impl.addEvent(new Event("Late", LocalDateTime.of(2024, 6, 29, 22, 0),
+            LocalDateTime.of(2024, 6, 29, 23, 0)));
+    LocalDate nextDay = LocalDate.of(2024, 6, 30);
+    assertEquals(0, impl.getEventsOnDate(nextDay).size());
+    impl.updateZoneId("Europe/London");
+    assertEquals(1, impl.getEventsOnDate(nextDay).size());
+  }
+
+  @Test
+  public void testDayIndexFollowsMultiDayEventsAndEdits() throws CommandExecutionException {
+    CalendarModelImpl impl = (CalendarModelImpl) this.model;
+    Event trip = new Event("Trip", LocalDateTime.of(2024, 7, 1, 9, 0),
+            LocalDateTime.of(2024, 7, 3, 17, 0));
+    Event late = new Event("Late", LocalDateTime.of(2024, 7, 5, 22, 0),
+            LocalDateTime.of(2024, 7, 5, 23, 59, 30));
+    this.model.addEvent(trip);
+    this.model.addEvent(late);
+
+    assertEquals(1, this.model.getEventsOnDate(LocalDate.of(2024, 7, 2)).size());
+    assertEquals(0, this.model.getEventsOnDate(LocalDate.of(2024, 7, 4)).size());
+    assertEquals(1, this.model.getEventsOnDate(LocalDate.of(2024, 7, 6)).size());
+    assertEquals(2, impl.getEventsInRange(LocalDate.of(2024, 7, 3),
+            LocalDate.of(2024, 7, 5)).size());
+
+    this.model.modifyEvent(trip, "end", "2024-07-04T10:00");
+    assertEquals(1, this.model.getEventsOnDate(LocalDate.of(2024, 7, 4)).size());
+    this.model.removeEvent(late);
+    assertEquals(0, this.model.getEventsOnDate(LocalDate.of(2024, 7, 6)).size());
+    assertEquals(1, impl.getEventsInRange(LocalDate.of(2024, 6, 1),
+            LocalDate.of(2024, 8, 1)).size());
+  }
+
+  @Test
+  public void testModifyEventReplacesEventKeepingId() throws CommandExecutionException {
+    this.model.addEvent(this.differentEvent);
+    long id = this.differentEvent.getId();
+
+    this.model.modifyEvent(this.differentEvent, "subject", "Renamed");
+    Event current = this.model.getEventById(id);
+    assertEquals("Renamed", current.getSubject());
+    assertEquals("Part-time job interview", this.differentEvent.getSubject());
+    assertEquals(1, this.model.getEvents().size());
+    assertEquals(current, this.model.getSingleEvents().get(0));
+    assertEquals(1, this.model.findEvents("Renamed",
+            this.differentEvent.getStartDateTime()).size());
+
+    this.model.modifyEvent(this.differentEvent, "location", "Room 5");
+    assertEquals("Renamed", this.model.getEventById(id).getSubject());
+    assertEquals("Room 5", this.model.getEventById(id).getLocation());
+    assertEquals(true, this.model.removeEvent(this.differentEvent));
+    assertEquals(0, this.model.getEvents().size());
+  }
+
+  @Test
+  public void testRollbackRestoresEventsSeriesAndIndexes() throws CommandExecutionException {
+    List<List<CalendarChange>> heard = new ArrayList<>();
+    this.model.addChangeListener(heard::add);
+    this.model.addEvent(this.differentEvent);
+    EventSeries series = new EventSeries(new Event("Standup",
+            LocalDateTime.of(2024, 6, 3, 9, 0), LocalDateTime.of(2024, 6, 3, 9, 15)),
+            "MWF", 5);
+    this.model.addEventSeries(series);
+    CalendarManager manager = new CalendarManager();
+    manager.addCalendar(this.model);
+    heard.clear();
+
+    manager.beginTransaction();
+    series.changeAllAfter(this.model, "Standup", LocalDateTime.of(2024, 6, 7, 9, 0),
+            "start", "2024-06-07T09:10");
+    this.model.modifyEvent(this.differentEvent, "subject", "Interview");
+    this.model.addEvent(this.testEvent);
+    this.model.updateName("renamed");
+    assertEquals(7, this.model.getEvents().size());
+    assertEquals(2, series.getEvents().size());
+    assertEquals(0, heard.size());
+    manager.rollbackTransaction();
+
+    assertEquals("cal1", this.model.getName());
+    assertEquals(6, this.model.getEvents().size());
+    assertEquals(5, series.getEvents().size());
+    assertEquals(series, this.model.getSeriesOf(series.getEvents().get(4)));
+    assertEquals(1, this.model.findEventsBySubject("Part-time job interview", false).size());
+    assertEquals(0, this.model.findEventsBySubject("Interview", false).size());
+    assertEquals(true, this.model.isBusyAt(LocalDateTime.of(2024, 6, 7, 9, 0)));
+    assertEquals(false, this.model.isBusyAt(LocalDateTime.of(2024, 6, 7, 10, 0)));
+    assertEquals(1, this.model.getEventsOnDate(LocalDate.of(2024, 6, 7)).size());
+    assertEquals(0, heard.size());
+
+    manager.beginTransaction();
+    this.model.addEvent(this.testEvent);
+    this.model.removeEvent(this.differentEvent);
+    assertEquals(0, heard.size());
+    manager.commitTransaction();
+    assertEquals(1, heard.size());
+    assertEquals(2, heard.get(0).size());
+    assertEquals(6, this.model.getEvents().size());
+  }
+
+  @Test
+  public void testDateQueriesListEventsInCalendarOrder() throws CommandExecutionException {
+    this.model.addEvent(new Event("Lunch", LocalDateTime.of(2024, 6, 3, 12, 0),
+            LocalDateTime.of(2024, 6, 3, 13, 0)));
+    this.model.addEvent(new Event("Review", LocalDateTime.of(2024, 6, 3, 15, 0),
+            LocalDateTime.of(2024, 6, 3, 16, 0)));
+    this.model.addEventSeries(new EventSeries(new Event("Standup",
+            LocalDateTime.of(2024, 6, 3, 9, 0), LocalDateTime.of(2024, 6, 3, 9, 15)),
+            "MTWRF", 5));
+    this.model.addEvent(new Event("Retro", LocalDateTime.of(2024, 6, 4, 8, 0),
+            LocalDateTime.of(2024, 6, 4, 9, 0)));
+
+    assertEquals(List.of("Lunch", "Review", "Standup"),
+            subjects(this.model.getEventsOnDate(LocalDate.of(2024, 6, 3))));
+    Event lunch = this.model.getEventsOnDate(LocalDate.of(2024, 6, 3)).get(0);
+    this.model.modifyEvent(lunch, "subject", "Brunch");
+    assertEquals(List.of("Brunch", "Review", "Standup"),
+            subjects(this.model.getEventsOnDate(LocalDate.of(2024, 6, 3))));
+    assertEquals(List.of("Brunch", "Review", "Retro", "Standup", "Standup"),
+            subjects(((CalendarModelImpl) this.model).getEventsInRange(
+                    LocalDate.of(2024, 6, 3), LocalDate.of(2024, 6, 4))));
+  }
+
+  private static List<String> subjects(List<Event> events) {
+    List<String> subjects = new ArrayList<>();
+    for (Event event : events) {
+      subjects.add(event.getSubject());
+    }
+    return subjects;
+  }
 }
\ No newline at end of file
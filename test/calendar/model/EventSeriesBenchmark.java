@@ -0,0 +1,71 @@
+package calendar.model;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import calendar.controller.commands.CommandExecutionException;
+
+/**
+ * Times the bulk edits of a large EventSeries: editing every occurrence, splitting the series
+ * in the middle and dissolving it into single events. Run with the main method.
+ */
+public class EventSeriesBenchmark {
+
+  private static final int OCCURRENCES = 10000;
+  private static final int ROUNDS = 5;
+
+  /**
+   * Runs each benchmark a few times and prints the time taken in milliseconds.
+   *
+   * @param args unused.
+   * @throws CommandExecutionException if an edit fails.
+   */
+  public static void main(String[] args) throws CommandExecutionException {
+    for (int round = 0; round < ROUNDS; round += 1) {
+      System.out.printf("round %d: edit all %d ms, split %d ms, dissolve %d ms%n", round,
+              editAll(), split(), dissolve());
+    }
+  }
+
+  private static long editAll() throws CommandExecutionException {
+    CalendarModelImpl model = newModel();
+    EventSeries series = newSeries(model);
+    long start = System.nanoTime();
+    series.changeAll(model, "Standup", firstStart(), "subject", "Daily Standup");
+    return (System.nanoTime() - start) / 1_000_000;
+  }
+
+  private static long split() throws CommandExecutionException {
+    CalendarModelImpl model = newModel();
+    EventSeries series = newSeries(model);
+    LocalDateTime middle = series.getEvents().get(OCCURRENCES / 2).getStartDateTime();
+    long start = System.nanoTime();
+    series.changeAllAfter(model, "Standup", middle, "start", middle.plusMinutes(5).toString());
+    return (System.nanoTime() - start) / 1_000_000;
+  }
+
+  private static long dissolve() throws CommandExecutionException {
+    CalendarModelImpl model = newModel();
+    EventSeries series = newSeries(model);
+    long start = System.nanoTime();
+    series.changeAll(model, "Standup", firstStart(), "start",
+            firstStart().plusMinutes(5).toString());
+    return (System.nanoTime() - start) / 1_000_000;
+  }
+
+  private static CalendarModelImpl newModel() {
+    return new CalendarModelImpl("bench", ZoneId.of("America/New_York"));
+  }
+
+  private static EventSeries newSeries(CalendarModelImpl model)
+          throws CommandExecutionException {
+    Event event = new Event("Standup", firstStart(), firstStart().plusMinutes(15));
+    EventSeries series = new EventSeries(event, "MTWRFSU", OCCURRENCES);
+    model.addEventSeries(series);
+    return series;
+  }
+
+  private static LocalDateTime firstStart() {
+    return LocalDateTime.of(2025, 1, 6, 9, 0);
+  }
+}
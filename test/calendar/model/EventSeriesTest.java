@@ -177,7 +177,7 @@ public class EventSeriesTest {
   public void testChangeAllAfterStartProperty() throws CommandExecutionException {
     EventSeries series = new EventSeries(baseEvent, "M", 2);
 
-    series.changeAllAfter(mockModel, "Weekly Meeting", startTime, "start", "2025-06-16T15:00");
+    series.changeAllAfter(mockModel, "Weekly Meeting", startTime, "start", "2025-06-16T10:30");
 
     List<Event> singleEvents = mockModel.getSingleEvents();
     assertTrue(singleEvents.size() > 0);
@@ -199,7 +199,7 @@ public class EventSeriesTest {
   public void testChangeAllStartProperty() throws CommandExecutionException {
     EventSeries series = new EventSeries(baseEvent, "M", 2);
 
-    series.changeAll(mockModel, "Weekly Meeting", startTime, "start", "2025-06-16T16:00");
+    series.changeAll(mockModel, "Weekly Meeting", startTime, "start", "2025-06-16T10:45");
 
     List<Event> singleEvents = mockModel.getSingleEvents();
     assertTrue(singleEvents.size() > 0);
@@ -236,4 +236,36 @@ public class EventSeriesTest {
     List<Event> events = series.getEvents();
     assertEquals(0, events.size());
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testSplitLargeSeriesMovesWholeTail() throws CommandExecutionException {
+    EventSeries series = new EventSeries(baseEvent, "MTWRFSU", 10000);
+    mockModel.addEventSeries(series);
+    LocalDateTime middle = series.getEvents().get(5000).getStartDateTime();
+
+    series.changeAllAfter(mockModel, "Weekly Meeting", middle, "start",
+            middle.plusMinutes(30).toString());
+
+    assertEquals(5000, series.getEvents().size());
+    assertEquals(5000, mockModel.getSingleEvents().size());
+    assertEquals(10000, mockModel.getEvents().size());
+    assertEquals(5000, mockModel.findEvents("Weekly Meeting",
+            middle.plusMinutes(30)).size());
+    assertFalse(series.containsEvent("Weekly Meeting", middle));
+    assertTrue(series.containsEvent("Weekly Meeting", startTime));
+  }
+
+  @Test
+  public void testDissolveLargeSeries() throws CommandExecutionException {
+    EventSeries series = new EventSeries(baseEvent, "MTWRFSU", 10000);
+    mockModel.addEventSeries(series);
+
+    series.changeAll(mockModel, "Weekly Meeting", startTime, "start", "2025-06-16T10:30");
+
+    assertEquals(0, series.getEvents().size());
+    assertEquals(10000, mockModel.getSingleEvents().size());
+    for (Event event : mockModel.getSingleEvents()) {
+      assertEquals(null, mockModel.getSeriesOf(event));
+    }
+  }
+}
@@ -3,6 +3,7 @@ package calendar.model;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -69,33 +70,33 @@ public class EventTest {
 
   @Test
   public void testModifyPropertySubject() throws CommandExecutionException {
-    timedEvent.modifyProperty("subject", "New Meeting Title");
-    assertEquals("New Meeting Title", timedEvent.getSubject());
+    Event renamed = timedEvent.with("subject", "New Meeting Title");
+    assertEquals("New Meeting Title", renamed.getSubject());
   }
 
   @Test
   public void testModifyPropertyStart() throws CommandExecutionException {
     String newStart = "2025-06-15T11:00";
-    timedEvent.modifyProperty("start", newStart);
-    assertEquals(LocalDateTime.parse(newStart), timedEvent.getStartDateTime());
+    Event moved = timedEvent.with("start", newStart);
+    assertEquals(LocalDateTime.parse(newStart), moved.getStartDateTime());
   }
 
   @Test
   public void testModifyPropertyEnd() throws CommandExecutionException {
     String newEnd = "2025-06-15T13:00";
-    timedEvent.modifyProperty("end", newEnd);
-    assertEquals(LocalDateTime.parse(newEnd), timedEvent.getEndDateTime());
+    Event extended = timedEvent.with("end", newEnd);
+    assertEquals(LocalDateTime.parse(newEnd), extended.getEndDateTime());
   }
 
 
   @Test(expected = CommandExecutionException.class)
   public void testModifyPropertyInvalidProperty() throws CommandExecutionException {
-    timedEvent.modifyProperty("invalid", "value");
+    timedEvent.with("invalid", "value");
   }
 
   @Test(expected = CommandExecutionException.class)
   public void testModifyPropertyInvalidDate() throws CommandExecutionException {
-    timedEvent.modifyProperty("start", "invalid-date");
+    timedEvent.with("start", "invalid-date");
   }
 
   @Test
@@ -143,8 +144,8 @@ public class EventTest {
 
   @Test
   public void testToStringWithTimedEvent() throws IOException, CommandExecutionException {
-    Event eventWithLocation = new Event("Meeting", startTime, endTime);
-    eventWithLocation.modifyProperty("location", "Room 101");
+    Event eventWithLocation = new Event("Meeting", startTime, endTime)
+            .with("location", "Room 101");
 
     StringWriter writer = new StringWriter();
     eventWithLocation.toString(writer);
@@ -166,4 +167,77 @@ public class EventTest {
     assertTrue(result.contains("Team Meeting"));
     assertFalse(result.contains(" at "));
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testTimeWindowMatchesDateBoundaries() throws CommandExecutionException {
+    LocalDate day = LocalDate.of(2024, 3, 10);
+    Event endsAtLastMinute = new Event("a", LocalDateTime.of(2024, 3, 9, 22, 0),
+            LocalDateTime.of(2024, 3, 9, 23, 59));
+    Event endsInLastMinute = new Event("b", LocalDateTime.of(2024, 3, 9, 22, 0),
+            LocalDateTime.of(2024, 3, 9, 23, 59, 30));
+    Event startsNextDay = new Event("c", LocalDateTime.of(2024, 3, 11, 0, 0),
+            LocalDateTime.of(2024, 3, 11, 1, 0));
+    Event startsJustBefore = new Event("d", LocalDateTime.of(2024, 3, 10, 23, 59, 59),
+            LocalDateTime.of(2024, 3, 11, 1, 0));
+
+    TimeWindow window = TimeWindow.ofDate(day);
+    assertFalse(window.contains(endsAtLastMinute));
+    assertTrue(window.contains(endsInLastMinute));
+    assertFalse(window.contains(startsNextDay));
+    assertTrue(window.contains(startsJustBefore));
+    assertTrue(endsInLastMinute.overlapsDate(day));
+    assertTrue(startsNextDay.fallsBetweenDates(day, day.plusDays(1)));
+
+    assertTrue(window.contains(startsNextDay.with("start", "2024-03-10T23:00")));
+  }
+
+  @Test
+  public void testEpochTimesKeepFractionsAndOrder() throws CommandExecutionException {
+    LocalDateTime start = LocalDateTime.of(2024, 3, 10, 9, 0, 0, 500);
+    Event precise = new Event("a", start, LocalDateTime.of(2024, 3, 10, 10, 0));
+    Event early = new Event("a", LocalDateTime.of(2024, 3, 10, 9, 0),
+            LocalDateTime.of(2024, 3, 10, 10, 0));
+    assertEquals(start, precise.getStartDateTime());
+    assertTrue(early.compareTo(precise) < 0);
+    assertFalse(early.equals(precise));
+    assertFalse(precise.occursDuring(LocalDateTime.of(2024, 3, 10, 9, 0)));
+    assertTrue(early.occursDuring(LocalDateTime.of(2024, 3, 10, 10, 0)));
+
+    Event moved = precise.with("start", "2024-03-10T09:00");
+    assertTrue(early.equals(moved));
+    assertEquals(early.hashCode(), moved.hashCode());
+    assertEquals(LocalDate.of(2024, 3, 10), moved.getDate());
+  }
+
+  @Test
+  public void testWithLeavesEventUnchanged() throws CommandExecutionException {
+    Event moved = this.timedEvent.with("start", "2025-06-15T09:30");
+    Event renamed = this.timedEvent.withSubject("Renamed");
+
+    assertEquals(this.startTime, this.timedEvent.getStartDateTime());
+    assertEquals(LocalDateTime.of(2025, 6, 15, 9, 30), moved.getStartDateTime());
+    assertEquals("Renamed", renamed.getSubject());
+    assertEquals(this.timedEvent.getId(), moved.getId());
+    assertEquals(this.timedEvent.getId(), renamed.getId());
+    assertTrue(this.timedEvent.cloneMe().getId() != this.timedEvent.getId());
+  }
+
+  @Test
+  public void testWithRejectsStartAfterEnd() throws CommandExecutionException {
+    try {
+      this.timedEvent.with("start", "2025-06-15T12:30");
+      fail("Shouldn't get here");
+    } catch (CommandExecutionException e) {
+      assertEquals(this.startTime, this.timedEvent.getStartDateTime());
+    }
+    try {
+      this.timedEvent.withEnd(LocalDateTime.of(2025, 6, 15, 10, 0));
+      fail("Shouldn't get here");
+    } catch (IllegalArgumentException e) {
+      assertEquals(this.endTime, this.timedEvent.getEndDateTime());
+    }
+    Event later = this.timedEvent.withTimes(LocalDateTime.of(2025, 6, 16, 10, 30),
+            LocalDateTime.of(2025, 6, 16, 12, 0));
+    assertEquals(LocalDateTime.of(2025, 6, 16, 10, 30), later.getStartDateTime());
+  }
+}
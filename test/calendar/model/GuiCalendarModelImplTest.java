@@ -218,4 +218,45 @@ public class GuiCalendarModelImplTest {
     assertEquals(1, scheduled.size());
     assertEquals("Leap Year Event", scheduled.get(0).getSubject());
   }
+
+  @Test
+  public void testScheduleIsPatchedWhenEventsChange() throws CommandExecutionException {
+    this.model.setScheduleStart(LocalDate.of(2024, 6, 1));
+    Event later = new Event("Later", LocalDateTime.of(2024, 6, 20, 10, 0),
+            LocalDateTime.of(2024, 6, 20, 11, 0));
+    this.model.addEvent(later);
+    assertEquals(1, this.model.getScheduledEvents().size());
+
+    Event earlier = new Event("Earlier", LocalDateTime.of(2024, 6, 10, 10, 0),
+            LocalDateTime.of(2024, 6, 10, 11, 0));
+    this.model.addEvent(earlier);
+    List<Event> scheduled = this.model.getScheduledEvents();
+    assertEquals(2, scheduled.size());
+    assertEquals("Earlier", scheduled.get(0).getSubject());
+
+    this.model.removeEvent(earlier);
+    scheduled = this.model.getScheduledEvents();
+    assertEquals(1, scheduled.size());
+    assertEquals("Later", scheduled.get(0).getSubject());
+  }
+
+  @Test
+  public void testScheduleFollowsEditedEvent() throws CommandExecutionException {
+    this.model.setScheduleStart(LocalDate.of(2024, 6, 1));
+    Event standup = new Event("Standup", LocalDateTime.of(2024, 6, 20, 10, 0),
+            LocalDateTime.of(2024, 6, 20, 11, 0));
+    this.model.addEvent(standup);
+    assertEquals(1, this.model.getScheduledEvents().size());
+
+    this.model.modifyEvent(standup, "subject", "Sync");
+    List<Event> scheduled = this.model.getScheduledEvents();
+    assertEquals(1, scheduled.size());
+    assertEquals("Sync", scheduled.get(0).getSubject());
+
+    this.model.modifyEvent(scheduled.get(0), "start", "2024-06-20T09:00");
+    scheduled = this.model.getScheduledEvents();
+    assertEquals(1, scheduled.size());
+    assertEquals("Sync", scheduled.get(0).getSubject());
+    assertEquals(LocalDateTime.of(2024, 6, 20, 9, 0), scheduled.get(0).getStartDateTime());
+  }
 }
\ No newline at end of file
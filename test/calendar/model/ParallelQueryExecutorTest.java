@@ -0,0 +1,68 @@
+package calendar.model;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Before;
+import org.junit.Test;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import calendar.controller.commands.CommandExecutionException;
+
+/**
+ * Tests for ParallelQueryExecutor, checking that parallel queries give the same results as
+ * querying each calendar directly.
+ */
+public class ParallelQueryExecutorTest {
+
+  private ParallelQueryExecutor executor;
+  private List<CalendarModel> calendars;
+
+  @Before
+  public void setUp() throws CommandExecutionException {
+    this.executor = new ParallelQueryExecutor(new ForkJoinPool(4), 16);
+    this.calendars = new ArrayList<>();
+    for (int c = 0; c < 5; c += 1) {
+      CalendarModel calendar = new CalendarModelImpl("cal" + c, ZoneId.of("America/New_York"));
+      for (int i = 0; i < 100; i += 1) {
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 8, 0).plusHours(7L * i + c);
+        calendar.addEvent(new Event("e" + i, start, start.plusMinutes(30)));
+      }
+      this.calendars.add(calendar);
+    }
+  }
+
+  @Test
+  public void testMapKeepsCalendarOrder() {
+    List<String> names = this.executor.map(this.calendars, CalendarModel::getName);
+
+    assertEquals(Arrays.asList("cal0", "cal1", "cal2", "cal3", "cal4"), names);
+  }
+
+  @Test
+  public void testSegmentedCalendarMatchesDirectQuery() {
+    CalendarModel calendar = this.calendars.get(2);
+    LocalDateTime from = LocalDateTime.of(2025, 1, 3, 0, 0);
+    LocalDateTime to = LocalDateTime.of(2025, 1, 20, 0, 0);
+
+    assertEquals(calendar.getEventsOverlapping(from, to),
+            this.executor.getEventsOverlapping(calendar, from, to));
+  }
+
+  @Test
+  public void testEventsAcrossCalendarsAreInStartOrder() {
+    List<AgendaEntry> entries = this.executor.getEventsOverlapping(this.calendars,
+            ZoneId.of("America/Los_Angeles"), LocalDateTime.of(2025, 1, 1, 0, 0),
+            LocalDateTime.of(2025, 1, 2, 0, 0));
+
+    assertEquals(15, entries.size());
+    assertEquals(LocalDateTime.of(2025, 1, 1, 5, 0), entries.get(0).getStart());
+    for (int i = 1; i < entries.size(); i += 1) {
+      assertEquals(false, entries.get(i).getStart().isBefore(entries.get(i - 1).getStart()));
+    }
+  }
+}
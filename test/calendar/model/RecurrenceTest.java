@@ -0,0 +1,91 @@
+package calendar.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Test class for Recurrence, covering weekday parsing, count and until bounds and window
+ * expansion.
+ */
+public class RecurrenceTest {
+
+  private final LocalDate monday = LocalDate.of(2025, 6, 16);
+
+  @Test
+  public void testParseDays() {
+    assertEquals(0b1111111, Recurrence.parseDays("MTWRFSU"));
+    assertEquals(0b0010101, Recurrence.parseDays("MWF"));
+    assertEquals(0b1000000, Recurrence.parseDays("UU"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testParseEmptyDays() {
+    Recurrence.parseDays("");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testParseInvalidDays() {
+    Recurrence.parseDays("MX");
+  }
+
+  @Test
+  public void testCountBound() {
+    Recurrence recurrence = new Recurrence("TR", monday, 3);
+    List<LocalDate> dates = recurrence.dates();
+
+    assertEquals(3, recurrence.size());
+    assertEquals(LocalDate.of(2025, 6, 17), dates.get(0));
+    assertEquals(LocalDate.of(2025, 6, 19), dates.get(1));
+    assertEquals(LocalDate.of(2025, 6, 24), dates.get(2));
+  }
+
+  @Test
+  public void testUntilBoundIsInclusive() {
+    Recurrence recurrence = new Recurrence("MF", monday, LocalDate.of(2025, 6, 27));
+
+    assertEquals(4, recurrence.size());
+    assertEquals(4, recurrence.dates().size());
+    assertEquals(LocalDate.of(2025, 6, 27), recurrence.dates().get(3));
+  }
+
+  @Test
+  public void testUntilBeforeFirstIsEmpty() {
+    Recurrence recurrence = new Recurrence("MTWRFSU", monday, monday.minusDays(1));
+
+    assertEquals(0, recurrence.size());
+    assertTrue(recurrence.dates().isEmpty());
+  }
+
+  @Test
+  public void testExpandWindow() {
+    Recurrence recurrence = new Recurrence("W", monday, 520);
+    List<LocalDate> dates = recurrence.expand(LocalDate.of(2030, 1, 1),
+            LocalDate.of(2030, 1, 31));
+
+    assertEquals(5, dates.size());
+    assertEquals(LocalDate.of(2030, 1, 2), dates.get(0));
+    assertEquals(LocalDate.of(2030, 1, 30), dates.get(4));
+  }
+
+  @Test
+  public void testExpandMatchesDayByDay() {
+    Recurrence recurrence = new Recurrence("MRS", monday, 3650);
+    List<LocalDate> dates = recurrence.dates();
+
+    assertEquals(3650, dates.size());
+    int i = 0;
+    for (LocalDate date = monday; !date.isAfter(dates.get(3649)); date = date.plusDays(1)) {
+      if (recurrence.repeatsOn(date)) {
+        assertEquals(date, dates.get(i));
+        i += 1;
+      }
+    }
+    assertEquals(3650, i);
+    assertFalse(recurrence.repeatsOn(LocalDate.of(2025, 6, 17)));
+  }
+}